@@ -0,0 +1,65 @@
+package nhl;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Shared fixtures for the JMH benchmarks: the real skater file and a generated shots file.
+ */
+final class BenchmarkData {
+
+    static final String SKATERS_CSV = "data/skaters.csv";
+
+    /** Shooter names used in generated shot files; {@code SHOOTERS[0]} is the benchmark target. */
+    static final String[] SHOOTERS = new String[400];
+
+    static {
+        for (int i = 0; i < SHOOTERS.length; i++) {
+            SHOOTERS[i] = "Shooter " + i;
+        }
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Writes a shots CSV in MoneyPuck's column layout with shots spread evenly over
+     * {@link #SHOOTERS} and uniformly over the rink.
+     *
+     * @param shots The number of shot rows.
+     * @param seed  Random seed, so every fork sees the same file.
+     * @return The temporary file; deleted when the JVM exits.
+     */
+    static Path generateShots(int shots, long seed) throws IOException {
+        Path file = Files.createTempFile("bench_shots", ".csv");
+        file.toFile().deleteOnExit();
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("shotID,game_id,team,shooterName,xCordAdjusted,yCordAdjusted,shotType,xGoal\n");
+            for (int i = 0; i < shots; i++) {
+                double x = random.nextDouble() * 200 - 100;
+                double y = random.nextDouble() * 85 - 42.5;
+                out.write(i + ",2024020" + (i % 1312) + ",TOR," + SHOOTERS[i % SHOOTERS.length] + ","
+                        + String.format(Locale.ROOT, "%.1f,%.1f", x, y) + ",WRIST,"
+                        + String.format(Locale.ROOT, "%.4f", random.nextDouble() * 0.4) + "\n");
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Deletes the sidecar files the shot loaders may have written next to a generated file.
+     */
+    static void deleteSidecars(Path file) throws IOException {
+        Files.deleteIfExists(ShotIndex.indexPathFor(file.toAbsolutePath()));
+        Files.deleteIfExists(Paths.get(file.toAbsolutePath() + ".heat"));
+    }
+
+    /**
+     * Silences the loaders' console summaries so they do not flood the benchmark output.
+     */
+    static void muteStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
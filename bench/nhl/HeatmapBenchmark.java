@@ -0,0 +1,78 @@
+package nhl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heatmap aggregation and rendering into an off-screen image, the work behind the
+ * "View Heatmap" window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class HeatmapBenchmark {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 425;
+
+    private Path file;
+    private List<ShotData> shots;
+    private RinkPanel panel;
+    private BufferedImage image;
+    private boolean widened;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = BenchmarkData.generateShots(120000, 42);
+        shots = ShotDataLoader.loadShotsForPlayer(file.toString(), BenchmarkData.SHOOTERS[0]);
+        panel = new RinkPanel(HeatmapGrid.fromShots(shots));
+        panel.setSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteSidecars(file);
+    }
+
+    /** Aggregating one shooter's shots into the rink grid. */
+    @Benchmark
+    public HeatmapGrid aggregate() {
+        return HeatmapGrid.fromShots(shots);
+    }
+
+    /** Painting an already aggregated heatmap into a reused image. */
+    @Benchmark
+    public BufferedImage paint() {
+        Graphics2D g2 = image.createGraphics();
+        try {
+            panel.paint(g2);
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    /** Painting after a resize, which redraws the cached rink and heatmap layers. */
+    @Benchmark
+    public BufferedImage resizeAndPaint() {
+        widened = !widened;
+        panel.setSize(widened ? WIDTH - 1 : WIDTH, HEIGHT);
+        return paint();
+    }
+
+    /** Aggregation plus rendering into a fresh image, as a cold heatmap request does. */
+    @Benchmark
+    public BufferedImage aggregateAndRender() {
+        return RinkPanel.render(HeatmapGrid.fromShots(shots), WIDTH, HEIGHT);
+    }
+}
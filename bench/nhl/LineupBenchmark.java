@@ -0,0 +1,71 @@
+package nhl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring and lineup generation over the whole league, against a fixed high-threat target.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineupBenchmark {
+
+    private static final String TARGET = "Auston Matthews";
+
+    private List<Team> teams;
+    private List<Player> players;
+    private PlayerIndex index;
+    private Player target;
+    private double threatBoost;
+    private List<ParametricLineupIndex> lineupIndexes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.muteStdout();
+        teams = DataLoader.loadSkaterTableCached(BenchmarkData.SKATERS_CSV).toTeams();
+        index = PlayerIndex.build(teams);
+        players = new ArrayList<>();
+        for (Team team : teams) players.addAll(team.getRoster());
+        target = index.findByName(TARGET);
+        threatBoost = ScoringEngine.threatBoost(target);
+        lineupIndexes = new ArrayList<>(ParametricLineupIndex.buildAll(teams).values());
+    }
+
+    /** One composite score per skater in the league, one player at a time. */
+    @Benchmark
+    public void compositeScoreAllPlayers(Blackhole bh) {
+        for (Player p : players) {
+            bh.consume(LineupGenerator.getPlayerCompositeScore(p, target, 0.7, 0.3, threatBoost));
+        }
+    }
+
+    /** The same scores computed as one batch. */
+    @Benchmark
+    public double[] scoreAllPlayersBatch() {
+        return ScoringEngine.forTarget(target).scoreAll(players);
+    }
+
+    /** Every team's best lineup against the target. */
+    @Benchmark
+    public void bestLineupAllTeams(Blackhole bh) {
+        for (Team team : teams) {
+            bh.consume(LineupGenerator.getBestDefensiveLineup(index, team, TARGET));
+        }
+    }
+
+    /** Every team's best lineup against the target, answered from the parametric indexes. */
+    @Benchmark
+    public void indexedLineupAllTeams(Blackhole bh) {
+        for (ParametricLineupIndex lineupIndex : lineupIndexes) {
+            bh.consume(lineupIndex.lineupFor(target));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package nhl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading {@code data/skaters.csv}: the original list-of-teams API, each read strategy, and
+ * the snapshot-backed path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+
+    /** The read strategy, only varied for {@link #loadSkaterTable(ReadMode)}. */
+    @State(Scope.Benchmark)
+    public static class ReadMode {
+        @Param({"BUFFERED", "MAPPED", "PARALLEL"})
+        public DataLoader.LoadMode mode;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.muteStdout();
+        DataLoader.loadSkaterTableCached(BenchmarkData.SKATERS_CSV); // make sure the snapshot exists
+    }
+
+    @Benchmark
+    public List<Team> loadTeamsFromCSV() {
+        return DataLoader.loadTeamsFromCSV(BenchmarkData.SKATERS_CSV);
+    }
+
+    @Benchmark
+    public SkaterTable loadSkaterTable(ReadMode read) {
+        return DataLoader.loadSkaterTable(BenchmarkData.SKATERS_CSV, read.mode);
+    }
+
+    @Benchmark
+    public SkaterTable loadSkaterTableCached() {
+        return DataLoader.loadSkaterTableCached(BenchmarkData.SKATERS_CSV);
+    }
+}
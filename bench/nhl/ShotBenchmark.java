@@ -0,0 +1,49 @@
+package nhl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one shooter's shots from a generated league-sized shots file, through the
+ * sidecar index and with a full scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShotBenchmark {
+
+    @Param({"120000"})
+    public int shots;
+
+    private Path file;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = BenchmarkData.generateShots(shots, 42);
+        path = file.toString();
+        ShotIndex.forFile(path); // build the sidecar index outside the measurement
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteSidecars(file);
+    }
+
+    @Benchmark
+    public List<ShotData> loadShotsForPlayer() {
+        return ShotDataLoader.loadShotsForPlayer(path, BenchmarkData.SHOOTERS[0]);
+    }
+
+    @Benchmark
+    public List<ShotData> scanShotsForPlayer() {
+        return ShotDataLoader.scanShotsForPlayer(path, BenchmarkData.SHOOTERS[0]);
+    }
+}
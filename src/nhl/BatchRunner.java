@@ -0,0 +1,287 @@
+package nhl;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Headless entry point that generates lineups for a batch of matchup requests without
+ * touching any AWT or Swing classes.
+ *
+ * Each input line is {@code defendingTeam,targetPlayer[,defWeight,offWeight]}; blank lines,
+ * lines starting with {@code #} and a leading {@code team,...} header are skipped. Requests
+ * run in parallel against one shared, read-only dataset, and results are written in input
+ * order as newline-delimited JSON or CSV, each with its own timing.
+ *
+ * <pre>
+ * java -cp out nhl.BatchRunner [--data data/skaters.csv] [--format ndjson|csv] [--threads N]
+ *     [--weights profile.properties] [requests.csv | -]
+ * </pre>
+ */
+public class BatchRunner {
+
+    /** Output formats for batch results. */
+    public enum Format { NDJSON, CSV }
+
+    /** Requests allowed in flight per worker thread before the writer waits for the oldest. */
+    private static final int IN_FLIGHT_PER_THREAD = 64;
+
+    private final PlayerIndex playerIndex;
+    private final Map<String, ParametricLineupIndex> lineupIndexes;
+
+    /**
+     * Prepares a runner over a loaded league. The indexes are built up front so that
+     * worker threads only ever read shared state.
+     *
+     * @param teams The list of all teams.
+     */
+    public BatchRunner(List<Team> teams) {
+        this.playerIndex = PlayerIndex.build(teams);
+        Map<String, ParametricLineupIndex> byCode = new HashMap<>();
+        ParametricLineupIndex.buildAll(teams).forEach((name, index) -> byCode.put(fold(name), index));
+        this.lineupIndexes = byCode;
+    }
+
+    public static void main(String[] args) {
+        String dataPath = "data/skaters.csv";
+        String input = "-";
+        Format format = Format.NDJSON;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long metricsInterval = 0;
+        String weightsPath = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--data")) {
+                    dataPath = args[++i];
+                } else if (arg.equals("--format")) {
+                    format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                } else if (arg.equals("--threads")) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (arg.equals("--metrics-interval")) {
+                    metricsInterval = Long.parseLong(args[++i]);
+                } else if (arg.equals("--weights")) {
+                    weightsPath = args[++i];
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                } else {
+                    input = arg;
+                }
+            }
+            if (threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+            if (metricsInterval < 0) throw new IllegalArgumentException("--metrics-interval must not be negative");
+        } catch (RuntimeException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: BatchRunner [--data skaters.csv] [--format ndjson|csv] [--threads N] [--metrics-interval SECONDS] [--weights profile.properties] [requests.csv | -]");
+            System.exit(2);
+            return;
+        }
+
+        // Results own stdout; everything the loader prints goes to stderr instead
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+        if (metricsInterval > 0) Metrics.startPeriodicDump(metricsInterval, System.err);
+        if (weightsPath != null && !LineupGenerator.loadWeightProfile(weightsPath)) {
+            System.exit(1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        SkaterTable table = DataLoader.loadSkaterTableCached(dataPath);
+        if (table.size() == 0) {
+            System.err.println("No skaters loaded from " + dataPath);
+            System.exit(1);
+            return;
+        }
+        BatchRunner runner = new BatchRunner(table.toTeams());
+        System.err.printf("Loaded %d skaters in %.1f ms%n", table.size(), (System.nanoTime() - start) / 1e6);
+
+        try (BufferedReader in = input.equals("-")
+                     ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                     : new BufferedReader(new InputStreamReader(new FileInputStream(input), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8))) {
+            int count = runner.run(in, out, format, threads);
+            System.err.printf("Processed %d requests in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+            if (metricsInterval > 0) System.err.print(Metrics.dump());
+        } catch (IOException e) {
+            System.err.println("Error running batch: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs every request read from {@code in} and writes one result per request, in input order.
+     *
+     * @param in      The request lines.
+     * @param out     Where results are written; flushed but not closed.
+     * @param format  The output format.
+     * @param threads The number of worker threads.
+     * @return The number of requests processed.
+     * @throws IOException If reading requests or writing results fails.
+     */
+    public int run(BufferedReader in, Writer out, Format format, int threads) throws IOException {
+        if (format == Format.CSV) {
+            out.write("line,team,target,status,targetFound,threatBoost,lineup,score,elapsedMicros,error\n");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        Deque<Future<Result>> pending = new ArrayDeque<>();
+        int window = threads * IN_FLIGHT_PER_THREAD;
+        int count = 0;
+
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                if (count == 0 && trimmed.toLowerCase(Locale.ROOT).startsWith("team,")) continue; // header
+
+                final int number = lineNumber;
+                pending.add(pool.submit(() -> process(number, trimmed)));
+                count++;
+                if (pending.size() >= window) {
+                    writeResult(await(pending.poll()), out, format);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeResult(await(pending.poll()), out, format);
+            }
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+        return count;
+    }
+
+    /**
+     * Generates the lineup for one request line.
+     *
+     * @param lineNumber The request's line number in the input.
+     * @param line       The request line.
+     * @return The result; never null, failures are reported in it.
+     */
+    Result process(int lineNumber, String line) {
+        long start = System.nanoTime();
+        Result result = new Result(lineNumber);
+        try {
+            String[] fields = line.split(",", -1);
+            if (fields.length < 2 || fields.length == 3 || fields.length > 4) {
+                throw new IllegalArgumentException("Expected team,target[,defWeight,offWeight]");
+            }
+            result.team = fields[0].trim();
+            result.target = fields[1].trim();
+
+            ParametricLineupIndex lineupIndex = lineupIndexes.get(fold(result.team));
+            if (lineupIndex == null) throw new IllegalArgumentException("Unknown team " + result.team);
+
+            Player target = playerIndex.findByName(result.target);
+            result.targetFound = target != null;
+            result.threatBoost = ScoringEngine.threatBoost(target);
+
+            ScoringEngine engine;
+            if (fields.length == 4) {
+                engine = new ScoringEngine(lineupIndex.getWeights()
+                        .with(ScoringWeights.Term.DEF_WEIGHT, Double.parseDouble(fields[2].trim()))
+                        .with(ScoringWeights.Term.OFF_WEIGHT, Double.parseDouble(fields[3].trim())), result.threatBoost);
+                result.lineup = new LineupOptimizer(engine)
+                        .optimize(LineupGenerator.eligibleCandidates(lineupIndex.getTeam())).getPlayers();
+            } else {
+                engine = new ScoringEngine(lineupIndex.getWeights(), result.threatBoost);
+                result.lineup = lineupIndex.lineupFor(result.threatBoost);
+            }
+            for (double score : engine.scoreAll(result.lineup)) result.score += score;
+        } catch (RuntimeException e) {
+            result.error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+        result.elapsedMicros = (System.nanoTime() - start) / 1000;
+        return result;
+    }
+
+    private static Result await(Future<Result> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for batch results");
+        } catch (ExecutionException e) {
+            throw new IOException("Batch request failed", e.getCause());
+        }
+    }
+
+    private static void writeResult(Result r, Writer out, Format format) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        if (format == Format.CSV) {
+            StringJoiner names = new StringJoiner("|");
+            if (r.lineup != null) for (Player p : r.lineup) names.add(p.getName());
+            sb.append(r.lineNumber).append(',')
+              .append(csv(r.team)).append(',')
+              .append(csv(r.target)).append(',')
+              .append(r.error == null ? "ok" : "error").append(',')
+              .append(r.targetFound).append(',')
+              .append(String.format(Locale.ROOT, "%.4f", r.threatBoost)).append(',')
+              .append(csv(names.toString())).append(',')
+              .append(String.format(Locale.ROOT, "%.4f", r.score)).append(',')
+              .append(r.elapsedMicros).append(',')
+              .append(csv(r.error)).append('\n');
+        } else {
+            sb.append("{\"line\":").append(r.lineNumber)
+              .append(",\"team\":").append(Json.quote(r.team))
+              .append(",\"target\":").append(Json.quote(r.target))
+              .append(",\"status\":\"").append(r.error == null ? "ok" : "error").append('"');
+            if (r.error != null) {
+                sb.append(",\"error\":").append(Json.quote(r.error));
+            } else {
+                sb.append(",\"targetFound\":").append(r.targetFound)
+                  .append(",\"threatBoost\":").append(Json.number(r.threatBoost, 4))
+                  .append(",\"score\":").append(Json.number(r.score, 4))
+                  .append(",\"lineup\":[");
+                for (int i = 0; i < r.lineup.size(); i++) {
+                    Player p = r.lineup.get(i);
+                    if (i > 0) sb.append(',');
+                    sb.append("{\"name\":").append(Json.quote(p.getName()))
+                      .append(",\"position\":").append(Json.quote(p.getPosition())).append('}');
+                }
+                sb.append(']');
+            }
+            sb.append(",\"elapsedMicros\":").append(r.elapsedMicros).append("}\n");
+        }
+        out.write(sb.toString());
+    }
+
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The outcome of one request.
+     */
+    static final class Result {
+        final int lineNumber;
+        String team;
+        String target;
+        boolean targetFound;
+        double threatBoost;
+        List<Player> lineup;
+        double score;
+        long elapsedMicros;
+        String error;
+
+        Result(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+}
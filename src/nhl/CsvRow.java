@@ -0,0 +1,41 @@
+package nhl;
+
+/**
+ * Read access to the fields of one CSV row, independent of how the row was tokenized.
+ */
+public interface CsvRow {
+
+    /**
+     * @return The number of fields on the row.
+     */
+    int fieldCount();
+
+    /**
+     * @param field The field index.
+     * @return The trimmed field text.
+     */
+    String getString(int field);
+
+    /**
+     * @param field The field index.
+     * @return The field parsed as a double, or 0.0 if it is blank or malformed.
+     */
+    double getDouble(int field);
+
+    /**
+     * @param field The field index.
+     * @param ascii The literal to compare against.
+     * @return true if the trimmed field equals {@code ascii}.
+     */
+    boolean fieldEquals(int field, String ascii);
+
+    /**
+     * Makes the leading fields of the row available, for rows that are tokenized on demand.
+     *
+     * @param fields The number of leading fields needed.
+     * @return The number of fields now available; fewer than {@code fields} only if the row is shorter.
+     */
+    default int require(int fields) {
+        return fieldCount();
+    }
+}
@@ -1,7 +1,13 @@
 package nhl;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * Utility class responsible for loading player and team data from a CSV file,
@@ -18,120 +24,511 @@ public class DataLoader {
      * @return A list of {@link Team} objects, each containing its player roster.
      */
     public static List<Team> loadTeamsFromCSV(String filePath) {
-        Map<String, List<Player>> teamMap = new HashMap<>();
+        return loadSkaterTable(filePath).toTeams();
+    }
+
+    /**
+     * Strategies for reading the skaters CSV.
+     */
+    public enum LoadMode {
+        /** Line-by-line through a {@link BufferedReader}, splitting each row into strings as far as needed. */
+        BUFFERED,
+        /** Memory-mapped, parsing fields in place through {@link MappedCsvReader}. */
+        MAPPED,
+        /** Memory-mapped, parsing newline-aligned byte ranges in parallel on the fork-join pool. */
+        PARALLEL
+    }
+
+    /** Smallest byte range worth parsing on its own fork-join task. */
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    /** How many bytes the sequential readers consume between progress callbacks. */
+    private static final int PROGRESS_INTERVAL_BYTES = 64 * 1024;
+
+    static final Metrics.Counter ROWS_READ =
+            Metrics.counter("load.rows.read", "Skater data rows read");
+    static final Metrics.Counter ROWS_REJECTED =
+            Metrics.counter("load.rows.rejected", "Skater rows too short or unparseable");
+    static final Metrics.Counter ROWS_DUPLICATE =
+            Metrics.counter("load.rows.duplicate", "Skater rows dropped as repeats of an earlier row");
+    static final Metrics.Timer PARSE_TIME =
+            Metrics.timer("load.parse", "Reading and parsing one skaters file");
+    static final Metrics.Timer FINALIZE_TIME =
+            Metrics.timer("load.finalize", "Normalizing the tables of one load");
+    static final Metrics.Timer SNAPSHOT_TIME =
+            Metrics.timer("load.snapshot", "Reading a skater table from its binary snapshot");
+
+    /**
+     * Loads player data from a CSV file into a columnar {@link SkaterTable} using the
+     * memory-mapped reader.
+     *
+     * @param filePath Path to the CSV file.
+     * @return The populated table; teams are available through {@link SkaterTable#toTeams()}.
+     */
+    public static SkaterTable loadSkaterTable(String filePath) {
+        return loadSkaterTable(filePath, LoadMode.MAPPED);
+    }
+
+    /**
+     * Loads player data from a CSV file into a columnar {@link SkaterTable}.
+     * Applies the same 5-on-5 filter, deduplication and normalization as
+     * {@link #loadTeamsFromCSV(String)}.
+     *
+     * @param filePath Path to the CSV file.
+     * @param mode     How the file should be read.
+     * @return The populated table; teams are available through {@link SkaterTable#toTeams()}.
+     */
+    public static SkaterTable loadSkaterTable(String filePath, LoadMode mode) {
+        return loadSkaterTable(filePath, mode, LoadListener.NONE);
+    }
+
+    /**
+     * Loads player data from a CSV file into a columnar {@link SkaterTable}, reporting
+     * bytes consumed and newly seen teams to {@code listener} as the file is read.
+     *
+     * @param filePath Path to the CSV file.
+     * @param mode     How the file should be read.
+     * @param listener Receives progress callbacks; see {@link LoadListener} for threading.
+     * @return The populated table; teams are available through {@link SkaterTable#toTeams()}.
+     */
+    public static SkaterTable loadSkaterTable(String filePath, LoadMode mode, LoadListener listener) {
+        SkaterTable table = new SkaterTable(1024);
         Set<String> addedPlayers = new HashSet<>();
 
+        long start = System.nanoTime();
+        try {
+            if (mode == LoadMode.PARALLEL) {
+                readParallel(filePath, table, addedPlayers, listener);
+            } else if (mode == LoadMode.MAPPED) {
+                readMapped(filePath, table, addedPlayers, listener);
+            } else {
+                readBuffered(filePath, table, addedPlayers, listener);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+        }
+        PARSE_TIME.recordSince(start);
+
+        start = System.nanoTime();
+        finalizeTable(table, mode == LoadMode.PARALLEL);
+        FINALIZE_TIME.recordSince(start);
+        return table;
+    }
+
+    /**
+     * Loads player data through the binary snapshot next to the CSV. If the snapshot is
+     * missing or no longer matches the CSV's size, mtime or content hash, the CSV is parsed
+     * and normalized as usual and a fresh snapshot is written for the next start.
+     *
+     * @param filePath Path to the CSV file.
+     * @return The populated, normalized table.
+     */
+    public static SkaterTable loadSkaterTableCached(String filePath) {
+        return loadSkaterTableCached(filePath, LoadListener.NONE);
+    }
+
+    /**
+     * Loads player data through the binary snapshot, reporting progress to {@code listener}.
+     * A snapshot hit reports the whole file as read and every team at once.
+     *
+     * @param filePath Path to the CSV file.
+     * @param listener Receives progress callbacks; see {@link LoadListener} for threading.
+     * @return The populated, normalized table.
+     */
+    public static SkaterTable loadSkaterTableCached(String filePath, LoadListener listener) {
+        Path snapshotPath = SkaterSnapshot.snapshotPathFor(filePath);
+        long start = System.nanoTime();
+        SkaterTable table = SkaterSnapshot.read(filePath, snapshotPath);
+        if (table != null) {
+            SNAPSHOT_TIME.recordSince(start);
+            long size = new File(filePath).length();
+            table.getTeamNames().forEach(listener::onTeamSeen);
+            listener.onProgress(size, size);
+            return table;
+        }
+
+        table = loadSkaterTable(filePath, LoadMode.MAPPED, listener);
+        if (table.size() > 0) {
+            try {
+                SkaterSnapshot.write(table, filePath, snapshotPath);
+            } catch (IOException e) {
+                System.err.println("Error writing snapshot: " + e.getMessage());
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Loads every game situation from the skaters file in a single memory-mapped pass.
+     * Each situation gets its own table, deduplicated and normalized exactly as the 5-on-5
+     * table from {@link #loadSkaterTable(String)} is, and all tables share one player dictionary.
+     *
+     * @param filePath Path to the CSV file.
+     * @return The per-situation tables; empty if the file cannot be read.
+     */
+    public static SituationTables loadAllSituations(String filePath) {
+        return loadAllSituations(filePath, LoadListener.NONE);
+    }
+
+    /**
+     * Loads every game situation from the skaters file in a single pass, reporting progress
+     * to {@code listener}.
+     *
+     * @param filePath Path to the CSV file.
+     * @param listener Receives progress callbacks; see {@link LoadListener} for threading.
+     * @return The per-situation tables; empty if the file cannot be read.
+     */
+    public static SituationTables loadAllSituations(String filePath, LoadListener listener) {
+        SituationTables tables = new SituationTables();
+
+        long start = System.nanoTime();
+        try {
+            ByteBuffer buffer = MappedCsvReader.map(filePath);
+            MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.limit());
+            if (!reader.nextRow()) throw new IOException("CSV file is empty");
+            SkaterSchema schema = SkaterSchema.fromHeader(reader);
+
+            long totalBytes = buffer.limit();
+            int reported = 0;
+            while (reader.nextRowLazy()) {
+                addSituationRow(reader, schema, tables, listener);
+                if (reader.position() - reported >= PROGRESS_INTERVAL_BYTES) {
+                    reported = reader.position();
+                    listener.onProgress(reported, totalBytes);
+                }
+            }
+            listener.onProgress(totalBytes, totalBytes);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+        }
+        PARSE_TIME.recordSince(start);
+
+        start = System.nanoTime();
+        for (Situation situation : Situation.values()) {
+            finalizeTable(tables.getTable(situation), false, situation == Situation.FIVE_ON_FIVE);
+        }
+        FINALIZE_TIME.recordSince(start);
+        return tables;
+    }
+
+    private static void readBuffered(String filePath, SkaterTable table, Set<String> addedPlayers,
+                                     LoadListener listener) throws IOException {
+        long totalBytes = new File(filePath).length();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line = br.readLine(); // Skip header
+            String line = br.readLine();
             if (line == null) throw new IOException("CSV file is empty");
+            SkaterSchema schema = SkaterSchema.fromHeader(new StringRow(line));
 
+            long bytesRead = line.length() + 1;
+            long reported = 0;
             while ((line = br.readLine()) != null) {
-                String[] fields = line.split(",", -1);
-                if (fields.length < 138) continue;
-                if (!fields[5].trim().equals("5on5")) continue;
-
-                try {
-                    String playerName = fields[2].trim();
-                    String teamName = fields[3].trim();
-                    String position = fields[4].trim();
-                    String key = teamName + "-" + playerName;
-
-                    if (addedPlayers.contains(key)) continue;
-                    addedPlayers.add(key);
-
-                    double onIceXGA = parseSafeDouble(fields[106]);
-                    double iceTime = parseSafeDouble(fields[7]) / 60.0;
-                    double onIceXGA60 = iceTime > 0 ? onIceXGA / iceTime : 0;
-
-                    Player player = new Player(
-                        playerName,
-                        position,
-                        parseSafeDouble(fields[134]),
-                        onIceXGA60,
-                        (int) parseSafeDouble(fields[46]),
-                        (int) parseSafeDouble(fields[47]),
-                        (int) parseSafeDouble(fields[34]),
-                        (int) parseSafeDouble(fields[33]),
-                        (int) parseSafeDouble(fields[83]),
-                        (int) parseSafeDouble(fields[122]),
-                        (int) parseSafeDouble(fields[70]),
-                        (int) parseSafeDouble(fields[48]),
-                        (int) parseSafeDouble(fields[69]),
-                        (int) parseSafeDouble(fields[71]),
-                        iceTime,
-                        (int) parseSafeDouble(fields[8]),
-                        (int) parseSafeDouble(fields[79]),
-                        (int) parseSafeDouble(fields[43]),
-                        (int) parseSafeDouble(fields[44]),
-                        parseSafeDouble(fields[54]),
-                        (int) parseSafeDouble(fields[36]),
-                        (int) parseSafeDouble(fields[6])
-                    );
-
-                    teamMap.computeIfAbsent(teamName, k -> new ArrayList<>()).add(player);
-
-                } catch (Exception e) {
-                    System.err.println("Error parsing player data: " + e.getMessage());
+                addRow(new StringRow(line), schema, table, addedPlayers, listener);
+                bytesRead += line.length() + 1; // approximate: assumes single-byte chars and \n endings
+                if (bytesRead - reported >= PROGRESS_INTERVAL_BYTES) {
+                    reported = bytesRead;
+                    listener.onProgress(Math.min(bytesRead, totalBytes), totalBytes);
                 }
             }
+            listener.onProgress(totalBytes, totalBytes);
+        }
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error reading CSV: " + e.getMessage());
+    private static void readMapped(String filePath, SkaterTable table, Set<String> addedPlayers,
+                                   LoadListener listener) throws IOException {
+        ByteBuffer buffer = MappedCsvReader.map(filePath);
+        MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.limit());
+        if (!reader.nextRow()) throw new IOException("CSV file is empty");
+        SkaterSchema schema = SkaterSchema.fromHeader(reader);
+
+        long totalBytes = buffer.limit();
+        int reported = 0;
+        while (reader.nextRowLazy()) {
+            addRow(reader, schema, table, addedPlayers, listener);
+            if (reader.position() - reported >= PROGRESS_INTERVAL_BYTES) {
+                reported = reader.position();
+                listener.onProgress(reported, totalBytes);
+            }
         }
+        listener.onProgress(totalBytes, totalBytes);
+    }
+
+    /**
+     * Parses newline-aligned byte ranges of the file on the common fork-join pool, each into
+     * its own partial table, then merges the partials in file order. Merging in order keeps
+     * the first occurrence of a duplicate player, exactly as the sequential loaders do.
+     */
+    private static void readParallel(String filePath, SkaterTable table, Set<String> addedPlayers,
+                                     LoadListener listener) throws IOException {
+        ByteBuffer buffer = MappedCsvReader.map(filePath);
+        int dataStart = nextLineStart(buffer, 0, buffer.limit());
+        if (buffer.limit() == 0) throw new IOException("CSV file is empty");
+        MappedCsvReader header = new MappedCsvReader(buffer, 0, dataStart);
+        header.nextRow();
+        SkaterSchema schema = SkaterSchema.fromHeader(header);
+
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES,
+                buffer.limit() / (4 * ForkJoinPool.getCommonPoolParallelism()));
+        AtomicLong bytesParsed = new AtomicLong(dataStart);
+        List<SkaterTable> partials = ForkJoinPool.commonPool()
+                .invoke(new ParseRangeTask(buffer, schema, dataStart, buffer.limit(), chunkBytes, bytesParsed, listener));
 
-        return finalizeTeams(teamMap);
+        for (SkaterTable partial : partials) {
+            for (int row = 0; row < partial.size(); row++) {
+                if (addedPlayers.add(partial.getTeam(row) + "-" + partial.getName(row))) {
+                    int teamsBefore = table.teamCount();
+                    table.addRowFrom(partial, row);
+                    if (table.teamCount() > teamsBefore) listener.onTeamSeen(partial.getTeam(row));
+                } else {
+                    ROWS_DUPLICATE.increment();
+                }
+            }
+        }
     }
 
     /**
-     * Finalizes team data by normalizing takeaways and giveaways and
-     * computing a takeaway efficiency score for each player.
-     *
-     * @param teamMap A map of team names to lists of their players.
-     * @return A list of {@link Team} objects with normalized player data.
+     * Finds the offset just past the next line terminator at or after {@code from}.
      */
-    private static List<Team> finalizeTeams(Map<String, List<Player>> teamMap) {
-        int maxTakeaways = Integer.MIN_VALUE;
-        int minTakeaways = Integer.MAX_VALUE;
-        int maxGiveaways = Integer.MIN_VALUE;
-        int minGiveaways = Integer.MAX_VALUE;
+    private static int nextLineStart(ByteBuffer buffer, int from, int end) {
+        int i = from;
+        while (i < end && buffer.get(i) != '\n') i++;
+        return Math.min(i + 1, end);
+    }
 
-        for (List<Player> roster : teamMap.values()) {
-            for (Player p : roster) {
-                maxTakeaways = Math.max(maxTakeaways, p.getTakeaways());
-                minTakeaways = Math.min(minTakeaways, p.getTakeaways());
-                maxGiveaways = Math.max(maxGiveaways, p.getGiveaways());
-                minGiveaways = Math.min(minGiveaways, p.getGiveaways());
+    /**
+     * Fork-join task that splits a byte range at line boundaries until it is small enough,
+     * then parses it. The result lists the partial tables in file order.
+     */
+    private static final class ParseRangeTask extends RecursiveTask<List<SkaterTable>> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final SkaterSchema schema;
+        private final int start;
+        private final int end;
+        private final int chunkBytes;
+        private final AtomicLong bytesParsed;
+        private final LoadListener listener;
+
+        ParseRangeTask(ByteBuffer buffer, SkaterSchema schema, int start, int end, int chunkBytes,
+                       AtomicLong bytesParsed, LoadListener listener) {
+            this.buffer = buffer;
+            this.schema = schema;
+            this.start = start;
+            this.end = end;
+            this.chunkBytes = chunkBytes;
+            this.bytesParsed = bytesParsed;
+            this.listener = listener;
+        }
+
+        @Override
+        protected List<SkaterTable> compute() {
+            if (end - start > chunkBytes) {
+                int mid = nextLineStart(buffer, start + (end - start) / 2, end);
+                if (mid < end) {
+                    ParseRangeTask left = new ParseRangeTask(buffer, schema, start, mid, chunkBytes, bytesParsed, listener);
+                    ParseRangeTask right = new ParseRangeTask(buffer, schema, mid, end, chunkBytes, bytesParsed, listener);
+                    left.fork();
+                    List<SkaterTable> result = new ArrayList<>(right.compute());
+                    result.addAll(0, left.join());
+                    return result;
+                }
+            }
+
+            SkaterTable partial = new SkaterTable();
+            Set<String> seen = new HashSet<>();
+            MappedCsvReader reader = new MappedCsvReader(buffer, start, end);
+            while (reader.nextRowLazy()) {
+                addRow(reader, schema, partial, seen, LoadListener.NONE);
+            }
+            synchronized (bytesParsed) { // keep reported progress monotonic across workers
+                listener.onProgress(bytesParsed.addAndGet(end - start), buffer.limit());
             }
+            return Collections.singletonList(partial);
         }
+    }
 
-        for (List<Player> roster : teamMap.values()) {
-            for (Player p : roster) {
-                double normTake = (maxTakeaways - minTakeaways) == 0 ? 0 :
-                        (p.getTakeaways() - minTakeaways) / (double)(maxTakeaways - minTakeaways);
-                double normGive = (maxGiveaways - minGiveaways) == 0 ? 0 :
-                        (p.getGiveaways() - minGiveaways) / (double)(maxGiveaways - minGiveaways);
+    /**
+     * Adds one CSV row to the table if it is a 5-on-5 row for a player not seen yet. Only the
+     * fields up to the situation are located until the row is known to be 5-on-5.
+     */
+    private static void addRow(CsvRow fields, SkaterSchema schema, SkaterTable table, Set<String> addedPlayers,
+                               LoadListener listener) {
+        ROWS_READ.increment();
+        int situation = schema.index(SkaterSchema.Column.SITUATION);
+        if (fields.require(situation + 1) <= situation) {
+            ROWS_REJECTED.increment();
+            return;
+        }
+        if (!fields.fieldEquals(situation, "5on5")) return;
+        if (fields.require(schema.getRequiredFields()) < schema.getRequiredFields()) {
+            ROWS_REJECTED.increment();
+            return;
+        }
+
+        try {
+            String playerName = fields.getString(schema.index(SkaterSchema.Column.NAME));
+            String teamName = fields.getString(schema.index(SkaterSchema.Column.TEAM));
+            String position = fields.getString(schema.index(SkaterSchema.Column.POSITION));
+            String key = teamName + "-" + playerName;
 
-                double efficiencyScore = (2.0 * normTake) - (0.5 * normGive);
-                p.setTakeawayEfficiencyScore(efficiencyScore);
+            if (!addedPlayers.add(key)) {
+                ROWS_DUPLICATE.increment();
+                return;
             }
+
+            int teamsBefore = table.teamCount();
+            appendStats(fields, schema, table, teamName, playerName, position);
+            if (table.teamCount() > teamsBefore) listener.onTeamSeen(teamName);
+
+        } catch (Exception e) {
+            ROWS_REJECTED.increment();
+            System.err.println("Error parsing player data: " + e.getMessage());
         }
+    }
 
-        System.out.println("Top 5 Takeaway Efficiency Players:");
-        teamMap.values().stream()
-            .flatMap(List::stream)
-            .sorted(Comparator.comparingDouble(Player::getTakeawayEfficiencyScore).reversed())
-            .limit(5)
-            .forEach(p -> System.out.printf("- %s: %.3f%n", p.getName(), p.getTakeawayEfficiencyScore()));
+    /**
+     * Adds one CSV row to its situation's table if that situation has no row yet for the player.
+     */
+    private static void addSituationRow(CsvRow fields, SkaterSchema schema, SituationTables tables,
+                                        LoadListener listener) {
+        ROWS_READ.increment();
+        if (fields.require(schema.getRequiredFields()) < schema.getRequiredFields()) {
+            ROWS_REJECTED.increment();
+            return;
+        }
+        Situation situation = Situation.of(fields, schema.index(SkaterSchema.Column.SITUATION));
+        if (situation == null) return;
 
-        List<Team> teams = new ArrayList<>();
-        for (Map.Entry<String, List<Player>> entry : teamMap.entrySet()) {
-            teams.add(new Team(entry.getKey(), entry.getValue()));
+        try {
+            PlayerDictionary dictionary = tables.getDictionary();
+            int teamsBefore = dictionary.teamCount();
+            int ordinal = dictionary.intern((int) fields.getDouble(schema.index(SkaterSchema.Column.PLAYER_ID)),
+                    fields.getString(schema.index(SkaterSchema.Column.TEAM)),
+                    fields.getString(schema.index(SkaterSchema.Column.NAME)),
+                    fields.getString(schema.index(SkaterSchema.Column.POSITION)));
+            if (tables.rowOf(situation, ordinal) >= 0) {
+                ROWS_DUPLICATE.increment();
+                return;
+            }
+
+            // Identity strings come from the dictionary so every situation shares the same instances
+            int row = appendStats(fields, schema, tables.getTable(situation), dictionary.getTeam(ordinal),
+                    dictionary.getName(ordinal), dictionary.getPosition(ordinal));
+            tables.setRow(situation, ordinal, row);
+            if (dictionary.teamCount() > teamsBefore) listener.onTeamSeen(dictionary.getTeam(ordinal));
+
+        } catch (Exception e) {
+            ROWS_REJECTED.increment();
+            System.err.println("Error parsing player data: " + e.getMessage());
         }
-        return teams;
+    }
+
+    /**
+     * Appends the stat columns of one CSV row to the table and returns the new row's ordinal.
+     * The row must have at least {@link SkaterSchema#getRequiredFields()} fields located.
+     */
+    static int appendStats(CsvRow fields, SkaterSchema schema, SkaterTable table, String teamName,
+                           String playerName, String position) {
+        double onIceXGA = fields.getDouble(schema.index(SkaterSchema.Column.ON_ICE_XGA));
+        double iceTime = fields.getDouble(schema.index(SkaterSchema.Column.ICE_TIME)) / 60.0;
+        double onIceXGA60 = iceTime > 0 ? onIceXGA / iceTime : 0;
+
+        return table.addRow(
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.PLAYER_ID)),
+            teamName,
+            playerName,
+            position,
+            fields.getDouble(schema.index(SkaterSchema.Column.EXPECTED_GOALS_AGAINST)),
+            onIceXGA60,
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.HITS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.TAKEAWAYS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.GOALS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.POINTS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.BLOCKED_SHOTS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.SHOT_ATTEMPTS_AGAINST)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.D_ZONE_STARTS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.GIVEAWAYS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.O_ZONE_STARTS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.N_ZONE_STARTS)),
+            iceTime,
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.SHIFTS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.TIME_ON_BENCH)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.PENALTIES)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.PENALTY_MINUTES)),
+            fields.getDouble(schema.index(SkaterSchema.Column.HIGH_DANGER_XGOALS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.REBOUND_GOALS)),
+            (int) fields.getDouble(schema.index(SkaterSchema.Column.GAMES_PLAYED))
+        );
+    }
+
+    /**
+     * Finalizes the table by normalizing takeaways and giveaways and
+     * computing a takeaway efficiency score for each player.
+     *
+     * @param table    The table of loaded players; its derived columns are updated in place.
+     * @param parallel Whether the min/max reduction and rescoring run as parallel streams.
+     */
+    static void finalizeTable(SkaterTable table, boolean parallel) {
+        finalizeTable(table, parallel, true);
+    }
+
+    /**
+     * Finalizes the table as {@link #finalizeTable(SkaterTable, boolean)} does, optionally
+     * without printing the top takeaway players.
+     */
+    static void finalizeTable(SkaterTable table, boolean parallel, boolean report) {
+        table.trimToSize();
+        int size = table.size();
+        int[] takeaways = table.takeaways;
+        int[] giveaways = table.giveaways;
+
+        IntStream takeawayStream = Arrays.stream(takeaways, 0, size);
+        IntStream giveawayStream = Arrays.stream(giveaways, 0, size);
+        IntSummaryStatistics takeawayStats = (parallel ? takeawayStream.parallel() : takeawayStream).summaryStatistics();
+        IntSummaryStatistics giveawayStats = (parallel ? giveawayStream.parallel() : giveawayStream).summaryStatistics();
+
+        int maxTakeaways = takeawayStats.getMax();
+        int minTakeaways = takeawayStats.getMin();
+        int maxGiveaways = giveawayStats.getMax();
+        int minGiveaways = giveawayStats.getMin();
+
+        double[] efficiency = table.takeawayEfficiencyScore;
+        IntStream rows = IntStream.range(0, size);
+        (parallel ? rows.parallel() : rows).forEach(i -> efficiency[i] = takeawayEfficiency(
+                takeaways[i], giveaways[i], minTakeaways, maxTakeaways, minGiveaways, maxGiveaways));
+
+        if (!report) return;
+        System.out.println("Top 5 Takeaway Efficiency Players:");
+        for (Player player : new Leaderboard(table).top(Leaderboard.Stat.TAKEAWAY_EFFICIENCY, 5)) {
+            System.out.printf("- %s: %.3f%n", player.getName(), player.getTakeawayEfficiencyScore());
+        }
+    }
+
+    /**
+     * Computes the takeaway efficiency score of one player from min-max normalized
+     * takeaways and giveaways.
+     *
+     * @param takeaways    The player's takeaways.
+     * @param giveaways    The player's giveaways.
+     * @param minTakeaways The smallest takeaway count among the players being normalized.
+     * @param maxTakeaways The largest takeaway count among the players being normalized.
+     * @param minGiveaways The smallest giveaway count among the players being normalized.
+     * @param maxGiveaways The largest giveaway count among the players being normalized.
+     * @return The takeaway efficiency score.
+     */
+    static double takeawayEfficiency(int takeaways, int giveaways, int minTakeaways, int maxTakeaways,
+                                     int minGiveaways, int maxGiveaways) {
+        double normTake = (maxTakeaways - minTakeaways) == 0 ? 0 :
+                (takeaways - minTakeaways) / (double)(maxTakeaways - minTakeaways);
+        double normGive = (maxGiveaways - minGiveaways) == 0 ? 0 :
+                (giveaways - minGiveaways) / (double)(maxGiveaways - minGiveaways);
+
+        return (2.0 * normTake) - (0.5 * normGive);
     }
 
     /**
      * Finds a player by name from the provided list of teams.
+     * Callers doing repeated lookups should build a {@link PlayerIndex} once instead.
      *
      * @param name  The name of the player to search for.
      * @param teams The list of all teams.
@@ -148,8 +545,20 @@ public class DataLoader {
         return null;
     }
 
+    /**
+     * Finds a player by name through a prebuilt index.
+     *
+     * @param name  The name of the player to search for.
+     * @param index The index over all teams.
+     * @return The matching {@link Player}, or null if not found.
+     */
+    public static Player findPlayerByName(String name, PlayerIndex index) {
+        return index.findByName(name);
+    }
+
     /**
      * Retrieves the name of the team that a given player belongs to.
+     * Callers doing repeated lookups should build a {@link PlayerIndex} once instead.
      *
      * @param name  The player's name.
      * @param teams The list of all teams.
@@ -166,6 +575,17 @@ public class DataLoader {
         return "Unknown Team";
     }
 
+    /**
+     * Retrieves the name of the team that a given player belongs to through a prebuilt index.
+     *
+     * @param name  The player's name.
+     * @param index The index over all teams.
+     * @return The name of the player's team, or "Unknown Team" if not found.
+     */
+    public static String getTeamNameForPlayer(String name, PlayerIndex index) {
+        return index.getTeamNameForPlayer(name);
+    }
+
     /**
      * Collects the names of all players across all teams.
      *
@@ -196,4 +616,57 @@ public class DataLoader {
             return 0.0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * {@link CsvRow} over one line of text, split into fields only as far as {@link #require(int)} asks.
+     */
+    private static final class StringRow implements CsvRow {
+        private final String line;
+        private String[] fields = new String[16];
+        private int fieldCount;
+        /** Offset of the first field not split off yet, or -1 once the whole line is split. */
+        private int next;
+
+        StringRow(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public int require(int count) {
+            while (fieldCount < count && next >= 0) {
+                int comma = line.indexOf(',', next);
+                if (fieldCount == fields.length) fields = Arrays.copyOf(fields, fieldCount * 2);
+                fields[fieldCount++] = comma < 0 ? line.substring(next) : line.substring(next, comma);
+                next = comma < 0 ? -1 : comma + 1;
+            }
+            return fieldCount;
+        }
+
+        @Override
+        public int fieldCount() {
+            return fieldCount;
+        }
+
+        @Override
+        public String getString(int field) {
+            return field(field).trim();
+        }
+
+        @Override
+        public double getDouble(int field) {
+            return parseSafeDouble(field(field));
+        }
+
+        @Override
+        public boolean fieldEquals(int field, String ascii) {
+            return field(field).trim().equals(ascii);
+        }
+
+        private String field(int field) {
+            if (field >= fieldCount) {
+                throw new IndexOutOfBoundsException("Field " + field + " out of range for row of " + fieldCount);
+            }
+            return fields[field];
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package nhl;
+
+import java.util.List;
+
+/**
+ * Fixed-resolution xG heatmap over the 200 x 85 ft rink, one cell per square foot,
+ * backed by a summed-area table. Any rectangle of cells can be summed in O(1), so the
+ * grid can be resampled to whatever pixel cell size the panel currently needs without
+ * looking at the shots again.
+ */
+public class HeatmapGrid {
+
+    /** Rink length in feet, and the number of grid columns. */
+    public static final int WIDTH = 200;
+
+    /** Rink width in feet, and the number of grid rows. */
+    public static final int HEIGHT = 85;
+
+    static final Metrics.Timer AGGREGATE_TIME =
+            Metrics.timer("heatmap.aggregate", "Aggregating a list of shots into a grid");
+
+    /** Summed-area table: {@code sat[(y + 1) * (WIDTH + 1) + (x + 1)]} is the sum of cells [0..x] x [0..y]. */
+    private final double[] sat;
+
+    private final int shotCount;
+
+    /**
+     * Builds a grid from per-cell xG sums.
+     *
+     * @param cells     Row-major xG sums, {@code cells[y * WIDTH + x]}.
+     * @param shotCount The number of shots aggregated into the cells.
+     */
+    public HeatmapGrid(double[] cells, int shotCount) {
+        if (cells.length != WIDTH * HEIGHT) {
+            throw new IllegalArgumentException("Expected " + (WIDTH * HEIGHT) + " cells, got " + cells.length);
+        }
+        this.shotCount = shotCount;
+        this.sat = new double[(WIDTH + 1) * (HEIGHT + 1)];
+        for (int y = 0; y < HEIGHT; y++) {
+            double rowSum = 0;
+            for (int x = 0; x < WIDTH; x++) {
+                rowSum += cells[y * WIDTH + x];
+                sat[(y + 1) * (WIDTH + 1) + (x + 1)] = sat[y * (WIDTH + 1) + (x + 1)] + rowSum;
+            }
+        }
+    }
+
+    /**
+     * Aggregates a list of shots into a grid.
+     *
+     * @param shots The shots to aggregate.
+     * @return The grid.
+     */
+    public static HeatmapGrid fromShots(List<ShotData> shots) {
+        long start = System.nanoTime();
+        double[] cells = new double[WIDTH * HEIGHT];
+        int count = 0;
+        for (ShotData shot : shots) {
+            int cell = cellIndex(shot.getX(), shot.getY());
+            if (cell >= 0) {
+                cells[cell] += shot.getXGoal();
+                count++;
+            }
+        }
+        HeatmapGrid grid = new HeatmapGrid(cells, count);
+        AGGREGATE_TIME.recordSince(start);
+        return grid;
+    }
+
+    /**
+     * Maps shot coordinates (centre ice at the origin, y pointing up) to a grid cell.
+     *
+     * @param x The shot's x-coordinate, -100 to 100.
+     * @param y The shot's y-coordinate, -42.5 to 42.5.
+     * @return The row-major cell index, or -1 if the shot lies off the rink.
+     */
+    public static int cellIndex(double x, double y) {
+        double normalizedX = x + 100;
+        double normalizedY = 42.5 - y; // flip Y coordinate for display
+        if (normalizedX < 0 || normalizedY < 0) return -1;
+        int cellX = (int) normalizedX;
+        int cellY = (int) normalizedY;
+        if (cellX >= WIDTH || cellY >= HEIGHT) return -1;
+        return cellY * WIDTH + cellX;
+    }
+
+    /**
+     * Sums the cells in the half-open rectangle [x0, x1) x [y0, y1), clamped to the grid.
+     *
+     * @return The total xG in the rectangle.
+     */
+    public double sum(int x0, int y0, int x1, int y1) {
+        x0 = clamp(x0, WIDTH);
+        x1 = clamp(x1, WIDTH);
+        y0 = clamp(y0, HEIGHT);
+        y1 = clamp(y1, HEIGHT);
+        if (x1 <= x0 || y1 <= y0) return 0;
+        int w = WIDTH + 1;
+        return sat[y1 * w + x1] - sat[y0 * w + x1] - sat[y1 * w + x0] + sat[y0 * w + x0];
+    }
+
+    /**
+     * Gets the xG summed into one rink cell.
+     *
+     * @param x The cell column, 0 to {@code WIDTH - 1}.
+     * @param y The cell row, 0 to {@code HEIGHT - 1}.
+     * @return The cell's xG, or 0 outside the grid.
+     */
+    public double cell(int x, int y) {
+        return sum(x, y, x + 1, y + 1);
+    }
+
+    /**
+     * Gets the total xG over the whole rink.
+     *
+     * @return The grid total.
+     */
+    public double total() {
+        return sat[sat.length - 1];
+    }
+
+    /**
+     * Gets the number of shots aggregated into the grid.
+     *
+     * @return The shot count.
+     */
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    /**
+     * Resamples the grid to square pixel cells of a panel. Each output cell receives the
+     * rink cells whose rounded pixel boundaries fall inside it, so every rink cell is
+     * counted exactly once and the total is preserved.
+     *
+     * @param panelWidth  The panel width in pixels.
+     * @param panelHeight The panel height in pixels.
+     * @param cellSize    The output cell size in pixels.
+     * @return xG sums indexed {@code [cellX][cellY]}, sized {@code panelWidth / cellSize} by {@code panelHeight / cellSize}.
+     */
+    public double[][] resample(int panelWidth, int panelHeight, int cellSize) {
+        int gridWidth = panelWidth / cellSize;
+        int gridHeight = panelHeight / cellSize;
+        double[][] out = new double[gridWidth][gridHeight];
+        if (gridWidth == 0 || gridHeight == 0) return out;
+
+        double feetPerPixelX = WIDTH / (double) panelWidth;
+        double feetPerPixelY = HEIGHT / (double) panelHeight;
+
+        int[] xEdges = new int[gridWidth + 1];
+        int[] yEdges = new int[gridHeight + 1];
+        for (int i = 0; i <= gridWidth; i++) xEdges[i] = (int) Math.round(i * cellSize * feetPerPixelX);
+        for (int j = 0; j <= gridHeight; j++) yEdges[j] = (int) Math.round(j * cellSize * feetPerPixelY);
+
+        for (int i = 0; i < gridWidth; i++) {
+            for (int j = 0; j < gridHeight; j++) {
+                out[i][j] = sum(xEdges[i], yEdges[j], xEdges[i + 1], yEdges[j + 1]);
+            }
+        }
+        return out;
+    }
+
+    private static int clamp(int v, int max) {
+        return v < 0 ? 0 : Math.min(v, max);
+    }
+}
@@ -0,0 +1,280 @@
+package nhl;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-shooter heatmaps for a whole shots file, aggregated in one pass. Each shooter's
+ * non-empty rink cells are kept sparsely; a full {@link HeatmapGrid} with its summed-area
+ * table is materialized on request and cached.
+ *
+ * The aggregated cells are persisted next to the CSV as {@code <file>.heat} and reused
+ * while the CSV's size and modification time are unchanged.
+ */
+public class HeatmapStore {
+
+    private static final int MAGIC = 0x4E484C48; // "NHLH"
+    private static final int VERSION = 1;
+    private static final int MAX_CACHED_GRIDS = 64;
+
+    /** Stores already loaded in this JVM, keyed by absolute CSV path. */
+    private static final Map<Path, HeatmapStore> LOADED = new ConcurrentHashMap<>();
+
+    private final long fileSize;
+    private final long modifiedMillis;
+
+    /** Folded shooter name to that shooter's sparse cells. */
+    private final Map<String, SparseCells> cellsByShooter;
+
+    private final Map<String, HeatmapGrid> grids = new LinkedHashMap<String, HeatmapGrid>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HeatmapGrid> eldest) {
+            return size() > MAX_CACHED_GRIDS;
+        }
+    };
+
+    private HeatmapStore(long fileSize, long modifiedMillis, Map<String, SparseCells> cellsByShooter) {
+        this.fileSize = fileSize;
+        this.modifiedMillis = modifiedMillis;
+        this.cellsByShooter = cellsByShooter;
+    }
+
+    /**
+     * Gets an up-to-date store for a shots CSV, reusing the in-memory or on-disk copy when
+     * it still matches the file and aggregating the file again otherwise.
+     *
+     * @param csvPath Path to the shots CSV.
+     * @return The store.
+     * @throws IOException If the CSV cannot be read or lacks the required columns.
+     */
+    public static HeatmapStore forFile(String csvPath) throws IOException {
+        HeatmapStore store = current(csvPath);
+        if (store != null) return store;
+
+        Path csv = Paths.get(csvPath).toAbsolutePath();
+        store = build(csv);
+        Path sidecar = Paths.get(csv.toString() + ".heat");
+        try {
+            store.write(sidecar);
+        } catch (IOException e) {
+            System.err.println("Could not write heatmap cache " + sidecar + ": " + e.getMessage());
+        }
+        LOADED.put(csv, store);
+        return store;
+    }
+
+    /**
+     * Gets the store for a shots CSV only if the in-memory or on-disk copy still matches
+     * the file, without ever aggregating the CSV.
+     *
+     * @param csvPath Path to the shots CSV.
+     * @return The store, or null if none is up to date.
+     * @throws IOException If the CSV's attributes cannot be read.
+     */
+    public static HeatmapStore current(String csvPath) throws IOException {
+        Path csv = Paths.get(csvPath).toAbsolutePath();
+        BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+
+        HeatmapStore store = LOADED.get(csv);
+        if (store != null && store.matches(attrs)) return store;
+
+        store = read(Paths.get(csv.toString() + ".heat"));
+        if (store == null || !store.matches(attrs)) return null;
+        LOADED.put(csv, store);
+        return store;
+    }
+
+    /**
+     * Aggregates every shooter's shots in one pass over the file.
+     *
+     * @param csv Path to the shots CSV.
+     * @return The new store.
+     * @throws IOException If the CSV cannot be read or lacks the required columns.
+     */
+    public static HeatmapStore build(Path csv) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+        ByteBuffer buffer = MappedCsvReader.map(csv.toString());
+        MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.limit());
+        if (!reader.nextRow()) {
+            throw new IOException("Shot file is empty: " + csv);
+        }
+        int[] columns = ShotIndex.resolveColumns(reader);
+        int shooterIndex = columns[0];
+        int xIndex = columns[1];
+        int yIndex = columns[2];
+        int xgIndex = columns[3];
+        int maxColumn = Math.max(Math.max(shooterIndex, xIndex), Math.max(yIndex, xgIndex));
+
+        Map<String, SparseCells> cells = new HashMap<>();
+        long rows = 0;
+        long rejected = 0;
+        while (reader.nextRow()) {
+            rows++;
+            if (reader.fieldCount() <= maxColumn) {
+                rejected++;
+                continue;
+            }
+            int cell = HeatmapGrid.cellIndex(reader.getDouble(xIndex), reader.getDouble(yIndex));
+            if (cell < 0) continue;
+            String shooter = ShotIndex.fold(reader.getString(shooterIndex));
+            cells.computeIfAbsent(shooter, k -> new SparseCells()).add(cell, reader.getDouble(xgIndex));
+        }
+        ShotDataLoader.ROWS_READ.add(rows);
+        ShotDataLoader.ROWS_REJECTED.add(rejected);
+        double[] scratch = new double[HeatmapGrid.WIDTH * HeatmapGrid.HEIGHT];
+        for (SparseCells sparse : cells.values()) {
+            sparse.compact(scratch);
+        }
+        return new HeatmapStore(attrs.size(), attrs.lastModifiedTime().toMillis(), cells);
+    }
+
+    /**
+     * Gets a shooter's heatmap.
+     *
+     * @param shooter The shooter's name, in any case.
+     * @return The grid, or null if the shooter has no shots on the rink.
+     */
+    public synchronized HeatmapGrid grid(String shooter) {
+        String key = ShotIndex.fold(shooter.trim());
+        HeatmapGrid grid = grids.get(key);
+        if (grid == null) {
+            SparseCells sparse = cellsByShooter.get(key);
+            if (sparse == null) return null;
+            grid = sparse.toGrid();
+            grids.put(key, grid);
+        }
+        return grid;
+    }
+
+    /**
+     * Gets the folded names of every shooter with at least one shot on the rink.
+     *
+     * @return An unmodifiable set of lower-case shooter names.
+     */
+    public Set<String> getShooters() {
+        return Collections.unmodifiableSet(cellsByShooter.keySet());
+    }
+
+    private boolean matches(BasicFileAttributes attrs) {
+        return fileSize == attrs.size() && modifiedMillis == attrs.lastModifiedTime().toMillis();
+    }
+
+    private void write(Path sidecar) throws IOException {
+        Path tmp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fileSize);
+                out.writeLong(modifiedMillis);
+                out.writeInt(cellsByShooter.size());
+                for (Map.Entry<String, SparseCells> entry : cellsByShooter.entrySet()) {
+                    byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    SparseCells sparse = entry.getValue();
+                    out.writeInt(name.length);
+                    out.write(name);
+                    out.writeInt(sparse.shots);
+                    out.writeInt(sparse.size);
+                    for (int i = 0; i < sparse.size; i++) {
+                        out.writeInt(sparse.cells[i]);
+                        out.writeDouble(sparse.values[i]);
+                    }
+                }
+            }
+            Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static HeatmapStore read(Path sidecar) {
+        if (!Files.isRegularFile(sidecar)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long size = in.readLong();
+            long mtime = in.readLong();
+            int shooters = in.readInt();
+            Map<String, SparseCells> cells = new HashMap<>(shooters * 2);
+            for (int s = 0; s < shooters; s++) {
+                byte[] name = new byte[in.readInt()];
+                in.readFully(name);
+                SparseCells sparse = new SparseCells();
+                sparse.shots = in.readInt();
+                int count = in.readInt();
+                sparse.cells = new int[count];
+                sparse.values = new double[count];
+                for (int i = 0; i < count; i++) {
+                    sparse.cells[i] = in.readInt();
+                    sparse.values[i] = in.readDouble();
+                }
+                sparse.size = count;
+                cells.put(new String(name, StandardCharsets.UTF_8), sparse);
+            }
+            return new HeatmapStore(size, mtime, cells);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable heatmap cache " + sidecar + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * One shooter's non-empty cells. Shots are appended as (cell, xG) pairs while the
+     * file is read, then {@link #compact(double[])} sorts and merges them by cell.
+     */
+    private static final class SparseCells {
+        int[] cells = new int[16];
+        double[] values = new double[16];
+        int size;
+        int shots;
+
+        void add(int cell, double xg) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            cells[size] = cell;
+            values[size] = xg;
+            size++;
+            shots++;
+        }
+
+        /**
+         * Merges duplicate cells and sorts by cell index.
+         *
+         * @param scratch An all-zero array of {@code WIDTH * HEIGHT} cells; left all-zero on return.
+         */
+        void compact(double[] scratch) {
+            int[] sorted = Arrays.copyOf(cells, size);
+            Arrays.sort(sorted);
+            for (int i = 0; i < size; i++) {
+                scratch[cells[i]] += values[i];
+            }
+            int n = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) sorted[n++] = sorted[i];
+            }
+            int[] compactCells = Arrays.copyOf(sorted, n);
+            double[] compactValues = new double[n];
+            for (int k = 0; k < n; k++) {
+                compactValues[k] = scratch[compactCells[k]];
+                scratch[compactCells[k]] = 0;
+            }
+            cells = compactCells;
+            values = compactValues;
+            size = n;
+        }
+
+        HeatmapGrid toGrid() {
+            double[] dense = new double[HeatmapGrid.WIDTH * HeatmapGrid.HEIGHT];
+            for (int i = 0; i < size; i++) {
+                dense[cells[i]] += values[i];
+            }
+            return new HeatmapGrid(dense, shots);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package nhl;
+
+/**
+ * Minimal helpers for writing JSON by hand, shared by the headless batch and HTTP outputs.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Quotes and escapes a string as a JSON string literal.
+     *
+     * @param s The string, or null.
+     * @return The literal, or {@code null} for a null string.
+     */
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Formats a number for JSON with a fixed number of decimals.
+     *
+     * @param value    The number; NaN and infinities are written as null.
+     * @param decimals The number of decimals.
+     * @return The JSON number.
+     */
+    static String number(double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "null";
+        return String.format(java.util.Locale.ROOT, "%." + decimals + "f", value);
+    }
+}
@@ -0,0 +1,118 @@
+package nhl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, typically latencies in nanoseconds.
+ *
+ * Values are counted in log-linear buckets in the style of HdrHistogram: every power of two
+ * is split into {@value #SUB_BUCKETS} equal buckets, so a reported percentile is never more
+ * than about 6% above the true value, whatever its magnitude. Recording is a handful of
+ * atomic adds and never allocates, so it can sit on hot paths and be called from any
+ * number of threads.
+ */
+public class LatencyHistogram {
+
+    /** Buckets per power of two; must be a power of two itself. */
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS + 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param value The value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) seen = max.get();
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / (double) n;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value below which a given percentage of the recorded values fall.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value of the bucket holding that percentile, capped at the maximum;
+     *         0 if nothing was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Maps a value to its bucket: values below {@value #SUB_BUCKETS} get a bucket each, and
+     * every power of two above that is split into {@value #SUB_BUCKETS} buckets.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the highest value that maps to a bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << shift;
+        long highest = lowest + (1L << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
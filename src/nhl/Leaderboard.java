@@ -0,0 +1,347 @@
+package nhl;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Top-K and bottom-K queries over one {@link SkaterTable}, by any stat or derived metric,
+ * optionally restricted to a position, team or minimum games played.
+ *
+ * A metric's first query is answered with a bounded heap in O(n log K). From its second
+ * query on, the metric gets a cached permutation of the rows sorted by value, built once in
+ * O(n log n), and every later query walks that permutation, which is O(K) plus the rows a
+ * filter skips. Both paths order equal values by row, so they return the same players.
+ *
+ * Rows added to the table are noticed and drop the cached permutations; after changing the
+ * stats of rows already in the table, call {@link #invalidate()}. Only the 64 most recently
+ * queried metrics are tracked. Queries are synchronized, so one leaderboard can be shared
+ * between threads.
+ */
+public class Leaderboard {
+
+    /** Queries on a metric after which its sorted permutation is built and cached. */
+    static final int CACHE_AFTER_QUERIES = 1;
+
+    /** Metrics whose query counts and permutations are kept, least recently used dropped first. */
+    static final int MAX_TRACKED_METRICS = 64;
+
+    /**
+     * A numeric value of each table row that players can be ranked by.
+     */
+    public interface Metric {
+        /**
+         * Gets the metric's value for one row.
+         *
+         * @param table The table.
+         * @param row   The row.
+         * @return The value.
+         */
+        double valueOf(SkaterTable table, int row);
+
+        /**
+         * Creates a metric from a function of {@link Player}. The result is cached by identity,
+         * so keep and reuse it rather than creating it per query; a metric created per query is
+         * always answered with a heap and soon evicted.
+         *
+         * @param metric The function.
+         * @return The metric.
+         */
+        static Metric of(ToDoubleFunction<Player> metric) {
+            return (table, row) -> metric.applyAsDouble(table.getPlayer(row));
+        }
+    }
+
+    /**
+     * The stats of a {@link SkaterTable} and some per-60-minute rates derived from them.
+     */
+    public enum Stat implements Metric {
+        GOALS { public double valueOf(SkaterTable t, int r) { return t.getGoals(r); } },
+        POINTS { public double valueOf(SkaterTable t, int r) { return t.getPoints(r); } },
+        HITS { public double valueOf(SkaterTable t, int r) { return t.getHits(r); } },
+        TAKEAWAYS { public double valueOf(SkaterTable t, int r) { return t.getTakeaways(r); } },
+        GIVEAWAYS { public double valueOf(SkaterTable t, int r) { return t.getGiveaways(r); } },
+        BLOCKED_SHOTS { public double valueOf(SkaterTable t, int r) { return t.getBlockedShots(r); } },
+        SHOT_ATTEMPTS_AGAINST { public double valueOf(SkaterTable t, int r) { return t.getShotAttemptsAgainst(r); } },
+        EXPECTED_GOALS_AGAINST { public double valueOf(SkaterTable t, int r) { return t.getExpectedGoalsAgainst(r); } },
+        ON_ICE_XGA_PER_60 { public double valueOf(SkaterTable t, int r) { return t.getOnIceExpectedGoalsAgainstPer60(r); } },
+        HIGH_DANGER_XGOALS { public double valueOf(SkaterTable t, int r) { return t.getHighDangerxGoals(r); } },
+        REBOUND_GOALS { public double valueOf(SkaterTable t, int r) { return t.getReboundGoals(r); } },
+        PENALTY_MINUTES { public double valueOf(SkaterTable t, int r) { return t.getPenaltyMinutes(r); } },
+        ICE_TIME { public double valueOf(SkaterTable t, int r) { return t.getIceTime(r); } },
+        GAMES_PLAYED { public double valueOf(SkaterTable t, int r) { return t.getGamesPlayed(r); } },
+        TAKEAWAY_EFFICIENCY { public double valueOf(SkaterTable t, int r) { return t.getTakeawayEfficiencyScore(r); } },
+        POINTS_PER_60 { public double valueOf(SkaterTable t, int r) { return per60(t.getPoints(r), t.getIceTime(r)); } },
+        HITS_PER_60 { public double valueOf(SkaterTable t, int r) { return per60(t.getHits(r), t.getIceTime(r)); } },
+        BLOCKED_SHOTS_PER_60 { public double valueOf(SkaterTable t, int r) { return per60(t.getBlockedShots(r), t.getIceTime(r)); } };
+
+        private static double per60(double count, double iceTimeMinutes) {
+            return iceTimeMinutes > 0 ? count * 60.0 / iceTimeMinutes : 0;
+        }
+    }
+
+    /**
+     * Which rows a query considers. Filters are immutable; each method returns a narrower copy.
+     */
+    public static final class Filter {
+        /** Every row. */
+        public static final Filter ALL = new Filter(null, null, 0);
+
+        private final String position;
+        private final String team;
+        private final int minGamesPlayed;
+
+        private Filter(String position, String team, int minGamesPlayed) {
+            this.position = position;
+            this.team = team;
+            this.minGamesPlayed = minGamesPlayed;
+        }
+
+        /**
+         * Restricts to one position; "F" accepts any forward (C, L, R).
+         *
+         * @param position The position, ignoring case.
+         * @return The narrower filter.
+         */
+        public Filter position(String position) {
+            return new Filter(position, team, minGamesPlayed);
+        }
+
+        /**
+         * Restricts to one team.
+         *
+         * @param team The team code, ignoring case.
+         * @return The narrower filter.
+         */
+        public Filter team(String team) {
+            return new Filter(position, team, minGamesPlayed);
+        }
+
+        /**
+         * Restricts to players with at least a number of games.
+         *
+         * @param games The minimum games played.
+         * @return The narrower filter.
+         */
+        public Filter minGamesPlayed(int games) {
+            return new Filter(position, team, games);
+        }
+
+        boolean accepts(SkaterTable table, int row) {
+            if (minGamesPlayed > 0 && table.getGamesPlayed(row) < minGamesPlayed) return false;
+            if (team != null && !team.equalsIgnoreCase(table.getTeam(row))) return false;
+            if (position != null) {
+                String pos = table.getPosition(row);
+                if (position.equalsIgnoreCase("F")) return pos != null && !pos.equals("D") && !pos.equals("G");
+                return position.equalsIgnoreCase(pos);
+            }
+            return true;
+        }
+    }
+
+    private final SkaterTable table;
+    private final Map<Metric, Integer> queryCounts = lru();
+    /** Rows sorted by descending value, ties by ascending row, per metric. */
+    private final Map<Metric, int[]> descending = lru();
+    /** Rows sorted by ascending value, ties by ascending row, per metric. */
+    private final Map<Metric, int[]> ascending = lru();
+    private int cachedSize;
+
+    /**
+     * Creates a leaderboard over a table.
+     *
+     * @param table The table to rank.
+     */
+    public Leaderboard(SkaterTable table) {
+        this.table = table;
+        this.cachedSize = table.size();
+    }
+
+    /**
+     * Gets the players with the highest values of a metric.
+     *
+     * @param metric The metric.
+     * @param k      The number of players wanted.
+     * @return Up to k players, highest first.
+     */
+    public List<Player> top(Metric metric, int k) {
+        return top(metric, k, Filter.ALL);
+    }
+
+    /**
+     * Gets the players accepted by a filter with the highest values of a metric.
+     *
+     * @param metric The metric.
+     * @param k      The number of players wanted.
+     * @param filter Which players to consider.
+     * @return Up to k players, highest first.
+     */
+    public List<Player> top(Metric metric, int k, Filter filter) {
+        return toPlayers(rank(metric, k, filter, true));
+    }
+
+    /**
+     * Gets the players with the lowest values of a metric.
+     *
+     * @param metric The metric.
+     * @param k      The number of players wanted.
+     * @return Up to k players, lowest first.
+     */
+    public List<Player> bottom(Metric metric, int k) {
+        return bottom(metric, k, Filter.ALL);
+    }
+
+    /**
+     * Gets the players accepted by a filter with the lowest values of a metric.
+     *
+     * @param metric The metric.
+     * @param k      The number of players wanted.
+     * @param filter Which players to consider.
+     * @return Up to k players, lowest first.
+     */
+    public List<Player> bottom(Metric metric, int k, Filter filter) {
+        return toPlayers(rank(metric, k, filter, false));
+    }
+
+    private static <V> Map<Metric, V> lru() {
+        return new LinkedHashMap<Metric, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Metric, V> eldest) {
+                return size() > MAX_TRACKED_METRICS;
+            }
+        };
+    }
+
+    /**
+     * Drops every cached permutation, for use after the table's stats change.
+     */
+    public synchronized void invalidate() {
+        descending.clear();
+        ascending.clear();
+        queryCounts.clear();
+        cachedSize = table.size();
+    }
+
+    /**
+     * Ranks rows by a metric, from the cached permutation if there is one and otherwise
+     * with a bounded heap.
+     *
+     * @return The rows of the k best matches, best first.
+     */
+    synchronized int[] rank(Metric metric, int k, Filter filter, boolean highest) {
+        if (table.size() != cachedSize) invalidate();
+        if (k <= 0 || table.size() == 0) return new int[0];
+
+        Map<Metric, int[]> cache = highest ? descending : ascending;
+        int[] order = cache.get(metric);
+        if (order == null && queryCounts.merge(metric, 1, Integer::sum) > CACHE_AFTER_QUERIES) {
+            order = sortedRows(metric, highest);
+            cache.put(metric, order);
+        }
+        return order != null ? walk(order, k, filter) : heapSelect(metric, k, filter, highest);
+    }
+
+    private int[] walk(int[] order, int k, Filter filter) {
+        int[] result = new int[Math.min(k, order.length)];
+        int found = 0;
+        for (int i = 0; i < order.length && found < result.length; i++) {
+            if (filter.accepts(table, order[i])) result[found++] = order[i];
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    private int[] sortedRows(Metric metric, boolean highest) {
+        int size = table.size();
+        double[] values = new double[size];
+        Integer[] rows = new Integer[size];
+        for (int r = 0; r < size; r++) {
+            values[r] = metric.valueOf(table, r);
+            rows[r] = r;
+        }
+        // Stable, so equal values stay in row order
+        Arrays.sort(rows, highest
+                ? (a, b) -> Double.compare(values[b], values[a])
+                : (a, b) -> Double.compare(values[a], values[b]));
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = rows[i];
+        return order;
+    }
+
+    /**
+     * Selects the k best rows with a heap whose root is the worst row kept so far, so each
+     * row costs one comparison unless it displaces the root.
+     */
+    private int[] heapSelect(Metric metric, int k, Filter filter, boolean highest) {
+        int capacity = Math.min(k, table.size());
+        int[] heapRows = new int[capacity];
+        double[] heapValues = new double[capacity];
+        int size = 0;
+        for (int r = 0; r < table.size(); r++) {
+            if (!filter.accepts(table, r)) continue;
+            double value = metric.valueOf(table, r);
+            if (size < capacity) {
+                heapRows[size] = r;
+                heapValues[size] = value;
+                siftUp(heapRows, heapValues, size++, highest);
+            } else if (better(value, r, heapValues[0], heapRows[0], highest)) {
+                heapRows[0] = r;
+                heapValues[0] = value;
+                siftDown(heapRows, heapValues, size, highest);
+            }
+        }
+
+        // Popping the worst row repeatedly fills the result from the back
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heapRows[0];
+            heapRows[0] = heapRows[i];
+            heapValues[0] = heapValues[i];
+            siftDown(heapRows, heapValues, i, highest);
+        }
+        return result;
+    }
+
+    /** Whether row a ranks ahead of row b; equal values rank by row. */
+    private static boolean better(double a, int rowA, double b, int rowB, boolean highest) {
+        int cmp = Double.compare(a, b);
+        if (cmp == 0) return rowA < rowB;
+        return highest ? cmp > 0 : cmp < 0;
+    }
+
+    private static void siftUp(int[] rows, double[] values, int i, boolean highest) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(values[parent], rows[parent], values[i], rows[i], highest)) return;
+            swap(rows, values, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] rows, double[] values, int size, boolean highest) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(values[worst], rows[worst], values[left], rows[left], highest)) worst = left;
+            if (right < size && better(values[worst], rows[worst], values[right], rows[right], highest)) worst = right;
+            if (worst == i) return;
+            swap(rows, values, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] rows, double[] values, int i, int j) {
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private List<Player> toPlayers(int[] rows) {
+        List<Player> players = new ArrayList<>(rows.length);
+        for (int row : rows) players.add(table.getPlayer(row));
+        return players;
+    }
+}
@@ -1,5 +1,6 @@
 package nhl;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -8,6 +9,9 @@ import java.util.*;
  */
 public class LineupGenerator {
 
+    static final Metrics.Timer QUERY_TIME =
+            Metrics.timer("lineup.query", "Answering one best-lineup query");
+
     /**
      * Generates the best defensive lineup against a target player based on an opponent team.
      * This is a convenience method that does not consider the full league context.
@@ -17,12 +21,13 @@ public class LineupGenerator {
      * @return A list of up to 5 players selected for optimal defensive coverage.
      */
     public static List<Player> getBestDefensiveLineup(Team opponentTeam, String targetPlayerName) {
-        return getBestDefensiveLineup(opponentTeam, targetPlayerName, null);
+        return getBestDefensiveLineup(null, opponentTeam, targetPlayerName);
     }
 
     /**
      * Generates the best defensive lineup against a target player, optionally using the entire league data
-     * to compute threat boosts and matchup adjustments.
+     * to compute threat boosts and matchup adjustments. Callers doing repeated lookups should
+     * build a {@link PlayerIndex} once and use {@link #getBestDefensiveLineup(PlayerIndex, Team, String)}.
      *
      * @param opponentTeam       The team from which to select players.
      * @param targetPlayerName   The name of the opposing player to defend against.
@@ -30,93 +35,128 @@ public class LineupGenerator {
      * @return A list of players forming the defensive lineup (2 D, 3 F).
      */
     public static List<Player> getBestDefensiveLineup(Team opponentTeam, String targetPlayerName, List<Team> allTeams) {
-        Player targetPlayer = null;
-
-        // Try to find the target player in the full team list
-        if (allTeams != null) {
-            outerLoop:
-            for (Team team : allTeams) {
-                for (Player p : team.getRoster()) {
-                    if (p.getName().equalsIgnoreCase(targetPlayerName)) {
-                        targetPlayer = p;
-                        break outerLoop;
-                    }
-                }
-            }
-        }
-
-        double baseDefWeight = 0.7;
-        double baseOffWeight = 0.3;
+        long start = System.nanoTime();
+        Player targetPlayer = allTeams != null ? DataLoader.findPlayerByName(targetPlayerName, allTeams) : null;
+        List<Player> lineup = optimize(opponentTeam, targetPlayer, Situation.FIVE_ON_FIVE);
+        QUERY_TIME.recordSince(start);
+        return lineup;
+    }
 
-        // Determine threat boost based on offensive performance of the target
-        double threatBoost = 0.0;
-        if (targetPlayer != null) {
-            double offensiveThreat = targetPlayer.getHighDangerxGoals() + targetPlayer.getGoals();
-            threatBoost = Math.min(offensiveThreat / 5.0, 1.0);
-        }
+    /**
+     * Generates the best defensive lineup against a target player, looking the target up
+     * in a prebuilt {@link PlayerIndex}.
+     *
+     * @param index              Optional: an index over the full league for identifying the target player's stats.
+     * @param opponentTeam       The team from which to select players.
+     * @param targetPlayerName   The name of the opposing player to defend against.
+     * @return A list of players forming the defensive lineup (2 D, 3 F).
+     */
+    public static List<Player> getBestDefensiveLineup(PlayerIndex index, Team opponentTeam, String targetPlayerName) {
+        return getBestDefensiveLineup(index, opponentTeam, targetPlayerName, Situation.FIVE_ON_FIVE);
+    }
 
-        List<Player> sorted = new ArrayList<>(opponentTeam.getRoster());
-        List<Player> lineup = new ArrayList<>();
-
-        // Exclude goalies and players with fewer than 50 games played
-        sorted.removeIf(p -> p.getPosition().equalsIgnoreCase("G") || p.getGamesPlayed() < 50);
-
-        // Sort players based on composite score
-        final double DEF_WEIGHT = baseDefWeight;
-        final double OFF_WEIGHT = baseOffWeight;
-        final Player TARGET_FINAL = targetPlayer;
-        final double THREAT_BOOST = threatBoost;
-
-        sorted.sort((a, b) -> {
-            double aScore = getPlayerCompositeScore(a, TARGET_FINAL, DEF_WEIGHT, OFF_WEIGHT, THREAT_BOOST);
-            double bScore = getPlayerCompositeScore(b, TARGET_FINAL, DEF_WEIGHT, OFF_WEIGHT, THREAT_BOOST);
-            return Double.compare(bScore, aScore);
-        });
-
-        int defensemenCount = 0;
-        Set<String> forwardPositions = new HashSet<>();
-
-        // Select 2 defensemen and 1 of each forward position (L, C, R)
-        for (Player p : sorted) {
-            String pos = p.getPosition().toUpperCase().trim();
-
-            if (pos.equals("D") && defensemenCount < 2) {
-                lineup.add(p);
-                defensemenCount++;
-            } else if ((pos.equals("L") || pos.equals("C") || pos.equals("R")) && !forwardPositions.contains(pos)) {
-                lineup.add(p);
-                forwardPositions.add(pos);
-            }
+    /**
+     * Generates the best defensive unit for a game situation, e.g. a four-man penalty-kill unit
+     * from {@link Situation#PENALTY_KILL} stats. The team and the index should both come from
+     * the same situation's table in {@link SituationTables}.
+     *
+     * @param index              Optional: an index over the full league for identifying the target player's stats.
+     * @param opponentTeam       The team from which to select players.
+     * @param targetPlayerName   The name of the opposing player to defend against.
+     * @param situation          The game situation, which decides the unit's forward slots.
+     * @return A list of players forming the unit (2 D plus the situation's forwards).
+     */
+    public static List<Player> getBestDefensiveLineup(PlayerIndex index, Team opponentTeam, String targetPlayerName,
+                                                      Situation situation) {
+        long start = System.nanoTime();
+
+        // Try to find the target player in the full league
+        Player targetPlayer = index != null ? index.findByName(targetPlayerName) : null;
+        List<Player> lineup = optimize(opponentTeam, targetPlayer, situation);
+        QUERY_TIME.recordSince(start);
+        return lineup;
+    }
 
-            if (defensemenCount == 2 && forwardPositions.size() == 3) break;
-        }
+    /** Best 2 D and the situation's forwards; slots without an eligible player stay empty. */
+    private static List<Player> optimize(Team opponentTeam, Player targetPlayer, Situation situation) {
+        return new LineupOptimizer(ScoringEngine.forTarget(targetPlayer))
+                .withForwardSlots(situation.getForwardSlots())
+                .optimize(eligibleCandidates(opponentTeam)).getPlayers();
+    }
 
-        // If any forward positions are still missing, fill them
-        for (String pos : Arrays.asList("L", "C", "R")) {
-            if (lineup.size() >= 5) break;
-            if (!forwardPositions.contains(pos)) {
-                for (Player p : sorted) {
-                    if (p.getPosition().equalsIgnoreCase(pos) && !lineup.contains(p)) {
-                        lineup.add(p);
-                        forwardPositions.add(pos);
-                        break;
-                    }
-                }
+    /**
+     * Generates the best defensive unit from a team's eligible players plus, for every player
+     * the team would pick, the players most like them in a {@link SimilarityIndex}. The unit
+     * shows which similar players, e.g. call-ups or trade targets, would improve on the roster.
+     *
+     * @param index                 Optional: an index over the full league for identifying the target player's stats.
+     * @param opponentTeam          The team from which to select players.
+     * @param targetPlayerName      The name of the opposing player to defend against.
+     * @param situation             The game situation, which decides the unit's forward slots.
+     * @param similar               The players alternatives are drawn from.
+     * @param alternativesPerPlayer How many alternatives to consider for each picked player.
+     * @return A list of players forming the unit, possibly including players from other teams.
+     */
+    public static List<Player> getBestDefensiveLineup(PlayerIndex index, Team opponentTeam, String targetPlayerName,
+                                                      Situation situation, SimilarityIndex similar,
+                                                      int alternativesPerPlayer) {
+        long start = System.nanoTime();
+
+        Player targetPlayer = index != null ? index.findByName(targetPlayerName) : null;
+        LineupOptimizer optimizer = new LineupOptimizer(ScoringEngine.forTarget(targetPlayer))
+                .withForwardSlots(situation.getForwardSlots());
+        List<Player> candidates = eligibleCandidates(opponentTeam);
+
+        // Alternatives play the same role and meet the same games-played bar as the roster
+        Set<Player> pool = new LinkedHashSet<>(candidates);
+        for (Player pick : optimizer.optimize(candidates).getPlayers()) {
+            String role = pick.getPosition().equalsIgnoreCase("D") ? "D" : "F";
+            Leaderboard.Filter filter = Leaderboard.Filter.ALL.position(role).minGamesPlayed(50);
+            for (SimilarityIndex.Match match : similar.nearest(pick, alternativesPerPlayer, filter)) {
+                pool.add(match.getPlayer());
             }
         }
+        List<Player> lineup = optimizer.optimize(new ArrayList<>(pool)).getPlayers();
+        QUERY_TIME.recordSince(start);
+        return lineup;
+    }
 
-        // Output the lineup for verification
-        System.out.println("\n--- Defensive Lineup against " + targetPlayerName + " ---");
-        for (Player p : lineup) {
-            System.out.println(p.getName() + " - " + p.getPosition());
+    /**
+     * Makes a weight profile, e.g. one written by {@link WeightTuner}, the weights every later
+     * lineup is scored with. Indexes built earlier keep their weights and must be rebuilt.
+     *
+     * @param path The profile's properties file.
+     * @return True if the profile was loaded; false if it could not be read, in which case
+     *         the current weights stay in effect.
+     */
+    public static boolean loadWeightProfile(String path) {
+        try {
+            ScoringEngine.setWeightProfile(ScoringWeights.load(path));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading weight profile: " + e.getMessage());
+            return false;
         }
+    }
 
-        return lineup;
+    /**
+     * Gets the players of a team that may be picked for a lineup.
+     *
+     * @param team The team.
+     * @return The roster without goalies and players with fewer than 50 games played.
+     */
+    static List<Player> eligibleCandidates(Team team) {
+        List<Player> candidates = new ArrayList<>(team.getRoster());
+        candidates.removeIf(p -> p.getPosition().equalsIgnoreCase("G") || p.getGamesPlayed() < 50);
+        return candidates;
     }
 
     /**
      * Calculates a composite score for a player based on defensive and offensive contributions,
-     * adjusted by the threat level of the opposing target player.
+     * adjusted by the threat level of the opposing target player. Every coefficient other than
+     * the two weights comes from the current {@link ScoringEngine#getWeightProfile() weight profile},
+     * so the result changes when a profile is loaded. To score a whole roster,
+     * use {@link ScoringEngine#scoreAll(List)} instead.
      *
      * @param p             The player being evaluated.
      * @param target        The opponent player this player would defend against (can be null).
@@ -126,40 +166,20 @@ public class LineupGenerator {
      * @return A numeric score representing the player’s all-around contribution value.
      */
     public static double getPlayerCompositeScore(Player p, Player target, double defWeight, double offWeight, double threatBoost) {
-        double minutes = p.getIceTime() > 0 ? p.getIceTime() : 1; // prevent division by zero
-        double xGA_per60 = (p.getExpectedGoalsAgainst() / minutes) * 60.0;
-
-        // Defensive components
-        double baseDefScore =
-            -1.5 * xGA_per60 +
-            0.04 * p.getHits() +
-            0.05 * p.getBlockedShots();
-
-        // Possession effectiveness
-        double possessionScore = 2.0 * (p.getTakeaways() - 0.5 * p.getGiveaways());
-
-        // Adjust for target player threat
-        double defScore = baseDefScore + possessionScore;
-        double matchupMultiplier = 1.0 + 0.25 * threatBoost;
-        double matchupDefScore = defScore * matchupMultiplier;
-
-        // Offensive scoring components
-        double offScore =
-            0.15 * p.getGoals() +
-            0.10 * p.getPoints() +
-            0.08 * p.getHighDangerxGoals() +
-            0.10 * p.getReboundGoals();
-
-        // Final weighted composite
-        double composite = defWeight * matchupDefScore + offWeight * offScore;
-
-        // Debug output
-        System.out.printf(
-            "%s - xGA/60: %.2f, Def: %.2f, Off: %.2f, Matchup: %.2f, Composite: %.2f, Takeaways: %d, Giveaways: %d%n",
-            p.getName(), xGA_per60, defScore, offScore, matchupMultiplier, composite,
-            p.getTakeaways(), p.getGiveaways()
-        );
-
-        return composite;
+        return new ScoringEngine(defWeight, offWeight, threatBoost).score(p);
+    }
+
+    /**
+     * Calculates a composite score for a player with explicit weights, independent of the
+     * current weight profile.
+     *
+     * @param p             The player being evaluated.
+     * @param target        The opponent player this player would defend against (can be null).
+     * @param weights       Every coefficient of the composite score.
+     * @param threatBoost   A scaling factor representing the offensive threat of the target.
+     * @return A numeric score representing the player’s all-around contribution value.
+     */
+    public static double getPlayerCompositeScore(Player p, Player target, ScoringWeights weights, double threatBoost) {
+        return new ScoringEngine(weights, threatBoost).score(p);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,348 @@
+package nhl;
+
+import java.util.*;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the highest-scoring defensive unit (two defensemen and, by default, one each of L, C and R) by
+ * branch-and-bound over every combination, rather than picking the best player per slot.
+ * This stays optimal when the objective is not simply a sum of player scores:
+ *
+ * <ul>
+ *   <li>a {@link PairChemistry} bonus added for every pair of players in the unit,</li>
+ *   <li>a minimum combined ice time the unit must reach, and</li>
+ *   <li>a flex penalty that lets a forward fill another forward slot at a cost.</li>
+ * </ul>
+ *
+ * Each slot's candidates are kept sorted by score, so the best remaining score per slot is
+ * an upper bound and a branch stops as soon as it cannot beat the best unit found so far.
+ * Large rosters search the defense pairs in parallel.
+ */
+public class LineupOptimizer {
+
+    /** Bonus (or penalty, if negative) for two players sharing the ice. */
+    public interface PairChemistry {
+        double between(Player a, Player b);
+    }
+
+    private static final String[] DEFAULT_FORWARD_SLOTS = {"L", "C", "R"};
+
+    /** Below this many defense pairs the search runs on the calling thread. */
+    private static final int PARALLEL_PAIR_THRESHOLD = 64;
+
+    private final ScoringEngine engine;
+    private String[] forwardSlots = DEFAULT_FORWARD_SLOTS;
+    private PairChemistry chemistry;
+    private double minIceTime = Double.NEGATIVE_INFINITY;
+    private double flexPenalty = Double.POSITIVE_INFINITY;
+
+    /**
+     * Creates an optimizer with a purely additive objective: no chemistry, no ice-time
+     * minimum and no off-position forwards.
+     *
+     * @param engine Scores individual players.
+     */
+    public LineupOptimizer(ScoringEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Changes the forward slots filled alongside the two defensemen. Slot "F" accepts any
+     * forward; "L", "C" and "R" accept only that position (see {@link #withFlexPenalty(double)}).
+     *
+     * @param slots The forward slot positions, e.g. {@link Situation#getForwardSlots()}.
+     * @return This optimizer.
+     */
+    public LineupOptimizer withForwardSlots(String... slots) {
+        this.forwardSlots = slots.clone();
+        return this;
+    }
+
+    /**
+     * Adds a chemistry bonus for every pair of players in the unit. The bonus is evaluated
+     * once per pair of candidates, before the search starts.
+     *
+     * @param chemistry The pair bonus; must be symmetric.
+     * @return This optimizer.
+     */
+    public LineupOptimizer withChemistry(PairChemistry chemistry) {
+        this.chemistry = chemistry;
+        return this;
+    }
+
+    /**
+     * Requires the unit's combined ice time to reach a minimum.
+     *
+     * @param minIceTime The minimum total of {@link Player#getIceTime()} over the unit.
+     * @return This optimizer.
+     */
+    public LineupOptimizer withMinIceTime(double minIceTime) {
+        this.minIceTime = minIceTime;
+        return this;
+    }
+
+    /**
+     * Lets any forward fill any forward slot, subtracting a penalty when it is not the
+     * player's listed position.
+     *
+     * @param flexPenalty The score penalty for playing off position.
+     * @return This optimizer.
+     */
+    public LineupOptimizer withFlexPenalty(double flexPenalty) {
+        this.flexPenalty = flexPenalty;
+        return this;
+    }
+
+    /**
+     * The best unit found, together with its objective value.
+     */
+    public static final class Unit {
+        private final List<Player> players;
+        private final double score;
+
+        Unit(List<Player> players, double score) {
+            this.players = players;
+            this.score = score;
+        }
+
+        /** @return The players in the unit, best individual score first; empty if no unit is feasible. */
+        public List<Player> getPlayers() { return players; }
+
+        /** @return The unit's objective value, or negative infinity if no unit is feasible. */
+        public double getScore() { return score; }
+    }
+
+    /**
+     * Finds the optimal unit among the given candidates. Slots are filled whenever the
+     * roster allows it; a slot is only left empty if no eligible player remains for it.
+     *
+     * @param candidates The eligible players (goalies and other exclusions already removed).
+     * @return The optimal unit.
+     */
+    public Unit optimize(List<Player> candidates) {
+        return new Problem(candidates).solve();
+    }
+
+    /**
+     * One optimization over a fixed candidate list: slot lists, bounds and the search.
+     */
+    private final class Problem {
+        final List<Player> players;
+        final double[] scores;
+        final double[] iceTimes;
+        final int[] rankOf;
+        final int[] defense;
+        final int[][] slotPlayers = new int[forwardSlots.length][];
+        final double[][] slotValues = new double[forwardSlots.length][];
+        final double[] suffixBound = new double[forwardSlots.length + 1];
+        final double[] suffixIce = new double[forwardSlots.length + 1];
+        final int forwardFill;
+        final int allowedEmpty;
+        final int unitSize;
+        /** Pair bonuses, {@code pairBonus[i * n + j]}; null without chemistry. */
+        final double[] pairBonus;
+        /** Largest pair bonus, or 0 if none is positive; bounds the chemistry still to come. */
+        final double chemistryCap;
+        final DoubleAccumulator globalBest = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+        Problem(List<Player> candidates) {
+            players = candidates;
+            scores = engine.scoreAll(candidates);
+            int n = candidates.size();
+            iceTimes = new double[n];
+            for (int i = 0; i < n; i++) iceTimes[i] = candidates.get(i).getIceTime();
+            int[] ranked = ScoringEngine.rankDescending(scores);
+            rankOf = new int[ranked.length];
+            for (int r = 0; r < ranked.length; r++) rankOf[ranked[r]] = r;
+
+            List<Integer> d = new ArrayList<>();
+            List<Integer> forwards = new ArrayList<>();
+            for (int i : ranked) {
+                String pos = position(i);
+                if (pos.equals("D")) d.add(i);
+                else if (pos.equals("L") || pos.equals("C") || pos.equals("R")) forwards.add(i);
+            }
+            defense = d.stream().mapToInt(Integer::intValue).toArray();
+
+            boolean flex = flexPenalty != Double.POSITIVE_INFINITY;
+            int nonEmptySlots = 0;
+            for (int s = 0; s < forwardSlots.length; s++) {
+                List<double[]> entries = new ArrayList<>();
+                for (int i : forwards) {
+                    boolean natural = forwardSlots[s].equals("F") || position(i).equals(forwardSlots[s]);
+                    if (natural || flex) {
+                        entries.add(new double[]{i, natural ? scores[i] : scores[i] - flexPenalty});
+                    }
+                }
+                // Stable by value; equal values keep overall rank order
+                entries.sort((a, b) -> Double.compare(b[1], a[1]));
+                slotPlayers[s] = new int[entries.size()];
+                slotValues[s] = new double[entries.size()];
+                for (int k = 0; k < entries.size(); k++) {
+                    slotPlayers[s][k] = (int) entries.get(k)[0];
+                    slotValues[s][k] = entries.get(k)[1];
+                }
+                if (!entries.isEmpty()) nonEmptySlots++;
+            }
+            forwardFill = Math.min(flex ? forwardSlots.length : nonEmptySlots, forwards.size());
+            allowedEmpty = forwardSlots.length - forwardFill;
+            unitSize = Math.min(2, defense.length) + forwardFill;
+
+            for (int s = forwardSlots.length - 1; s >= 0; s--) {
+                double top = slotValues[s].length == 0 ? 0.0 : slotValues[s][0];
+                if (allowedEmpty > 0 || slotValues[s].length == 0) top = Math.max(top, 0.0);
+                double maxIce = 0.0;
+                for (int i : slotPlayers[s]) maxIce = Math.max(maxIce, iceTimes[i]);
+                suffixBound[s] = suffixBound[s + 1] + top;
+                suffixIce[s] = suffixIce[s + 1] + maxIce;
+            }
+
+            double maxBonus = 0.0;
+            if (chemistry != null) {
+                pairBonus = new double[n * n];
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        double bonus = chemistry.between(candidates.get(i), candidates.get(j));
+                        pairBonus[i * n + j] = bonus;
+                        pairBonus[j * n + i] = bonus;
+                        maxBonus = Math.max(maxBonus, bonus);
+                    }
+                }
+            } else {
+                pairBonus = null;
+            }
+            chemistryCap = maxBonus;
+        }
+
+        Unit solve() {
+            int[][] pairs = defensePairs();
+            IntStream partitions = IntStream.range(0, pairs.length);
+            if (pairs.length >= PARALLEL_PAIR_THRESHOLD) partitions = partitions.parallel();
+
+            Search[] results = new Search[pairs.length];
+            partitions.forEach(p -> {
+                Search search = new Search();
+                search.run(pairs[p]);
+                results[p] = search;
+            });
+
+            // Highest score wins; ties go to the earliest defense pair, which keeps the result deterministic
+            Search best = null;
+            for (Search search : results) {
+                if (search.bestPlacement != null && (best == null || search.bestScore > best.bestScore)) {
+                    best = search;
+                }
+            }
+            if (best == null) return new Unit(Collections.emptyList(), Double.NEGATIVE_INFINITY);
+
+            List<Integer> chosen = new ArrayList<>();
+            for (int i : best.bestPlacement) if (i >= 0) chosen.add(i);
+            chosen.sort(Comparator.comparingInt(i -> rankOf[i]));
+            List<Player> unit = new ArrayList<>(chosen.size());
+            for (int i : chosen) unit.add(players.get(i));
+            return new Unit(Collections.unmodifiableList(unit), best.bestScore);
+        }
+
+        /** Defense pairs in rank order; a single D or none gives one partial "pair". */
+        int[][] defensePairs() {
+            if (defense.length < 2) {
+                return new int[][]{{defense.length == 1 ? defense[0] : -1, -1}};
+            }
+            int[][] pairs = new int[defense.length * (defense.length - 1) / 2][];
+            int p = 0;
+            for (int a = 0; a < defense.length; a++) {
+                for (int b = a + 1; b < defense.length; b++) {
+                    pairs[p++] = new int[]{defense[a], defense[b]};
+                }
+            }
+            return pairs;
+        }
+
+        String position(int i) {
+            return players.get(i).getPosition().toUpperCase().trim();
+        }
+
+        /** Depth-first search over the forward slots for one defense pair. */
+        private final class Search {
+            final int[] placement = new int[2 + forwardSlots.length];
+            final boolean[] used = new boolean[players.size()];
+            int[] bestPlacement;
+            double bestScore = Double.NEGATIVE_INFINITY;
+
+            void run(int[] pair) {
+                Arrays.fill(placement, -1);
+                double score = 0.0;
+                double ice = 0.0;
+                int placed = 0;
+                for (int k = 0; k < 2; k++) {
+                    int i = pair[k];
+                    if (i < 0) continue;
+                    score += scores[i] + chemistryWithPlaced(i);
+                    ice += iceTimes[i];
+                    placement[k] = i;
+                    used[i] = true;
+                    placed++;
+                }
+                double bound = score + suffixBound[0] + chemistryCap * (pairCount(unitSize) - pairCount(placed));
+                if (bound < globalBest.get()) return; // this pair cannot beat a unit already found
+                descend(0, score, ice, placed, allowedEmpty);
+            }
+
+            void descend(int slot, double score, double ice, int placed, int emptiesLeft) {
+                if (slot == forwardSlots.length) {
+                    if (ice >= minIceTime && score > bestScore) {
+                        bestScore = score;
+                        bestPlacement = placement.clone();
+                        globalBest.accumulate(score);
+                    }
+                    return;
+                }
+                if (ice + suffixIce[slot] < minIceTime) return;
+
+                // Chemistry still to come: every pair involving this slot or a later one
+                double openChemistry = chemistryCap * (pairCount(unitSize) - pairCount(placed));
+                double laterChemistry = chemistryCap * (pairCount(unitSize) - pairCount(placed + 1));
+                int[] candidates = slotPlayers[slot];
+                double[] values = slotValues[slot];
+                for (int k = 0; k < candidates.length; k++) {
+                    int i = candidates[k];
+                    if (used[i]) continue;
+                    double base = score + values[k] + suffixBound[slot + 1];
+                    if (cannotImprove(base + openChemistry)) break; // values are sorted, so no later candidate can do better
+
+                    double withChemistry = values[k] + chemistryWithPlaced(i);
+                    if (cannotImprove(score + withChemistry + suffixBound[slot + 1] + laterChemistry)) continue;
+
+                    placement[2 + slot] = i;
+                    used[i] = true;
+                    descend(slot + 1, score + withChemistry, ice + iceTimes[i], placed + 1, emptiesLeft);
+                    used[i] = false;
+                    placement[2 + slot] = -1;
+                }
+                if (emptiesLeft > 0) {
+                    descend(slot + 1, score, ice, placed, emptiesLeft - 1);
+                }
+            }
+
+            /** Ties with this search's own best are pruned; ties with other pairs are kept so the earliest pair wins. */
+            boolean cannotImprove(double bound) {
+                return bound <= bestScore || bound < globalBest.get();
+            }
+
+            double chemistryWithPlaced(int i) {
+                if (pairBonus == null) return 0.0;
+                int n = players.size();
+                double bonus = 0.0;
+                for (int j : placement) {
+                    if (j >= 0 && j != i) bonus += pairBonus[j * n + i];
+                }
+                return bonus;
+            }
+        }
+    }
+
+    private static int pairCount(int n) {
+        return n * (n - 1) / 2;
+    }
+}
@@ -0,0 +1,471 @@
+package nhl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Local HTTP service over one loaded, read-only league:
+ *
+ * <ul>
+ *   <li>{@code GET /lineup?team=TOR&target=Auston Matthews} - the best defensive lineup,</li>
+ *   <li>{@code GET /player/{name}} - a player's stats on every team they appear for,</li>
+ *   <li>{@code GET /heatmap/{shooter}[?format=png&width=&height=]} - a shooter's xG grid as JSON or PNG.</li>
+ * </ul>
+ *
+ * Responses carry an ETag and are kept in a cache bounded by entry count and total bytes,
+ * so repeated requests are answered without any work. The dispatcher thread only looks up
+ * the cache and hands each exchange off: cached and error responses are written by a small
+ * responder executor, and other requests run on a worker executor (virtual threads when
+ * the JDK has them). At most {@code maxConcurrent} requests are worked on at once, and any
+ * beyond that are refused with 503 rather than queued. PNG heatmaps are limited in size
+ * and at most two are rendered at a time.
+ */
+public class LineupServer {
+
+    private static final int MAX_CACHED_RESPONSES = 4096;
+    /** Total body bytes the response cache holds, least recently used evicted first. */
+    private static final long MAX_CACHED_BYTES = 64L * 1024 * 1024;
+    private static final int DEFAULT_IMAGE_WIDTH = 1000;
+    private static final int DEFAULT_IMAGE_HEIGHT = 425;
+    /** Largest PNG served: twice the heatmap panel's preferred size. */
+    private static final int MAX_IMAGE_WIDTH = 2 * DEFAULT_IMAGE_WIDTH;
+    private static final int MAX_IMAGE_HEIGHT = 2 * DEFAULT_IMAGE_HEIGHT;
+    /** PNGs rendered at once; each render holds several full-size image layers. */
+    private static final int MAX_CONCURRENT_RENDERS = 2;
+    /** Threads writing cached and error responses when the JDK has no virtual threads. */
+    private static final int RESPONDER_THREADS = 4;
+
+    private final PlayerIndex playerIndex;
+    private final Map<String, ParametricLineupIndex> lineupIndexes = new HashMap<>();
+    private final String shotsPath;
+    private final Semaphore permits;
+    private final Semaphore renderPermits = new Semaphore(MAX_CONCURRENT_RENDERS);
+    /** Guarded by itself, as is {@link #cachedBytes}. */
+    private final LinkedHashMap<String, Response> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    private volatile HeatmapStore heatmaps;
+    private HttpServer server;
+    private ExecutorService workers;
+    private ExecutorService responders;
+
+    /**
+     * Prepares a server over a loaded league.
+     *
+     * @param teams         The list of all teams.
+     * @param shotsPath     Path to the shots CSV behind {@code /heatmap}; read on first use.
+     * @param maxConcurrent The most requests processed at once before answering 503.
+     */
+    public LineupServer(List<Team> teams, String shotsPath, int maxConcurrent) {
+        this.playerIndex = PlayerIndex.build(teams);
+        ParametricLineupIndex.buildAll(teams).forEach((name, index) -> lineupIndexes.put(fold(name), index));
+        this.shotsPath = shotsPath;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public static void main(String[] args) {
+        String dataPath = "data/skaters.csv";
+        String shotsPath = "data/shots.csv";
+        int port = 8080;
+        int maxConcurrent = 256;
+        long metricsInterval = 0;
+        String weightsPath = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data": dataPath = args[++i]; break;
+                    case "--shots": shotsPath = args[++i]; break;
+                    case "--port": port = Integer.parseInt(args[++i]); break;
+                    case "--max-concurrent": maxConcurrent = Integer.parseInt(args[++i]); break;
+                    case "--metrics-interval": metricsInterval = Long.parseLong(args[++i]); break;
+                    case "--weights": weightsPath = args[++i]; break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (maxConcurrent < 1) throw new IllegalArgumentException("--max-concurrent must be at least 1");
+            if (metricsInterval < 0) throw new IllegalArgumentException("--metrics-interval must not be negative");
+        } catch (RuntimeException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: LineupServer [--port 8080] [--data skaters.csv] [--shots shots.csv] [--max-concurrent N] [--metrics-interval SECONDS] [--weights profile.properties]");
+            System.exit(2);
+            return;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        if (metricsInterval > 0) Metrics.startPeriodicDump(metricsInterval, System.err);
+        if (weightsPath != null && !LineupGenerator.loadWeightProfile(weightsPath)) {
+            System.exit(1);
+            return;
+        }
+        SkaterTable table = DataLoader.loadSkaterTableCached(dataPath);
+        if (table.size() == 0) {
+            System.err.println("No skaters loaded from " + dataPath);
+            System.exit(1);
+            return;
+        }
+
+        try {
+            LineupServer server = new LineupServer(table.toTeams(), shotsPath, maxConcurrent);
+            int bound = server.start(port);
+            System.out.println("Lineup server listening on http://localhost:" + bound + "/");
+        } catch (IOException e) {
+            System.err.println("Could not start server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     *
+     * @param port The port, or 0 for any free port.
+     * @return The port actually bound.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized int start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        workers = newRequestExecutor("lineup-server-worker", Math.max(1, permits.availablePermits()));
+        responders = newRequestExecutor("lineup-server-responder", RESPONDER_THREADS);
+        server.createContext("/", this::dispatch);
+        server.setExecutor(null); // dispatch() runs on the listener thread and hands every write off
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, letting requests already being handled finish for up to a second.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            workers.shutdown();
+            responders.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the running JDK supports one, and a
+     * fixed pool of daemon threads otherwise.
+     */
+    static ExecutorService newRequestExecutor(String name, int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(fallbackThreads, r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Runs on the server's dispatcher thread, so it never writes to the client itself: a
+     * stalled client would block every other connection. It only looks up the cache, takes
+     * a permit and hands the exchange to a responder or worker.
+     */
+    private void dispatch(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+            respond(exchange, Response.error(405, "Method not allowed"));
+            return;
+        }
+        String key = exchange.getRequestURI().getRawPath() + "?" + exchange.getRequestURI().getRawQuery();
+        Response cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            respond(exchange, cached);
+            return;
+        }
+        if (!permits.tryAcquire()) {
+            respond(exchange, Response.error(503, "Server busy"));
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    Response response = handle(exchange.getRequestURI());
+                    if (response.status == 200) cache(key, response);
+                    send(exchange, response);
+                } catch (RuntimeException | IOException e) {
+                    System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+                    trySend(exchange, Response.error(500, "Internal error"));
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            respond(exchange, Response.error(503, "Server shutting down"));
+        }
+    }
+
+    /**
+     * Writes a ready response on a responder thread rather than the dispatcher.
+     */
+    private void respond(HttpExchange exchange, Response response) {
+        try {
+            responders.execute(() -> trySend(exchange, response));
+        } catch (RejectedExecutionException e) {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Caches a response, evicting the least recently used ones while the cache holds more
+     * than {@link #MAX_CACHED_RESPONSES} entries or {@link #MAX_CACHED_BYTES} of bodies.
+     */
+    private void cache(String key, Response response) {
+        if (response.body.length > MAX_CACHED_BYTES / 16) return;
+        synchronized (cache) {
+            Response previous = cache.put(key, response);
+            cachedBytes += response.body.length - (previous == null ? 0 : previous.body.length);
+            Iterator<Response> eldest = cache.values().iterator();
+            while (cache.size() > MAX_CACHED_RESPONSES || cachedBytes > MAX_CACHED_BYTES) {
+                cachedBytes -= eldest.next().body.length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Builds the response for a request URI.
+     *
+     * @param uri The request URI.
+     * @return The response.
+     * @throws IOException If a heatmap cannot be rendered.
+     */
+    Response handle(URI uri) throws IOException {
+        String path = uri.getPath();
+        Map<String, String> query = parseQuery(uri.getRawQuery());
+        if (path.equals("/lineup")) return lineup(query);
+        if (path.startsWith("/player/")) return player(path.substring("/player/".length()));
+        if (path.startsWith("/heatmap/")) return heatmap(path.substring("/heatmap/".length()), query);
+        return Response.error(404, "Not found");
+    }
+
+    private Response lineup(Map<String, String> query) {
+        String team = query.get("team");
+        String target = query.getOrDefault("target", "");
+        if (team == null || team.isEmpty()) return Response.error(400, "Missing team parameter");
+
+        ParametricLineupIndex index = lineupIndexes.get(fold(team));
+        if (index == null) return Response.error(404, "Unknown team " + team);
+
+        Player targetPlayer = playerIndex.findByName(target);
+        double threatBoost = ScoringEngine.threatBoost(targetPlayer);
+        List<Player> lineup = index.lineupFor(threatBoost);
+        double[] scores = ScoringEngine.forTarget(targetPlayer).scoreAll(lineup);
+
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"team\":").append(Json.quote(index.getTeam().getName()))
+          .append(",\"target\":").append(Json.quote(target))
+          .append(",\"targetFound\":").append(targetPlayer != null)
+          .append(",\"threatBoost\":").append(Json.number(threatBoost, 4))
+          .append(",\"lineup\":[");
+        double total = 0;
+        for (int i = 0; i < lineup.size(); i++) {
+            Player p = lineup.get(i);
+            total += scores[i];
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":").append(Json.quote(p.getName()))
+              .append(",\"position\":").append(Json.quote(p.getPosition()))
+              .append(",\"score\":").append(Json.number(scores[i], 4)).append('}');
+        }
+        sb.append("],\"score\":").append(Json.number(total, 4)).append('}');
+        return Response.json(sb.toString());
+    }
+
+    private Response player(String name) {
+        List<PlayerIndex.Entry> entries = playerIndex.findEntriesByName(name);
+        if (entries.isEmpty()) return Response.error(404, "Unknown player " + name);
+
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"name\":").append(Json.quote(entries.get(0).getPlayer().getName())).append(",\"teams\":[");
+        for (int i = 0; i < entries.size(); i++) {
+            Player p = entries.get(i).getPlayer();
+            if (i > 0) sb.append(',');
+            sb.append("{\"team\":").append(Json.quote(entries.get(i).getTeam().getName()))
+              .append(",\"playerId\":").append(p.getPlayerId())
+              .append(",\"position\":").append(Json.quote(p.getPosition()))
+              .append(",\"gamesPlayed\":").append(p.getGamesPlayed())
+              .append(",\"iceTime\":").append(Json.number(p.getIceTime(), 2))
+              .append(",\"goals\":").append(p.getGoals())
+              .append(",\"points\":").append(p.getPoints())
+              .append(",\"hits\":").append(p.getHits())
+              .append(",\"takeaways\":").append(p.getTakeaways())
+              .append(",\"giveaways\":").append(p.getGiveaways())
+              .append(",\"blockedShots\":").append(p.getBlockedShots())
+              .append(",\"expectedGoalsAgainst\":").append(Json.number(p.getExpectedGoalsAgainst(), 3))
+              .append(",\"highDangerxGoals\":").append(Json.number(p.getHighDangerxGoals(), 3))
+              .append(",\"takeawayEfficiencyScore\":").append(Json.number(p.getTakeawayEfficiencyScore(), 3))
+              .append('}');
+        }
+        sb.append("]}");
+        return Response.json(sb.toString());
+    }
+
+    private Response heatmap(String shooter, Map<String, String> query) throws IOException {
+        HeatmapStore store = heatmapStore();
+        if (store == null) return Response.error(503, "Shot data unavailable");
+        HeatmapGrid grid = store.grid(shooter);
+        if (grid == null) return Response.error(404, "No shots for " + shooter);
+
+        if ("png".equalsIgnoreCase(query.get("format"))) {
+            int width;
+            int height;
+            try {
+                width = Integer.parseInt(query.getOrDefault("width", String.valueOf(DEFAULT_IMAGE_WIDTH)));
+                height = Integer.parseInt(query.getOrDefault("height", String.valueOf(DEFAULT_IMAGE_HEIGHT)));
+            } catch (NumberFormatException e) {
+                return Response.error(400, "Invalid image size");
+            }
+            if (width < 1 || height < 1 || width > MAX_IMAGE_WIDTH || height > MAX_IMAGE_HEIGHT) {
+                return Response.error(400, "Image size must be at most " + MAX_IMAGE_WIDTH + "x" + MAX_IMAGE_HEIGHT);
+            }
+            if (!renderPermits.tryAcquire()) return Response.error(503, "Server busy");
+            try {
+                ByteArrayOutputStream png = new ByteArrayOutputStream(64 * 1024);
+                ImageIO.write(RinkPanel.render(grid, width, height), "png", png);
+                return new Response(200, "image/png", png.toByteArray());
+            } finally {
+                renderPermits.release();
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(16 * 1024);
+        sb.append("{\"shooter\":").append(Json.quote(shooter))
+          .append(",\"shots\":").append(grid.getShotCount())
+          .append(",\"totalXG\":").append(Json.number(grid.total(), 4))
+          .append(",\"width\":").append(HeatmapGrid.WIDTH)
+          .append(",\"height\":").append(HeatmapGrid.HEIGHT)
+          .append(",\"cells\":[");
+        boolean first = true;
+        for (int y = 0; y < HeatmapGrid.HEIGHT; y++) {
+            for (int x = 0; x < HeatmapGrid.WIDTH; x++) {
+                double xg = grid.cell(x, y);
+                if (xg == 0) continue;
+                if (!first) sb.append(',');
+                sb.append('[').append(x).append(',').append(y).append(',').append(Json.number(xg, 4)).append(']');
+                first = false;
+            }
+        }
+        sb.append("]}");
+        return Response.json(sb.toString());
+    }
+
+    /** Loads the shots file once, on the first heatmap request; null if it cannot be read. */
+    private HeatmapStore heatmapStore() {
+        HeatmapStore store = heatmaps;
+        if (store != null) return store;
+        synchronized (this) {
+            if (heatmaps == null) {
+                try {
+                    heatmaps = HeatmapStore.forFile(shotsPath);
+                } catch (IOException e) {
+                    System.err.println("Could not load shot data " + shotsPath + ": " + e.getMessage());
+                    return null;
+                }
+            }
+            return heatmaps;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+            if (response.status == 503) exchange.getResponseHeaders().set("Retry-After", "1");
+            if (response.etag != null) {
+                exchange.getResponseHeaders().set("ETag", response.etag);
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                if (ifNoneMatch != null && ifNoneMatch.contains(response.etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(response.status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(response.status, response.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void trySend(HttpExchange exchange, Response response) {
+        try {
+            send(exchange, response);
+        } catch (IOException | RuntimeException e) {
+            exchange.close(); // headers were probably already sent
+        }
+    }
+
+    private static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A complete response body with its status, type and, for successful responses, an ETag.
+     */
+    static final class Response {
+        final int status;
+        final String contentType;
+        final byte[] body;
+        final String etag;
+
+        Response(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.etag = status == 200 ? etagFor(body) : null;
+        }
+
+        static Response json(String body) {
+            return new Response(200, "application/json; charset=utf-8", body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Response error(int status, String message) {
+            String body = "{\"error\":" + Json.quote(message) + "}";
+            return new Response(status, "application/json; charset=utf-8", body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String etagFor(byte[] body) {
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+        }
+    }
+}
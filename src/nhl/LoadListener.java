@@ -0,0 +1,27 @@
+package nhl;
+
+/**
+ * Receives progress callbacks while {@link DataLoader} reads a skaters file.
+ * Callbacks may arrive on loader or fork-join threads, so implementations that touch
+ * Swing components must hand off to the Event Dispatch Thread.
+ */
+public interface LoadListener {
+
+    /** A listener that ignores every callback. */
+    LoadListener NONE = new LoadListener() { };
+
+    /**
+     * Called periodically as the file is consumed.
+     *
+     * @param bytesRead  Bytes of the file processed so far.
+     * @param totalBytes Size of the file in bytes.
+     */
+    default void onProgress(long bytesRead, long totalBytes) { }
+
+    /**
+     * Called the first time a row for a team is accepted.
+     *
+     * @param team The team code.
+     */
+    default void onTeamSeen(String team) { }
+}
@@ -1,15 +1,16 @@
 package nhl;
 
-import nhl.ShotData;
-import nhl.ShotDataLoader;
-
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Main {
 
@@ -19,6 +20,12 @@ public class Main {
         "dZone Starts", "High Danger xGoals", "Rebound Goals"
     };
 
+    /** Set on the EDT once the background load finishes; null until then. */
+    private static PlayerIndex playerIndex;
+
+    /** Set while the shots file is being indexed in the background. */
+    private static final AtomicBoolean indexing = new AtomicBoolean();
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(Main::createAndShowGUI);
     }
@@ -33,15 +40,8 @@ public class Main {
         mainPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
         frame.setContentPane(mainPanel);
 
-        List<Team> allTeams = DataLoader.loadTeamsFromCSV("data/skaters.csv");
-
-        List<String> teamNamesList = allTeams.stream()
-                .map(Team::getName)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-
-        JComboBox<String> teamSelector = new JComboBox<>(teamNamesList.toArray(new String[0]));
+        DefaultComboBoxModel<String> teamModel = new DefaultComboBoxModel<>();
+        JComboBox<String> teamSelector = new JComboBox<>(teamModel);
         teamSelector.setPreferredSize(new Dimension(180, 25));
 
         JPanel inputPanel = new JPanel(new GridBagLayout());
@@ -88,6 +88,7 @@ public class Main {
         generateButton.setForeground(Color.WHITE);
         generateButton.setFocusPainted(false);
         generateButton.setPreferredSize(new Dimension(180, 35));
+        generateButton.setEnabled(false);
         gbc.gridx = 0;
         gbc.gridy = 2;
         gbc.gridwidth = 2;
@@ -131,7 +132,15 @@ public class Main {
         JLabel summaryLabel = new JLabel("Summary: ");
         summaryLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         summaryLabel.setBorder(new EmptyBorder(10, 0, 0, 0));
-        mainPanel.add(summaryLabel, BorderLayout.SOUTH);
+
+        JProgressBar loadProgress = new JProgressBar(0, 100);
+        loadProgress.setStringPainted(true);
+        loadProgress.setString("Loading skater data...");
+
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.add(summaryLabel, BorderLayout.CENTER);
+        statusPanel.add(loadProgress, BorderLayout.EAST);
+        mainPanel.add(statusPanel, BorderLayout.SOUTH);
 
         generateButton.addActionListener(e -> {
             String targetPlayer = targetPlayerField.getText().trim();
@@ -151,10 +160,7 @@ public class Main {
 
             tableModel.setRowCount(0);
 
-            Team defendingTeam = allTeams.stream()
-                    .filter(t -> t.getName().equalsIgnoreCase(selectedTeam))
-                    .findFirst()
-                    .orElse(null);
+            Team defendingTeam = playerIndex.getTeam(selectedTeam);
 
             if (defendingTeam == null) {
                 JOptionPane.showMessageDialog(frame, "Selected defending team not found.",
@@ -162,7 +168,7 @@ public class Main {
                 return;
             }
 
-            List<Player> defensiveLineup = LineupGenerator.getBestDefensiveLineup(defendingTeam, targetPlayer, allTeams);
+            List<Player> defensiveLineup = LineupGenerator.getBestDefensiveLineup(playerIndex, defendingTeam, targetPlayer);
 
             if (defensiveLineup.isEmpty()) {
                 JOptionPane.showMessageDialog(frame, "No defensive lineup could be generated to stop " + targetPlayer + ".",
@@ -190,16 +196,15 @@ public class Main {
             int totalTakeaways = 0;
             int totalGiveaways = 0;
             double totalScore = 0.0;
-            Player target = DataLoader.findPlayerByName(targetPlayer, allTeams);
-            double threatBoost = (target != null)
-                    ? Math.min((target.getHighDangerxGoals() + target.getGoals()) / 5.0, 1.0)
-                    : 0.0;
+            ScoringEngine engine = ScoringEngine.forTarget(playerIndex.findByName(targetPlayer));
 
             for (Player p : defensiveLineup) {
                 totalXGA += p.getExpectedGoalsAgainst();
                 totalTakeaways += p.getTakeaways();
                 totalGiveaways += p.getGiveaways();
-                totalScore += LineupGenerator.getPlayerCompositeScore(p, target, 0.7, 0.3, threatBoost);
+            }
+            for (double score : engine.scoreAll(defensiveLineup)) {
+                totalScore += score;
             }
 
             int count = defensiveLineup.size();
@@ -211,34 +216,180 @@ public class Main {
         });
 
         heatmapButton.addActionListener(e -> {
-            try {
-                String targetPlayer = targetPlayerField.getText().trim();
-                List<ShotData> shotList = ShotDataLoader.loadShotsForPlayer("data/shots.csv", targetPlayer);
-               
-
-                if (shotList == null || shotList.isEmpty()) {
-                    JOptionPane.showMessageDialog(frame, "No shot data found or loaded.",
-                            "Data Error", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
+            String targetPlayer = targetPlayerField.getText().trim();
 
-                JFrame heatmapFrame = new JFrame("xGoal Heatmap vs Target Player");
-                heatmapFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            JFrame heatmapFrame = new JFrame("xGoal Heatmap vs Target Player");
+            heatmapFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-                RinkPanel rinkPanel = new RinkPanel(shotList);
-                heatmapFrame.add(rinkPanel);
+            RinkPanel rinkPanel = new RinkPanel((HeatmapGrid) null);
+            heatmapFrame.add(rinkPanel);
 
-                heatmapFrame.pack();
-                heatmapFrame.setLocationRelativeTo(frame);
-                heatmapFrame.setVisible(true);
+            heatmapFrame.pack();
+            heatmapFrame.setLocationRelativeTo(frame);
+            heatmapFrame.setVisible(true);
 
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(frame, "Error loading heatmap data: " + ex.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            startStreamingShots(frame, heatmapFrame, rinkPanel, targetPlayer);
         });
 
         frame.setVisible(true);
+
+        startLoading(frame, teamModel, generateButton, loadProgress);
+    }
+
+    /**
+     * Fills an already visible heatmap with the target's shots. A current {@link HeatmapStore}
+     * gives the grid at once; otherwise the shots stream in while the file is read, through the
+     * {@link ShotIndex} if one is current, and the index and store are then built in the
+     * background so the next heatmap is fast. Closing the heatmap window stops the read.
+     */
+    private static void startStreamingShots(JFrame frame, JFrame heatmapFrame, RinkPanel rinkPanel,
+                                            String targetPlayer) {
+        String path = shotsPath();
+        SwingWorker<Integer, List<ShotData>> streamer = new SwingWorker<Integer, List<ShotData>>() {
+            private HeatmapGrid precomputed;
+            private boolean stale;
+
+            @Override
+            protected Integer doInBackground() throws IOException {
+                if (!ShotDataLoader.isCompressed(path) && new File(path).exists()) {
+                    HeatmapStore store = HeatmapStore.current(path);
+                    if (store != null) {
+                        precomputed = store.grid(targetPlayer);
+                        return precomputed == null ? 0 : precomputed.getShotCount();
+                    }
+                    stale = true;
+                }
+                return ShotDataLoader.streamShotsForPlayer(path, targetPlayer, this::publish);
+            }
+
+            @Override
+            protected void process(List<List<ShotData>> batches) {
+                for (List<ShotData> batch : batches) {
+                    rinkPanel.addShots(batch);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    int shots = get();
+                    if (precomputed != null) rinkPanel.setGrid(precomputed);
+                    if (stale) startIndexing(path);
+                    if (shots == 0) {
+                        heatmapFrame.dispose();
+                        JOptionPane.showMessageDialog(frame, "No shot data found or loaded.",
+                                "Data Error", JOptionPane.WARNING_MESSAGE);
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    ex.printStackTrace();
+                    heatmapFrame.dispose();
+                    JOptionPane.showMessageDialog(frame, "Error loading heatmap data: " + ex.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        heatmapFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                streamer.cancel(true);
+            }
+        });
+        streamer.execute();
+    }
+
+    /**
+     * Builds the shot index and heatmap store for a shots file on a background thread,
+     * unless a build is already running.
+     */
+    private static void startIndexing(String path) {
+        if (!indexing.compareAndSet(false, true)) return;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                ShotIndex.forFile(path);
+                HeatmapStore.forFile(path);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                indexing.set(false);
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    System.err.println("Could not index " + path + ": " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Gets the shots file to read, preferring the plain CSV over a gzip-compressed copy.
+     */
+    private static String shotsPath() {
+        if (!new File("data/shots.csv").exists() && new File("data/shots.csv.gz").exists()) {
+            return "data/shots.csv.gz";
+        }
+        return "data/shots.csv";
+    }
+
+    /**
+     * Loads the skater data on a background thread. Teams are added to the selector as the
+     * loader first sees them, the progress bar follows bytes read, and the Generate button is
+     * enabled once the normalized table and its index are ready.
+     */
+    private static void startLoading(JFrame frame, DefaultComboBoxModel<String> teamModel,
+                                     JButton generateButton, JProgressBar loadProgress) {
+        SwingWorker<PlayerIndex, String> loader = new SwingWorker<PlayerIndex, String>() {
+            @Override
+            protected PlayerIndex doInBackground() {
+                SkaterTable table = DataLoader.loadSkaterTableCached("data/skaters.csv", new LoadListener() {
+                    @Override
+                    public void onProgress(long bytesRead, long totalBytes) {
+                        if (totalBytes > 0) setProgress((int) Math.min(100, bytesRead * 100 / totalBytes));
+                    }
+
+                    @Override
+                    public void onTeamSeen(String team) {
+                        publish(team);
+                    }
+                });
+                return PlayerIndex.build(table.toTeams());
+            }
+
+            @Override
+            protected void process(List<String> teams) {
+                for (String team : teams) {
+                    if (team == null || teamModel.getIndexOf(team) >= 0) continue;
+                    int i = 0;
+                    while (i < teamModel.getSize() && teamModel.getElementAt(i).compareTo(team) < 0) i++;
+                    teamModel.insertElementAt(team, i);
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    playerIndex = get();
+                    if (teamModel.getSelectedItem() == null && teamModel.getSize() > 0) {
+                        teamModel.setSelectedItem(teamModel.getElementAt(0));
+                    }
+                    generateButton.setEnabled(true);
+                    loadProgress.setVisible(false);
+                } catch (InterruptedException | ExecutionException ex) {
+                    ex.printStackTrace();
+                    loadProgress.setString("Load failed");
+                    JOptionPane.showMessageDialog(frame, "Error loading skater data: " + ex.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        loader.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                loadProgress.setValue((Integer) evt.getNewValue());
+            }
+        });
+        loader.execute();
     }
 }
\ No newline at end of file
@@ -0,0 +1,375 @@
+package nhl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a comma-separated file through a memory-mapped buffer without building a
+ * {@code String[]} per row. Each call to {@link #nextRow()} records the byte offsets of
+ * the row's fields; values are then parsed in place on request.
+ *
+ * A row can also be tokenized lazily (see {@link #nextRowLazy()}): only the fields a caller
+ * asks for through {@link #require(int)} are located, and the rest of the line is skipped
+ * eight bytes at a time without looking at its fields.
+ *
+ * Quoting is not supported: MoneyPuck exports never quote fields.
+ */
+public class MappedCsvReader implements CsvRow {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
+    private final int end;
+    private int position;
+
+    /** Whether the current row's line terminator has not been reached yet. */
+    private boolean rowOpen;
+
+    private int[] fieldStarts = new int[256];
+    private int[] fieldEnds = new int[256];
+    private int fieldCount;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Creates a reader over {@code buffer} from {@code start} (inclusive) to {@code end} (exclusive).
+     *
+     * @param buffer The bytes to read; only absolute reads are used, so the buffer's position is untouched.
+     * @param start  Offset of the first byte to read.
+     * @param end    Offset one past the last byte to read.
+     */
+    public MappedCsvReader(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Maps a whole file read-only.
+     *
+     * @param filePath Path to the file.
+     * @return The mapped bytes.
+     * @throws IOException If the file cannot be mapped or is larger than 2 GB.
+     */
+    public static ByteBuffer map(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + filePath);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Opens a reader over an entire file.
+     *
+     * @param filePath Path to the file.
+     * @return A reader positioned at the first byte.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public static MappedCsvReader open(String filePath) throws IOException {
+        ByteBuffer buffer = map(filePath);
+        return new MappedCsvReader(buffer, 0, buffer.limit());
+    }
+
+    /**
+     * Advances to the next line and records the offsets of its fields.
+     *
+     * @return false once the end of the range has been reached.
+     */
+    public boolean nextRow() {
+        if (!nextRowLazy()) return false;
+        require(Integer.MAX_VALUE);
+        return true;
+    }
+
+    /**
+     * Advances to the next line without locating any of its fields yet. Fields become
+     * available through {@link #require(int)}; whatever part of the line is never required
+     * is skipped by the next call to {@code nextRow} or {@code nextRowLazy}.
+     *
+     * @return false once the end of the range has been reached.
+     */
+    public boolean nextRowLazy() {
+        if (rowOpen) skipLine();
+        if (position >= end) return false;
+        fieldCount = 0;
+        rowOpen = true;
+        return true;
+    }
+
+    /**
+     * Locates the leading fields of the current row, continuing from wherever an earlier
+     * call stopped.
+     *
+     * @param fields The number of leading fields needed.
+     * @return The number of fields now located; fewer than {@code fields} only if the row is shorter.
+     */
+    @Override
+    public int require(int fields) {
+        if (!rowOpen || fieldCount >= fields) return fieldCount;
+
+        int start = position;
+        int i = position;
+        while (i < end) {
+            byte b = buffer.get(i);
+            if (b == ',') {
+                addField(start, i);
+                start = i + 1;
+                if (fieldCount == fields) {
+                    position = start;
+                    return fieldCount;
+                }
+            } else if (b == '\n' || b == '\r') {
+                break;
+            }
+            i++;
+        }
+        addField(start, i);
+        position = consumeTerminator(i);
+        rowOpen = false;
+        return fieldCount;
+    }
+
+    /**
+     * Moves past the rest of the current line without locating its fields, testing eight
+     * bytes at a time for a line terminator.
+     */
+    private void skipLine() {
+        int i = position;
+        while (i + Long.BYTES <= end) {
+            long word = buffer.getLong(i);
+            long found = matches(word, '\n') | matches(word, '\r');
+            if (found != 0) {
+                i += (bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found)) >>> 3;
+                break;
+            }
+            i += Long.BYTES;
+        }
+        while (i < end) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') break;
+            i++;
+        }
+        position = consumeTerminator(i);
+        rowOpen = false;
+    }
+
+    /**
+     * Sets the high bit of every byte of {@code word} equal to {@code value}, and no other bit.
+     */
+    private static long matches(long word, char value) {
+        long x = word ^ (ONES * value);
+        long y = (x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+        return ~(y | x | LOW_SEVEN_BITS);
+    }
+
+    /**
+     * Consumes the line terminator at {@code i}, treating \r\n as one.
+     *
+     * @return The offset of the next line.
+     */
+    private int consumeTerminator(int i) {
+        if (i < end && buffer.get(i) == '\r') i++;
+        if (i < end && buffer.get(i) == '\n') i++;
+        return i;
+    }
+
+    /**
+     * Gets the number of fields on the current row.
+     *
+     * @return The field count, as {@code line.split(",", -1).length} would report it; on a
+     *         lazily tokenized row, the number of fields located so far.
+     */
+    @Override
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the offset of the first byte not yet consumed. On a lazily tokenized row this can
+     * be inside the row, just past the last field located.
+     *
+     * @return The current read position.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Compares a field, ignoring surrounding whitespace, with an ASCII literal.
+     *
+     * @param field The field index on the current row.
+     * @param ascii The literal to compare against.
+     * @return true if the trimmed field equals {@code ascii}.
+     */
+    @Override
+    public boolean fieldEquals(int field, String ascii) {
+        int s = trimStart(field);
+        int e = trimEnd(field, s);
+        if (e - s != ascii.length()) return false;
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buffer.get(s + i) != (byte) ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a field as a trimmed UTF-8 string.
+     *
+     * @param field The field index on the current row.
+     * @return The field text.
+     */
+    @Override
+    public String getString(int field) {
+        int s = trimStart(field);
+        int e = trimEnd(field, s);
+        int length = e - s;
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(s + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field as a double. Blank or malformed fields yield 0.0, matching the
+     * lenient behaviour of the original {@code Double.parseDouble} based loader.
+     *
+     * @param field The field index on the current row.
+     * @return The parsed value, or 0.0 if the field is not a number.
+     */
+    @Override
+    public double getDouble(int field) {
+        int s = trimStart(field);
+        int e = trimEnd(field, s);
+        return parseDouble(buffer, s, e);
+    }
+
+    /**
+     * Parses ASCII decimal text such as {@code -12.5} or {@code 3.1e-4} without allocating.
+     * Values whose mantissa or exponent cannot be converted exactly fall back to
+     * {@link Double#parseDouble(String)} after the syntax has been validated.
+     *
+     * @param buf   The bytes to read.
+     * @param start Offset of the first character.
+     * @param end   Offset one past the last character.
+     * @return The parsed value, or 0.0 if the text is empty or not a number.
+     */
+    static double parseDouble(ByteBuffer buf, int start, int end) {
+        int i = start;
+        if (i >= end) return 0.0;
+
+        boolean negative = false;
+        byte b = buf.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean overflow = false;
+
+        while (i < end && (b = buf.get(i)) >= '0' && b <= '9') {
+            if (significantDigits < 18) {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) significantDigits++;
+            } else {
+                overflow = true;
+                scale++;
+            }
+            digits++;
+            i++;
+        }
+        if (i < end && buf.get(i) == '.') {
+            i++;
+            while (i < end && (b = buf.get(i)) >= '0' && b <= '9') {
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) significantDigits++;
+                    scale--;
+                } else {
+                    overflow = true;
+                }
+                digits++;
+                i++;
+            }
+        }
+        if (digits == 0) return 0.0;
+
+        if (i < end && ((b = buf.get(i)) == 'e' || b == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && ((b = buf.get(i)) == '-' || b == '+')) {
+                negativeExponent = b == '-';
+                i++;
+            }
+            int exponent = 0;
+            int exponentDigits = 0;
+            while (i < end && (b = buf.get(i)) >= '0' && b <= '9') {
+                if (exponent < 100_000) exponent = exponent * 10 + (b - '0');
+                exponentDigits++;
+                i++;
+            }
+            if (exponentDigits == 0) return 0.0;
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (i != end) return 0.0; // trailing garbage
+
+        double value;
+        if (!overflow && mantissa < (1L << 53) && scale >= -22 && scale <= 22) {
+            // Both operands are exact doubles, so one multiply/divide is correctly rounded
+            value = scale >= 0 ? mantissa * POWERS_OF_TEN[scale] : mantissa / POWERS_OF_TEN[-scale];
+        } else {
+            byte[] text = new byte[end - start];
+            for (int k = 0; k < text.length; k++) text[k] = buf.get(start + k);
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        }
+        return negative ? -value : value;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private int trimStart(int field) {
+        if (field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of range for row of " + fieldCount);
+        }
+        int s = fieldStarts[field];
+        int e = fieldEnds[field];
+        while (s < e && (buffer.get(s) & 0xFF) <= ' ') s++;
+        return s;
+    }
+
+    private int trimEnd(int field, int trimmedStart) {
+        int e = fieldEnds[field];
+        while (e > trimmedStart && (buffer.get(e - 1) & 0xFF) <= ' ') e--;
+        return e;
+    }
+}
@@ -0,0 +1,255 @@
+package nhl;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo estimate of how many goals a defensive unit gives up against a target player.
+ *
+ * One trial is one game's worth of shifts against the target. Each shift starts from a
+ * faceoff and alternates between the unit and the opponent having the puck: the unit wins
+ * it back at a base rate plus its combined takeaways per minute, and loses it at a base
+ * rate plus its combined giveaways per minute. Goals against come only while the opponent
+ * has the puck, at the unit's mean on-ice xGA per 60, doubled to account for the opponent
+ * holding the puck about half the time, and raised by the target's
+ * {@link ScoringEngine#threatBoost(Player) threat boost} (high-danger xGoals and goals).
+ * Events are drawn as exponential waiting times, so a trial costs a handful of random draws.
+ *
+ * Trials run in fixed-size chunks on the common fork-join pool. Each chunk has its own
+ * {@link SplittableRandom}, split from the seed in chunk order, and counts goals into its own
+ * histogram, so the trial loop never allocates or shares state and a given seed gives the
+ * same result on any number of cores.
+ */
+public class MatchupSimulator {
+
+    /** Rate, per minute, at which the puck changes hands without a takeaway or giveaway. */
+    static final double BASE_POSSESSION_CHANGE_RATE = 2.0;
+    /** Trials per chunk; fixed so that results do not depend on the core count. */
+    static final int CHUNK_TRIALS = 1 << 15;
+    /** Goal counts per trial at or above this are counted in the last histogram bucket. */
+    static final int MAX_GOALS = 63;
+
+    static final Metrics.Timer SIMULATE_TIME =
+            Metrics.timer("simulator.run", "Simulating one unit against one target");
+
+    private final double goalRate;
+    private final double winBackRate;
+    private final double loseRate;
+    private int shifts = 20;
+    private double shiftMinutes = 0.75;
+
+    /**
+     * Creates a simulator for a unit against a target.
+     *
+     * @param unit   The defensive unit, e.g. from {@link LineupGenerator#getBestDefensiveLineup}.
+     * @param target The opposing player the unit defends against (can be null).
+     */
+    public MatchupSimulator(List<Player> unit, Player target) {
+        double xga60 = 0;
+        double takeawaysPerMinute = 0;
+        double giveawaysPerMinute = 0;
+        for (Player p : unit) {
+            xga60 += p.getOnIceExpectedGoalsAgainstPer60();
+            if (p.getIceTime() > 0) {
+                takeawaysPerMinute += p.getTakeaways() / p.getIceTime();
+                giveawaysPerMinute += p.getGiveaways() / p.getIceTime();
+            }
+        }
+        double unitXgaPerMinute = unit.isEmpty() ? 0 : xga60 / unit.size() / 60.0;
+        this.goalRate = 2.0 * unitXgaPerMinute * (1.0 + ScoringEngine.threatBoost(target));
+        this.winBackRate = BASE_POSSESSION_CHANGE_RATE + takeawaysPerMinute;
+        this.loseRate = BASE_POSSESSION_CHANGE_RATE + giveawaysPerMinute;
+    }
+
+    /**
+     * Changes how many shifts one trial plays; 20 by default.
+     *
+     * @param shifts The number of shifts per trial.
+     * @return This simulator.
+     */
+    public MatchupSimulator withShifts(int shifts) {
+        if (shifts < 1) throw new IllegalArgumentException("A trial needs at least one shift");
+        this.shifts = shifts;
+        return this;
+    }
+
+    /**
+     * Changes the length of one shift; 45 seconds by default.
+     *
+     * @param seconds The shift length in seconds.
+     * @return This simulator.
+     */
+    public MatchupSimulator withShiftSeconds(double seconds) {
+        if (!(seconds > 0)) throw new IllegalArgumentException("Shift length must be positive");
+        this.shiftMinutes = seconds / 60.0;
+        return this;
+    }
+
+    /**
+     * Distribution of goals against over the simulated trials.
+     */
+    public static final class Result {
+        private final long[] goalCounts;
+        private final long trials;
+        private final double minutesPerTrial;
+
+        Result(long[] goalCounts, long trials, double minutesPerTrial) {
+            this.goalCounts = goalCounts;
+            this.trials = trials;
+            this.minutesPerTrial = minutesPerTrial;
+        }
+
+        /** @return The number of trials. */
+        public long getTrials() { return trials; }
+
+        /** @return The minutes played against the target in one trial. */
+        public double getMinutesPerTrial() { return minutesPerTrial; }
+
+        /**
+         * Gets how many trials ended with each number of goals against.
+         *
+         * @return Trial counts indexed by goals; the last bucket also counts every higher total.
+         */
+        public long[] getGoalCounts() {
+            return goalCounts.clone();
+        }
+
+        /**
+         * Gets the mean goals against per 60 minutes.
+         *
+         * @return The mean over all trials.
+         */
+        public double getMeanGoalsAgainstPer60() {
+            double goals = 0;
+            for (int g = 0; g < goalCounts.length; g++) goals += g * (double) goalCounts[g];
+            return trials == 0 ? 0 : per60(goals / trials);
+        }
+
+        /**
+         * Gets the standard deviation of goals against per 60 minutes across trials.
+         *
+         * @return The standard deviation.
+         */
+        public double getStdDevGoalsAgainstPer60() {
+            if (trials == 0) return 0;
+            double mean = getMeanGoalsAgainstPer60();
+            double squares = 0;
+            for (int g = 0; g < goalCounts.length; g++) {
+                double delta = per60(g) - mean;
+                squares += delta * delta * goalCounts[g];
+            }
+            return Math.sqrt(squares / trials);
+        }
+
+        /**
+         * Gets the goals against per 60 minutes below which a given percentage of trials fall.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The goals against per 60 of the trial at that percentile.
+         */
+        public double getGoalsAgainstPer60AtPercentile(double percentile) {
+            if (trials == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * trials));
+            long seen = 0;
+            for (int g = 0; g < goalCounts.length; g++) {
+                seen += goalCounts[g];
+                if (seen >= rank) return per60(g);
+            }
+            return per60(goalCounts.length - 1);
+        }
+
+        /**
+         * Gets the share of trials in which the unit gave up no goals.
+         *
+         * @return The probability of a shutout, from 0 to 1.
+         */
+        public double getShutoutProbability() {
+            return trials == 0 ? 0 : goalCounts[0] / (double) trials;
+        }
+
+        private double per60(double goals) {
+            return goals * 60.0 / minutesPerTrial;
+        }
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param trials The number of trials.
+     * @param seed   The random seed; the same seed gives the same result.
+     * @return The distribution of goals against.
+     */
+    public Result simulate(long trials, long seed) {
+        if (trials < 0) throw new IllegalArgumentException("Trial count must not be negative");
+        long start = System.nanoTime();
+
+        int chunks = (int) ((trials + CHUNK_TRIALS - 1) / CHUNK_TRIALS);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) randoms[c] = root.split();
+        long[][] histograms = new long[chunks][MAX_GOALS + 1];
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            long chunkTrials = Math.min(CHUNK_TRIALS, trials - (long) c * CHUNK_TRIALS);
+            runChunk(randoms[c], chunkTrials, histograms[c]);
+        });
+
+        long[] goalCounts = new long[MAX_GOALS + 1];
+        for (long[] histogram : histograms) {
+            for (int g = 0; g < goalCounts.length; g++) goalCounts[g] += histogram[g];
+        }
+        SIMULATE_TIME.recordSince(start);
+        return new Result(goalCounts, trials, shifts * shiftMinutes);
+    }
+
+    private void runChunk(SplittableRandom random, long trials, long[] histogram) {
+        double opponentRate = goalRate + winBackRate;
+        for (long t = 0; t < trials; t++) {
+            int goals = 0;
+            for (int s = 0; s < shifts; s++) {
+                boolean opponentHasPuck = random.nextBoolean(); // Faceoff
+                double clock = 0;
+                while (true) {
+                    if (opponentHasPuck) {
+                        clock += exponential(random, opponentRate);
+                        if (clock >= shiftMinutes) break;
+                        if (random.nextDouble() * opponentRate < goalRate) {
+                            goals++;
+                            opponentHasPuck = random.nextBoolean();
+                        } else {
+                            opponentHasPuck = false;
+                        }
+                    } else {
+                        clock += exponential(random, loseRate);
+                        if (clock >= shiftMinutes) break;
+                        opponentHasPuck = true;
+                    }
+                }
+            }
+            histogram[Math.min(goals, MAX_GOALS)]++;
+        }
+    }
+
+    private static double exponential(SplittableRandom random, double rate) {
+        // 1 - u is in (0, 1], so the log is finite; Math.log is an intrinsic where log1p is not
+        return -Math.log(1.0 - random.nextDouble()) / rate;
+    }
+
+    /**
+     * Simulates several units against the same target with the same seed, so their
+     * differences are not blurred by different random draws, and orders them best first.
+     *
+     * @param units  The candidate units.
+     * @param target The opposing player (can be null).
+     * @param trials The number of trials per unit.
+     * @param seed   The random seed.
+     * @return Indices into {@code units}, lowest mean goals against first.
+     */
+    public static int[] rankUnits(List<List<Player>> units, Player target, long trials, long seed) {
+        double[] negatedMeans = new double[units.size()];
+        for (int i = 0; i < negatedMeans.length; i++) {
+            negatedMeans[i] = -new MatchupSimulator(units.get(i), target).simulate(trials, seed).getMeanGoalsAgainstPer60();
+        }
+        return ScoringEngine.rankDescending(negatedMeans);
+    }
+}
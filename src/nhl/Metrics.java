@@ -0,0 +1,244 @@
+package nhl;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of counters and latency timers for the load, scoring, lineup and
+ * heatmap paths.
+ *
+ * Instrumented classes look their metrics up once into static fields, so recording costs
+ * one {@link LongAdder} add or one {@link LatencyHistogram} record and never takes a lock.
+ * Every metric is registered as an MXBean under {@code nhl:type=Counter|Timer,name=...},
+ * so it can be watched with JConsole or any JMX client, and {@link #dump()} formats all of
+ * them as text, which {@link #startPeriodicDump(long, PrintStream)} writes on a schedule.
+ */
+public final class Metrics {
+
+    /** JMX domain every metric is registered under. */
+    public static final String JMX_DOMAIN = "nhl";
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+    private static ScheduledExecutorService dumper;
+    private static ScheduledFuture<?> dumpTask;
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets a counter, creating and registering it on first use.
+     *
+     * @param name        The metric name, e.g. {@code load.rows.read}.
+     * @param description What the counter counts.
+     * @return The counter with that name.
+     */
+    public static Counter counter(String name, String description) {
+        return COUNTERS.computeIfAbsent(name, n -> register("Counter", n, new Counter(n, description)));
+    }
+
+    /**
+     * Gets a timer, creating and registering it on first use.
+     *
+     * @param name        The metric name, e.g. {@code load.parse}.
+     * @param description What the timer measures.
+     * @return The timer with that name.
+     */
+    public static Timer timer(String name, String description) {
+        return TIMERS.computeIfAbsent(name, n -> register("Timer", n, new Timer(n, description)));
+    }
+
+    /**
+     * Formats every metric as one line of text, counters first, each group sorted by name.
+     *
+     * @return The dump; empty if no metric has been created.
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder(1024);
+        for (Counter counter : COUNTERS.values()) {
+            sb.append(String.format(Locale.ROOT, "%-28s %d%n", counter.getName(), counter.getCount()));
+        }
+        for (Timer timer : TIMERS.values()) {
+            sb.append(String.format(Locale.ROOT,
+                    "%-28s count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms%n",
+                    timer.getName(), timer.getCount(), timer.getMeanMillis(), timer.getP50Millis(),
+                    timer.getP90Millis(), timer.getP99Millis(), timer.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Starts writing {@link #dump()} to a stream at a fixed interval on a daemon thread,
+     * replacing any dump already scheduled.
+     *
+     * @param periodSeconds The interval between dumps, in seconds.
+     * @param out           Where the dumps are written.
+     */
+    public static synchronized void startPeriodicDump(long periodSeconds, PrintStream out) {
+        if (periodSeconds < 1) throw new IllegalArgumentException("Dump interval must be at least 1 second");
+        stopPeriodicDump();
+        if (dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        dumpTask = dumper.scheduleAtFixedRate(() -> out.print("--- metrics ---\n" + dump()),
+                periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, if one is running.
+     */
+    public static synchronized void stopPeriodicDump() {
+        if (dumpTask != null) {
+            dumpTask.cancel(false);
+            dumpTask = null;
+        }
+    }
+
+    /**
+     * Registers a metric with the platform MBean server. A metric that cannot be registered
+     * still counts; it is only missing from JMX.
+     */
+    private static <T> T register(String type, String name, T metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(type, name);
+            if (!server.isRegistered(objectName)) server.registerMBean(metric, objectName);
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Could not register metric " + name + " with JMX: " + e.getMessage());
+        }
+        return metric;
+    }
+
+    /**
+     * Gets the JMX name a metric is registered under.
+     *
+     * @param type Either {@code Counter} or {@code Timer}.
+     * @param name The metric name.
+     * @return The object name.
+     * @throws JMException If the name is not a valid object name.
+     */
+    static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * JMX view of a {@link Counter}.
+     */
+    public interface CounterMXBean {
+        String getName();
+        String getDescription();
+        long getCount();
+    }
+
+    /**
+     * JMX view of a {@link Timer}; times are in milliseconds.
+     */
+    public interface TimerMXBean {
+        String getName();
+        String getDescription();
+        long getCount();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP90Millis();
+        double getP99Millis();
+        double getMaxMillis();
+    }
+
+    /**
+     * A monotonically increasing count.
+     */
+    public static final class Counter implements CounterMXBean {
+        private final String name;
+        private final String description;
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        /** Adds one. */
+        public void increment() {
+            count.increment();
+        }
+
+        /**
+         * Adds to the count.
+         *
+         * @param n The amount to add.
+         */
+        public void add(long n) {
+            count.add(n);
+        }
+
+        @Override public String getName() { return name; }
+        @Override public String getDescription() { return description; }
+        @Override public long getCount() { return count.sum(); }
+    }
+
+    /**
+     * A latency distribution, recorded in nanoseconds.
+     */
+    public static final class Timer implements TimerMXBean {
+        private final String name;
+        private final String description;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Timer(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        /**
+         * Records the time elapsed since a start time.
+         *
+         * @param startNanos A value of {@link System#nanoTime()} taken when the work began.
+         */
+        public void recordSince(long startNanos) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Records one duration.
+         *
+         * @param nanos The duration in nanoseconds.
+         */
+        public void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        /**
+         * Gets the underlying histogram.
+         *
+         * @return The histogram of recorded nanoseconds.
+         */
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        @Override public String getName() { return name; }
+        @Override public String getDescription() { return description; }
+        @Override public long getCount() { return histogram.getCount(); }
+        @Override public double getMeanMillis() { return histogram.getMean() / 1e6; }
+        @Override public double getP50Millis() { return histogram.valueAtPercentile(50) / 1e6; }
+        @Override public double getP90Millis() { return histogram.valueAtPercentile(90) / 1e6; }
+        @Override public double getP99Millis() { return histogram.valueAtPercentile(99) / 1e6; }
+        @Override public double getMaxMillis() { return histogram.getMax() / 1e6; }
+    }
+}
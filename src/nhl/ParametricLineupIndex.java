@@ -0,0 +1,228 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Precomputed lineups for one team over every possible threat boost.
+ *
+ * The target player only affects a lineup through {@link ScoringEngine#threatBoost(Player)},
+ * and every candidate's composite is linear in that boost. The best unit can therefore only
+ * change where two players competing for the same slot swap places, i.e. where their score
+ * lines cross. The index finds those crossings on [0, 1], solves each interval between them
+ * once, and answers a query with a binary search over the crossings.
+ */
+public class ParametricLineupIndex {
+
+    /** Queries this close to a crossing are solved directly, where floating point could order the tie either way. */
+    private static final double BREAKPOINT_EPSILON = 1e-9;
+
+    private final Team team;
+    private final ScoringWeights weights;
+    private final List<Player> candidates;
+    /** The candidates' rows in the team's table, or null if the team is not table-backed. */
+    private final int[] candidateRows;
+
+    /** Boosts in (0, 1) where the optimal unit changes, ascending. */
+    private final double[] breakpoints;
+
+    /** Candidate indices of the optimal unit for each interval; interval k ends at {@code breakpoints[k]}. */
+    private final int[][] units;
+
+    private ParametricLineupIndex(Team team, ScoringWeights weights) {
+        this.team = team;
+        this.weights = weights;
+        this.candidates = LineupGenerator.eligibleCandidates(team);
+        if (team.getTable() != null) {
+            candidateRows = new int[candidates.size()];
+            for (int i = 0; i < candidateRows.length; i++) candidateRows[i] = candidates.get(i).getRow();
+        } else {
+            candidateRows = null;
+        }
+
+        double[] crossings = crossings();
+        List<Double> kept = new ArrayList<>();
+        List<int[]> solved = new ArrayList<>();
+        for (int k = 0; k <= crossings.length; k++) {
+            double lo = k == 0 ? 0.0 : crossings[k - 1];
+            double hi = k == crossings.length ? 1.0 : crossings[k];
+            int[] unit = solve((lo + hi) / 2);
+            // Adjacent intervals with the same unit are merged; the crossing between them did not matter
+            if (!solved.isEmpty() && Arrays.equals(solved.get(solved.size() - 1), unit)) continue;
+            if (!solved.isEmpty()) kept.add(lo);
+            solved.add(unit);
+        }
+        this.breakpoints = kept.stream().mapToDouble(Double::doubleValue).toArray();
+        this.units = solved.toArray(new int[0][]);
+    }
+
+    /**
+     * Builds the index for a team with the current {@link ScoringEngine#getWeightProfile() weight profile}.
+     *
+     * @param team The defending team.
+     * @return The index.
+     */
+    public static ParametricLineupIndex build(Team team) {
+        return build(team, ScoringEngine.getWeightProfile());
+    }
+
+    /**
+     * Builds the index for a team with an explicit defensive/offensive split; every other
+     * coefficient comes from the current {@link ScoringEngine#getWeightProfile() weight profile}.
+     *
+     * @param team      The defending team.
+     * @param defWeight The weighting for defensive score in the composite.
+     * @param offWeight The weighting for offensive score in the composite.
+     * @return The index.
+     */
+    public static ParametricLineupIndex build(Team team, double defWeight, double offWeight) {
+        return build(team, ScoringEngine.getWeightProfile()
+                .with(ScoringWeights.Term.DEF_WEIGHT, defWeight)
+                .with(ScoringWeights.Term.OFF_WEIGHT, offWeight));
+    }
+
+    /**
+     * Builds the index for a team with explicit weights. The index keeps these weights even
+     * if the weight profile changes later.
+     *
+     * @param team    The defending team.
+     * @param weights Every coefficient of the composite score.
+     * @return The index.
+     */
+    public static ParametricLineupIndex build(Team team, ScoringWeights weights) {
+        return new ParametricLineupIndex(team, Objects.requireNonNull(weights));
+    }
+
+    /**
+     * Builds an index for every team with the current {@link ScoringEngine#getWeightProfile() weight profile}.
+     *
+     * @param teams The teams.
+     * @return The indexes keyed by team name, in team order.
+     */
+    public static Map<String, ParametricLineupIndex> buildAll(List<Team> teams) {
+        Map<String, ParametricLineupIndex> indexes = new LinkedHashMap<>();
+        for (Team team : teams) {
+            indexes.put(team.getName(), build(team));
+        }
+        return indexes;
+    }
+
+    /**
+     * Gets the optimal lineup against a target player.
+     *
+     * @param target The opposing player (can be null).
+     * @return The same lineup {@link LineupGenerator#getBestDefensiveLineup} would return.
+     */
+    public List<Player> lineupFor(Player target) {
+        return lineupFor(ScoringEngine.threatBoost(target));
+    }
+
+    /**
+     * Gets the optimal lineup for a threat boost.
+     *
+     * @param threatBoost The boost, normally between 0 and 1.
+     * @return The lineup, best individual score first.
+     */
+    public List<Player> lineupFor(double threatBoost) {
+        long start = System.nanoTime();
+        List<Player> lineup;
+        if (threatBoost < 0.0 || threatBoost > 1.0 || nearBreakpoint(threatBoost)) {
+            lineup = toLineup(solve(threatBoost), threatBoost);
+        } else {
+            int k = Arrays.binarySearch(breakpoints, threatBoost);
+            int interval = k >= 0 ? k + 1 : -k - 1;
+            lineup = toLineup(units[interval], threatBoost);
+        }
+        LineupGenerator.QUERY_TIME.recordSince(start);
+        return lineup;
+    }
+
+    /**
+     * Gets the boosts at which this team's optimal unit changes.
+     *
+     * @return A copy of the ascending breakpoints inside (0, 1).
+     */
+    public double[] getBreakpoints() {
+        return breakpoints.clone();
+    }
+
+    /**
+     * Gets the team this index was built for.
+     *
+     * @return The team.
+     */
+    public Team getTeam() {
+        return team;
+    }
+
+    /**
+     * Gets the weights this index was built with.
+     *
+     * @return The weights.
+     */
+    public ScoringWeights getWeights() {
+        return weights;
+    }
+
+    /** Every boost in (0, 1) where two same-position candidates' score lines cross. */
+    private double[] crossings() {
+        ScoringEngine base = new ScoringEngine(weights, 0.0);
+        double[] intercepts = candidateRows != null ? base.scoreAll(team.getTable(), candidateRows) : base.scoreAll(candidates);
+        double[] slopes = candidateRows != null ? base.threatSlopes(team.getTable(), candidateRows) : base.threatSlopes(candidates);
+
+        Map<String, List<Integer>> byPosition = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            String pos = candidates.get(i).getPosition().toUpperCase().trim();
+            byPosition.computeIfAbsent(pos, k -> new ArrayList<>()).add(i);
+        }
+
+        TreeSet<Double> points = new TreeSet<>();
+        for (List<Integer> group : byPosition.values()) {
+            for (int x = 0; x < group.size(); x++) {
+                for (int y = x + 1; y < group.size(); y++) {
+                    int i = group.get(x);
+                    int j = group.get(y);
+                    if (slopes[i] == slopes[j]) continue;
+                    double t = (intercepts[j] - intercepts[i]) / (slopes[i] - slopes[j]);
+                    if (t > 0.0 && t < 1.0) points.add(t);
+                }
+            }
+        }
+        return points.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private boolean nearBreakpoint(double threatBoost) {
+        int k = Arrays.binarySearch(breakpoints, threatBoost);
+        if (k >= 0) return true;
+        int next = -k - 1;
+        return (next < breakpoints.length && breakpoints[next] - threatBoost < BREAKPOINT_EPSILON)
+            || (next > 0 && threatBoost - breakpoints[next - 1] < BREAKPOINT_EPSILON);
+    }
+
+    /** Candidate indices of the optimal unit at one boost, ascending. */
+    private int[] solve(double threatBoost) {
+        List<Player> unit = new LineupOptimizer(new ScoringEngine(weights, threatBoost))
+                .optimize(candidates).getPlayers();
+        Map<Player, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) positions.put(candidates.get(i), i);
+        return unit.stream().mapToInt(positions::get).sorted().toArray();
+    }
+
+    /** Orders a unit the way the optimizer does: score at this boost, then roster order. */
+    private List<Player> toLineup(int[] unit, double threatBoost) {
+        ScoringEngine engine = new ScoringEngine(weights, threatBoost);
+        List<Player> players = new ArrayList<>(unit.length);
+        for (int i : unit) players.add(candidates.get(i));
+        double[] scores;
+        if (candidateRows != null) {
+            int[] rows = new int[unit.length];
+            for (int k = 0; k < unit.length; k++) rows[k] = candidateRows[unit[k]];
+            scores = engine.scoreAll(team.getTable(), rows);
+        } else {
+            scores = engine.scoreAll(players);
+        }
+
+        List<Player> lineup = new ArrayList<>(unit.length);
+        for (int k : ScoringEngine.rankDescending(scores)) lineup.add(players.get(k));
+        return lineup;
+    }
+}
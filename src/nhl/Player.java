@@ -1,34 +1,19 @@
 package nhl;
 
+/**
+ * A view of one skater row in a {@link SkaterTable}. The stats themselves live in the
+ * table's columns; a {@code Player} only holds the table and its ordinal.
+ */
 public class Player {
-    private String name;
-    private String position; // F, D, G
-    private double expectedGoalsAgainst;      // Individual expected goals against (if needed)
-    private double onIceExpectedGoalsAgainstPer60; // NEW: On-ice xGA per 60 minutes
+    private final SkaterTable table;
+    private final int row;
 
-    private int hits;
-    private int takeaways;
-    private int goals;
-    private int points;
-    private int blockedShots;
-    private int shotAttemptsAgainst;
-    private int dZoneStarts;
-    private int giveaways;
-    private int oZoneStarts;
-    private int nZoneStarts;
-    private double iceTime; // in minutes
-    private int shifts;
-    private int timeOnBench; // in seconds
-    private int penalties;
-    private int penaltyMinutes;
-    private double highDangerxGoals;
-    private int reboundGoals;
-    private int gamesPlayed;
-
-    // ✅ New field
-    private double takeawayEfficiencyScore;
-
-    // Constructor - updated to include onIceExpectedGoalsAgainstPer60
+    /**
+     * Creates a standalone player, e.g. for tests or code written before {@link SkaterTable}.
+     * Each such player gets a one-row table of its own, which makes it heavier than a plain
+     * object with these fields; loaded players should come from a shared table through
+     * {@link SkaterTable#getPlayer(int)} or {@link Team#getRoster()} instead.
+     */
     public Player(String name, String position, double expectedGoalsAgainst,
                   double onIceExpectedGoalsAgainstPer60,
                   int hits, int takeaways, int goals, int points,
@@ -37,55 +22,69 @@ public class Player {
                   double iceTime, int shifts, int timeOnBench,
                   int penalties, int penaltyMinutes,
                   double highDangerxGoals, int reboundGoals, int gamesPlayed) {
-        this.name = name;
-        this.position = position;
-        this.expectedGoalsAgainst = expectedGoalsAgainst;
-        this.onIceExpectedGoalsAgainstPer60 = onIceExpectedGoalsAgainstPer60;
-        this.hits = hits;
-        this.takeaways = takeaways;
-        this.goals = goals;
-        this.points = points;
-        this.blockedShots = blockedShots;
-        this.shotAttemptsAgainst = shotAttemptsAgainst;
-        this.dZoneStarts = dZoneStarts;
-        this.giveaways = giveaways;
-        this.oZoneStarts = oZoneStarts;
-        this.nZoneStarts = nZoneStarts;
-        this.iceTime = iceTime;
-        this.shifts = shifts;
-        this.timeOnBench = timeOnBench;
-        this.penalties = penalties;
-        this.penaltyMinutes = penaltyMinutes;
-        this.highDangerxGoals = highDangerxGoals;
-        this.reboundGoals = reboundGoals;
-        this.gamesPlayed = gamesPlayed;
+        this.table = new SkaterTable(1);
+        this.row = table.addRow(null, name, position, expectedGoalsAgainst, onIceExpectedGoalsAgainstPer60,
+                hits, takeaways, goals, points, blockedShots, shotAttemptsAgainst, dZoneStarts,
+                giveaways, oZoneStarts, nZoneStarts, iceTime, shifts, timeOnBench,
+                penalties, penaltyMinutes, highDangerxGoals, reboundGoals, gamesPlayed);
     }
 
+    /**
+     * Creates a view over an existing table row.
+     *
+     * @param table The table holding the player's stats.
+     * @param row   The player's ordinal in the table.
+     */
+    Player(SkaterTable table, int row) {
+        this.table = table;
+        this.row = row;
+    }
+
+    /** @return The table this player reads from. */
+    public SkaterTable getTable() { return table; }
+
+    /** @return The player's ordinal in {@link #getTable()}. */
+    public int getRow() { return row; }
+
     // Getters
-    public String getName() { return name; }
-    public String getPosition() { return position; }
-    public double getExpectedGoalsAgainst() { return expectedGoalsAgainst; }
-    public double getOnIceExpectedGoalsAgainstPer60() { return onIceExpectedGoalsAgainstPer60; }
-    public int getHits() { return hits; }
-    public int getTakeaways() { return takeaways; }
-    public int getGoals() { return goals; }
-    public int getPoints() { return points; }
-    public int getBlockedShots() { return blockedShots; }
-    public int getShotAttemptsAgainst() { return shotAttemptsAgainst; }
-    public int getDZoneStarts() { return dZoneStarts; }
-    public int getGiveaways() { return giveaways; }
-    public int getOZoneStarts() { return oZoneStarts; }
-    public int getNZoneStarts() { return nZoneStarts; }
-    public double getIceTime() { return iceTime; }
-    public int getShifts() { return shifts; }
-    public int getTimeOnBench() { return timeOnBench; }
-    public int getPenalties() { return penalties; }
-    public int getPenaltyMinutes() { return penaltyMinutes; }
-    public double getHighDangerxGoals() { return highDangerxGoals; }
-    public int getReboundGoals() { return reboundGoals; }
-    public int getGamesPlayed() { return gamesPlayed; }
+    public int getPlayerId() { return table.playerIds[row]; } // 0 when unknown
+    public String getName() { return table.names[row]; }
+    public String getPosition() { return table.positions[row]; } // F, D, G
+    public double getExpectedGoalsAgainst() { return table.expectedGoalsAgainst[row]; }
+    public double getOnIceExpectedGoalsAgainstPer60() { return table.onIceExpectedGoalsAgainstPer60[row]; }
+    public int getHits() { return table.hits[row]; }
+    public int getTakeaways() { return table.takeaways[row]; }
+    public int getGoals() { return table.goals[row]; }
+    public int getPoints() { return table.points[row]; }
+    public int getBlockedShots() { return table.blockedShots[row]; }
+    public int getShotAttemptsAgainst() { return table.shotAttemptsAgainst[row]; }
+    public int getDZoneStarts() { return table.dZoneStarts[row]; }
+    public int getGiveaways() { return table.giveaways[row]; }
+    public int getOZoneStarts() { return table.oZoneStarts[row]; }
+    public int getNZoneStarts() { return table.nZoneStarts[row]; }
+    public double getIceTime() { return table.iceTime[row]; } // in minutes
+    public int getShifts() { return table.shifts[row]; }
+    public int getTimeOnBench() { return table.timeOnBench[row]; } // in seconds
+    public int getPenalties() { return table.penalties[row]; }
+    public int getPenaltyMinutes() { return table.penaltyMinutes[row]; }
+    public double getHighDangerxGoals() { return table.highDangerxGoals[row]; }
+    public int getReboundGoals() { return table.reboundGoals[row]; }
+    public int getGamesPlayed() { return table.gamesPlayed[row]; }
 
     // ✅ Takeaway efficiency score
-    public double getTakeawayEfficiencyScore() { return takeawayEfficiencyScore; }
-    public void setTakeawayEfficiencyScore(double score) { this.takeawayEfficiencyScore = score; }
-}
\ No newline at end of file
+    public double getTakeawayEfficiencyScore() { return table.takeawayEfficiencyScore[row]; }
+    public void setTakeawayEfficiencyScore(double score) { table.takeawayEfficiencyScore[row] = score; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Player)) return false;
+        Player other = (Player) o;
+        return table == other.table && row == other.row;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(table) + row;
+    }
+}
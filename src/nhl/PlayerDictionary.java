@@ -0,0 +1,98 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Assigns every (team, player) pair a dense ordinal and holds its identity columns once,
+ * so that tables for several game situations can refer to the same player without each
+ * keeping its own copy of the name, team and position strings.
+ */
+public class PlayerDictionary {
+
+    private int size;
+    private int[] playerIds = new int[64];
+    private String[] names = new String[64];
+    private String[] positions = new String[64];
+    private String[] teams = new String[64];
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final Set<String> teamCodes = new LinkedHashSet<>();
+
+    /**
+     * Gets the ordinal of a player, adding the player if it is new. The first call for a
+     * (team, name) pair fixes its id and position.
+     *
+     * @param playerId The MoneyPuck player id, or 0 if unknown.
+     * @param team     The team code.
+     * @param name     The player's name.
+     * @param position The player's position.
+     * @return The player's ordinal.
+     */
+    public int intern(int playerId, String team, String name, String position) {
+        Integer existing = ordinals.get(key(team, name));
+        if (existing != null) return existing;
+
+        if (size == names.length) {
+            int capacity = size * 2;
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            teams = Arrays.copyOf(teams, capacity);
+        }
+        int ordinal = size++;
+        playerIds[ordinal] = playerId;
+        names[ordinal] = name;
+        positions[ordinal] = position;
+        teams[ordinal] = team;
+        ordinals.put(key(team, name), ordinal);
+        teamCodes.add(team);
+        return ordinal;
+    }
+
+    /**
+     * Gets the ordinal of a player.
+     *
+     * @param team The team code.
+     * @param name The player's name, exactly as loaded.
+     * @return The ordinal, or -1 if the player is unknown.
+     */
+    public int ordinalOf(String team, String name) {
+        Integer ordinal = ordinals.get(key(team, name));
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Gets the number of players in the dictionary.
+     *
+     * @return The player count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of distinct teams in the dictionary.
+     *
+     * @return The team count.
+     */
+    public int teamCount() {
+        return teamCodes.size();
+    }
+
+    // Ordinal accessors
+    public int getPlayerId(int ordinal) { return playerIds[checkOrdinal(ordinal)]; }
+    public String getName(int ordinal) { return names[checkOrdinal(ordinal)]; }
+    public String getPosition(int ordinal) { return positions[checkOrdinal(ordinal)]; }
+    public String getTeam(int ordinal) { return teams[checkOrdinal(ordinal)]; }
+
+    private int checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of range for dictionary of size " + size);
+        }
+        return ordinal;
+    }
+
+    private static String key(String team, String name) {
+        return team + "-" + name;
+    }
+}
@@ -0,0 +1,153 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Immutable lookup index over a league's teams, built once after loading so that name,
+ * id and team lookups are hash probes instead of scans over every roster.
+ *
+ * A player traded mid-season appears once per team; every lookup that can match more
+ * than one entry returns them in team order, so the first entry is the one the old
+ * linear scans would have found.
+ */
+public class PlayerIndex {
+
+    private final List<Team> teams;
+    private final Map<String, Team> teamsByCode;
+    private final Map<String, List<Entry>> entriesByName;
+    private final Map<Integer, List<Entry>> entriesById;
+
+    /**
+     * A player together with the team whose roster it appears on.
+     */
+    public static final class Entry {
+        private final Player player;
+        private final Team team;
+
+        Entry(Player player, Team team) {
+            this.player = player;
+            this.team = team;
+        }
+
+        /** @return The player. */
+        public Player getPlayer() { return player; }
+
+        /** @return The team the player appears on. */
+        public Team getTeam() { return team; }
+    }
+
+    private PlayerIndex(List<Team> teams) {
+        this.teams = Collections.unmodifiableList(new ArrayList<>(teams));
+        Map<String, Team> byCode = new HashMap<>();
+        Map<String, List<Entry>> byName = new HashMap<>();
+        Map<Integer, List<Entry>> byId = new HashMap<>();
+
+        for (Team team : teams) {
+            if (team.getName() != null) {
+                byCode.putIfAbsent(fold(team.getName()), team);
+            }
+            if (team.getRoster() == null) continue;
+            for (Player player : team.getRoster()) {
+                if (player.getName() == null) continue;
+                Entry entry = new Entry(player, team);
+                byName.computeIfAbsent(fold(player.getName()), k -> new ArrayList<>(1)).add(entry);
+                if (player.getPlayerId() > 0) {
+                    byId.computeIfAbsent(player.getPlayerId(), k -> new ArrayList<>(1)).add(entry);
+                }
+            }
+        }
+
+        byName.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        byId.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        this.teamsByCode = byCode;
+        this.entriesByName = byName;
+        this.entriesById = byId;
+    }
+
+    /**
+     * Builds an index over the given teams.
+     *
+     * @param teams The list of all teams; the index keeps its own copy of the list.
+     * @return The index.
+     */
+    public static PlayerIndex build(List<Team> teams) {
+        return new PlayerIndex(teams);
+    }
+
+    /**
+     * Finds the first player with the given name, ignoring case.
+     *
+     * @param name The player's name.
+     * @return The matching {@link Player}, or null if not found.
+     */
+    public Player findByName(String name) {
+        List<Entry> entries = findEntriesByName(name);
+        return entries.isEmpty() ? null : entries.get(0).getPlayer();
+    }
+
+    /**
+     * Finds every roster entry for a player name, ignoring case.
+     *
+     * @param name The player's name.
+     * @return The matching entries in team order; empty if none.
+     */
+    public List<Entry> findEntriesByName(String name) {
+        if (name == null) return Collections.emptyList();
+        return entriesByName.getOrDefault(fold(name), Collections.emptyList());
+    }
+
+    /**
+     * Finds every roster entry for a MoneyPuck player id.
+     *
+     * @param playerId The player id from CSV column 0.
+     * @return The matching entries in team order; empty if none.
+     */
+    public List<Entry> findEntriesById(int playerId) {
+        return entriesById.getOrDefault(playerId, Collections.emptyList());
+    }
+
+    /**
+     * Finds the first player with the given id.
+     *
+     * @param playerId The player id from CSV column 0.
+     * @return The matching {@link Player}, or null if not found.
+     */
+    public Player findById(int playerId) {
+        List<Entry> entries = findEntriesById(playerId);
+        return entries.isEmpty() ? null : entries.get(0).getPlayer();
+    }
+
+    /**
+     * Gets the name of the first team a player appears on.
+     *
+     * @param name The player's name.
+     * @return The team name, or "Unknown Team" if the player is not indexed.
+     */
+    public String getTeamNameForPlayer(String name) {
+        List<Entry> entries = findEntriesByName(name);
+        return entries.isEmpty() ? "Unknown Team" : entries.get(0).getTeam().getName();
+    }
+
+    /**
+     * Finds a team by its code, ignoring case.
+     *
+     * @param code The team code (e.g. "CGY").
+     * @return The team, or null if not found.
+     */
+    public Team getTeam(String code) {
+        return code == null ? null : teamsByCode.get(fold(code));
+    }
+
+    /**
+     * Gets every indexed team.
+     *
+     * @return An unmodifiable list of teams in their original order.
+     */
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    private static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+}
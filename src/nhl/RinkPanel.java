@@ -2,27 +2,100 @@ package nhl;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A custom JPanel that visualizes an NHL rink with a heatmap overlay representing
  * shot expected goals (xG) intensity.
+ *
+ * Shots can also arrive in batches while they are still being loaded (see
+ * {@link #addShots(List)}): they are accumulated into the rink-resolution cells, and at
+ * most every {@link #REFRESH_MILLIS} ms the panel repaints only the area the new shots
+ * touched, or everything if the colour scale changed.
+ *
+ * Painting only copies a cached frame to the screen. The frame is composed from the rink
+ * markings, drawn once per panel size, the heatmap, written straight into an ARGB raster
+ * from a 256-entry colour table and precomputed antialiased disc masks, and the legend.
+ * It is rebuilt when the grid or size changes, and only in the touched area while shots
+ * stream in.
  */
 public class RinkPanel extends JPanel {
 
-    /** List of shots to be displayed as a heatmap */
-    private List<ShotData> shots;
+    /** Shortest interval between repaints while shots are streaming in, in milliseconds. */
+    static final int REFRESH_MILLIS = 33;
+
+    /** Heatmap cell size in pixels */
+    private static final int CELL_SIZE = 10;
+
+    private static final Metrics.Timer RENDER_TIME =
+            Metrics.timer("heatmap.render", "Redrawing all or part of a heatmap frame");
+
+    /** Low- and high-intensity heat colours */
+    private static final Color LOW_HEAT = new Color(255, 255, 0, 40);   // Yellow
+    private static final Color HIGH_HEAT = new Color(255, 0, 0, 180);   // Red
+
+    /** Heat colour as non-premultiplied ARGB for each intensity step from 0 to 255 */
+    private static final int[] HEAT_COLORS = new int[256];
+
+    /** Coverage (0-255) of a disc of each radius, over a square of side 2 * radius + 2 */
+    private static final int[][] DISC_MASKS = new int[(int) (CELL_SIZE * 1.7) + 1][];
+
+    static {
+        for (int i = 0; i < HEAT_COLORS.length; i++) {
+            HEAT_COLORS[i] = interpolateColor(LOW_HEAT, HIGH_HEAT, i / 255f).getRGB();
+        }
+        for (int radius = 0; radius < DISC_MASKS.length; radius++) {
+            DISC_MASKS[radius] = discMask(radius);
+        }
+    }
+
+    /** Rink-resolution xG grid of the shots being displayed */
+    private HeatmapGrid grid;
 
     /** Maximum xG value found in current shots, used for color intensity scaling */
     private double maxXG = 0;
 
+    /** Rink-resolution xG sums while shots are added incrementally; null otherwise */
+    private double[] cells;
+    private int shotCount;
+
+    /** Grid resampled to panel cells, and the panel size it was resampled for */
+    private double[][] xgSum;
+    private int sampledWidth = -1;
+    private int sampledHeight = -1;
+
+    /** Rink cells touched since the last refresh, as {x0, y0, x1, y1} inclusive; null if none */
+    private int[] dirtyCells;
+    private final Timer refreshTimer;
+
+    /** Rink markings and heatmap raster at the current size, and the frame composed from them and the legend */
+    private BufferedImage rinkLayer;
+    private BufferedImage heatLayer;
+    private int[] heatPixels;
+    private BufferedImage frame;
+    private boolean heatStale = true;
+
     /**
      * Constructs a RinkPanel with an initial list of shots.
      *
      * @param shots List of shot data to visualize on the rink
      */
     public RinkPanel(List<ShotData> shots) {
-        this.shots = shots;
+        this(shots == null ? null : HeatmapGrid.fromShots(shots));
+    }
+
+    /**
+     * Constructs a RinkPanel showing a precomputed heatmap.
+     *
+     * @param grid The shooter's heatmap grid, or null for an empty rink
+     */
+    public RinkPanel(HeatmapGrid grid) {
+        this.grid = grid;
+        this.refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        this.refreshTimer.setRepeats(false);
         setPreferredSize(new Dimension(1000, 425)); // Set preferred size of the panel
         setBackground(Color.WHITE);                  // Background color of the rink
     }
@@ -33,10 +106,144 @@ public class RinkPanel extends JPanel {
      * @param shots New list of shots to display
      */
     public void setShots(List<ShotData> shots) {
-        this.shots = shots;
+        setGrid(shots == null ? null : HeatmapGrid.fromShots(shots));
+    }
+
+    /**
+     * Replaces the heatmap with a precomputed grid and repaints the component.
+     *
+     * @param grid New heatmap grid to display, or null to clear it
+     */
+    public void setGrid(HeatmapGrid grid) {
+        refreshTimer.stop();
+        this.grid = grid;
+        this.cells = null;
+        this.dirtyCells = null;
+        this.xgSum = null;
+        this.sampledWidth = -1;
         repaint();
     }
 
+    /**
+     * Adds a batch of shots to the heatmap currently shown. The repaint is deferred and
+     * coalesced with other batches arriving within {@link #REFRESH_MILLIS} ms.
+     * Must be called on the Event Dispatch Thread.
+     *
+     * @param batch The shots to add
+     */
+    public void addShots(List<ShotData> batch) {
+        if (cells == null) {
+            cells = new double[HeatmapGrid.WIDTH * HeatmapGrid.HEIGHT];
+            shotCount = 0;
+            if (grid != null) {
+                for (int y = 0; y < HeatmapGrid.HEIGHT; y++) {
+                    for (int x = 0; x < HeatmapGrid.WIDTH; x++) cells[y * HeatmapGrid.WIDTH + x] = grid.cell(x, y);
+                }
+                shotCount = grid.getShotCount();
+            }
+        }
+
+        for (ShotData shot : batch) {
+            int cell = HeatmapGrid.cellIndex(shot.getX(), shot.getY());
+            if (cell < 0) continue;
+            cells[cell] += shot.getXGoal();
+            shotCount++;
+            markDirty(cell % HeatmapGrid.WIDTH, cell / HeatmapGrid.WIDTH);
+        }
+        if (dirtyCells != null && !refreshTimer.isRunning()) refreshTimer.start();
+    }
+
+    /**
+     * Gets the heatmap as of the last refresh.
+     *
+     * @return The displayed grid, or null for an empty rink
+     */
+    public HeatmapGrid getGrid() {
+        return grid;
+    }
+
+    private void markDirty(int x, int y) {
+        if (dirtyCells == null) {
+            dirtyCells = new int[]{x, y, x, y};
+        } else {
+            dirtyCells[0] = Math.min(dirtyCells[0], x);
+            dirtyCells[1] = Math.min(dirtyCells[1], y);
+            dirtyCells[2] = Math.max(dirtyCells[2], x);
+            dirtyCells[3] = Math.max(dirtyCells[3], y);
+        }
+    }
+
+    /**
+     * Publishes the accumulated cells and repaints what changed: the dirty area if the colour
+     * scale held, otherwise the whole panel.
+     */
+    private void refresh() {
+        if (dirtyCells == null) return;
+        int[] dirty = dirtyCells;
+        dirtyCells = null;
+        grid = new HeatmapGrid(cells, shotCount);
+
+        double previousMax = maxXG;
+        boolean resized = getWidth() != sampledWidth || getHeight() != sampledHeight;
+        resample();
+        if (resized || maxXG != previousMax || heatPixels == null) {
+            heatStale = true;
+            repaint();
+            return;
+        }
+
+        // A shot lands within one cell of its scaled position, and its circle reaches 1.7 cells beyond that
+        double scaleX = getWidth() / (double) HeatmapGrid.WIDTH;
+        double scaleY = getHeight() / (double) HeatmapGrid.HEIGHT;
+        int margin = 3 * CELL_SIZE;
+        int x0 = (int) Math.floor(dirty[0] * scaleX) - margin;
+        int y0 = (int) Math.floor(dirty[1] * scaleY) - margin;
+        int x1 = (int) Math.ceil((dirty[2] + 1) * scaleX) + margin;
+        int y1 = (int) Math.ceil((dirty[3] + 1) * scaleY) + margin;
+        redraw(x0, y0, x1, y1);
+        repaint(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    /**
+     * Resamples the grid to the current panel size and updates the colour scale.
+     */
+    private void resample() {
+        sampledWidth = getWidth();
+        sampledHeight = getHeight();
+        maxXG = 0;
+        if (grid == null || grid.getShotCount() == 0) {
+            xgSum = null;
+            return;
+        }
+        xgSum = grid.resample(sampledWidth, sampledHeight, CELL_SIZE);
+        for (double[] column : xgSum) {
+            for (double total : column) {
+                if (total > maxXG) maxXG = total;
+            }
+        }
+    }
+
+    /**
+     * Renders a heatmap off-screen, without showing a window.
+     *
+     * @param grid   The heatmap grid, or null for an empty rink
+     * @param width  Image width in pixels
+     * @param height Image height in pixels
+     * @return The rendered rink and heatmap
+     */
+    public static BufferedImage render(HeatmapGrid grid, int width, int height) {
+        RinkPanel panel = new RinkPanel(grid);
+        panel.setSize(width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            panel.paint(g2);
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
     /**
      * Paints the rink, heatmap overlay, and legend.
      *
@@ -44,25 +251,103 @@ public class RinkPanel extends JPanel {
      */
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
+        // The frame is opaque and covers the whole panel, so there is no background to fill
+        if (!ensureLayers()) {
+            super.paintComponent(g);
+            return;
+        }
+        g.drawImage(frame, 0, 0, null);
+    }
 
-        drawRink(g2);       // Draw rink lines and shapes
-        drawHeatmap(g2);    // Overlay heatmap of shot xG
-        drawLegend(g2);     // Draw color legend for xG intensity
+    /**
+     * Brings the cached layers up to date with the panel size and grid.
+     *
+     * @return false if the panel has no area to paint
+     */
+    private boolean ensureLayers() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) return false;
+
+        if (rinkLayer == null || rinkLayer.getWidth() != width || rinkLayer.getHeight() != height) {
+            rinkLayer = createOpaqueImage(width, height);
+            frame = createOpaqueImage(width, height);
+            Graphics2D g2 = rinkLayer.createGraphics();
+            try {
+                g2.setColor(Color.WHITE);
+                g2.fillRect(0, 0, width, height);
+                drawRink(g2, width, height);
+            } finally {
+                g2.dispose();
+            }
+
+            heatLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            heatPixels = ((DataBufferInt) heatLayer.getRaster().getDataBuffer()).getData();
+            heatStale = true;
+        }
+
+        // Resample the rink-resolution grid to the panel's pixel cells when the grid or size changed
+        if (width != sampledWidth || height != sampledHeight) {
+            resample();
+            heatStale = true;
+        }
+        if (heatStale) {
+            redraw(0, 0, width, height);
+            heatStale = false;
+        }
+        return true;
+    }
+
+    /**
+     * Redraws a region of the heat layer and the frame.
+     */
+    private void redraw(int x0, int y0, int x1, int y1) {
+        long start = System.nanoTime();
+        renderHeat(x0, y0, x1, y1);
+        composeFrame(x0, y0, x1, y1);
+        RENDER_TIME.recordSince(start);
+    }
+
+    /**
+     * Creates an opaque image in the screen's pixel format, when the panel is on a screen.
+     */
+    private BufferedImage createOpaqueImage(int width, int height) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        return config != null
+                ? config.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Redraws a region of the frame: the rink, the heatmap over it, and the legend.
+     *
+     * @param x0 Left edge of the region, inclusive
+     * @param y0 Top edge of the region, inclusive
+     * @param x1 Right edge of the region, exclusive
+     * @param y1 Bottom edge of the region, exclusive
+     */
+    private void composeFrame(int x0, int y0, int x1, int y1) {
+        Graphics2D g2 = frame.createGraphics();
+        try {
+            g2.clipRect(x0, y0, x1 - x0, y1 - y0);
+            g2.drawImage(rinkLayer, 0, 0, null);                // Rink lines and shapes
+            if (maxXG > 0) g2.drawImage(heatLayer, 0, 0, null); // Heatmap of shot xG
+            drawLegend(g2);                                     // Color legend for xG intensity
+        } finally {
+            g2.dispose();
+        }
     }
 
     /**
      * Draws the NHL rink with all relevant lines, zones, and markings.
      *
-     * @param g2 Graphics2D context used for drawing
+     * @param g2     Graphics2D context used for drawing
+     * @param width  Width of the drawing area in pixels
+     * @param height Height of the drawing area in pixels
      */
-    private void drawRink(Graphics2D g2) {
+    private static void drawRink(Graphics2D g2, int width, int height) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        int width = getWidth();
-        int height = getHeight();
-
         // Scale factors to map rink coordinates to panel size
         double scaleX = width / 200.0;
         double scaleY = height / 85.0;
@@ -141,68 +426,130 @@ public class RinkPanel extends JPanel {
     }
 
     /**
-     * Draws the heatmap circles on the rink indicating shot intensity (xG) at locations.
+     * Redraws the heatmap circles that reach a region of the heat layer, indicating shot
+     * intensity (xG) at locations. Pixels outside the region are left as they are, and the
+     * circles are drawn in the same order as for the whole panel, so a partial redraw gives
+     * the same pixels as a full one.
      *
-     * @param g2 Graphics2D context used for drawing
+     * @param x0 Left edge of the region, inclusive
+     * @param y0 Top edge of the region, inclusive
+     * @param x1 Right edge of the region, exclusive
+     * @param y1 Bottom edge of the region, exclusive
      */
-    private void drawHeatmap(Graphics2D g2) {
-        if (shots == null || shots.isEmpty()) {
-            maxXG = 0;
-            return;
+    private void renderHeat(int x0, int y0, int x1, int y1) {
+        int width = heatLayer.getWidth();
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(width, x1);
+        y1 = Math.min(heatLayer.getHeight(), y1);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        int[] pixels = heatPixels;
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(pixels, y * width + x0, y * width + x1, 0);
         }
-
-        double scaleX = getWidth() / 200.0;
-        double scaleY = getHeight() / 85.0;
-
-        int cellSize = 10;
-        int gridWidth = getWidth() / cellSize;
-        int gridHeight = getHeight() / cellSize;
-
-        // Accumulate xG values in grid cells
-        double[][] xgSum = new double[gridWidth][gridHeight];
-        maxXG = 0;
-
-        for (ShotData shot : shots) {
-            // Normalize coordinates to rink reference frame
-            double normalizedX = shot.getX() + 100;
-            double normalizedY = 42.5 - shot.getY(); // flip Y coordinate for display
-
-            int pixelX = (int)(normalizedX * scaleX);
-            int pixelY = (int)(normalizedY * scaleY);
-            int cellX = pixelX / cellSize;
-            int cellY = pixelY / cellSize;
-
-            // Accumulate xG in cell if valid
-            if (cellX >= 0 && cellX < gridWidth && cellY >= 0 && cellY < gridHeight) {
-                xgSum[cellX][cellY] += shot.getXGoal();
-                if (xgSum[cellX][cellY] > maxXG) {
-                    maxXG = xgSum[cellX][cellY];
-                }
-            }
-        }
-
-        if (maxXG == 0) return; // nothing to draw
-
-        // Draw circles with intensity proportional to xG values
-        for (int i = 0; i < gridWidth; i++) {
-            for (int j = 0; j < gridHeight; j++) {
+        if (xgSum == null || maxXG == 0) return; // nothing to draw
+
+        int cellSize = CELL_SIZE;
+        int gridWidth = xgSum.length;
+        int gridHeight = gridWidth == 0 ? 0 : xgSum[0].length;
+
+        // Only cells whose circle can reach the region need drawing
+        int reach = 2 * cellSize;
+        int iFrom = Math.max(0, (x0 - reach) / cellSize);
+        int iTo = Math.min(gridWidth, (x1 + reach) / cellSize + 1);
+        int jFrom = Math.max(0, (y0 - reach) / cellSize);
+        int jTo = Math.min(gridHeight, (y1 + reach) / cellSize + 1);
+
+        // Blend circles with intensity proportional to xG values
+        for (int i = iFrom; i < iTo; i++) {
+            for (int j = jFrom; j < jTo; j++) {
                 double total = xgSum[i][j];
                 if (total > 0) {
                     float intensity = (float)(total / maxXG);
-                    Color heatColor = interpolateColor(
-                        new Color(255, 255, 0, 40),   // Yellow, low intensity
-                        new Color(255, 0, 0, 180),    // Red, high intensity
-                        intensity
-                    );
-
-                    g2.setColor(heatColor);
+                    int color = HEAT_COLORS[Math.min(255, (int)(intensity * 255))];
                     int cx = i * cellSize + cellSize / 2;
                     int cy = j * cellSize + cellSize / 2;
                     int radius = (int)(cellSize * (0.7 + intensity));
-                    g2.fillOval(cx - radius, cy - radius, radius * 2, radius * 2);
+                    blendDisc(pixels, width, x0, y0, x1, y1, cx, cy, radius, color);
+                }
+            }
+        }
+    }
+
+    /**
+     * Composites an antialiased disc of one colour over premultiplied ARGB pixels, within a region.
+     */
+    private static void blendDisc(int[] pixels, int width, int x0, int y0, int x1, int y1,
+                                  int cx, int cy, int radius, int color) {
+        int[] mask = DISC_MASKS[radius];
+        int side = 2 * radius + 2;
+        int left = cx - radius - 1;
+        int top = cy - radius - 1;
+        int mxFrom = Math.max(0, x0 - left), mxTo = Math.min(side, x1 - left);
+        int myFrom = Math.max(0, y0 - top), myTo = Math.min(side, y1 - top);
+
+        int alpha = color >>> 24;
+        int red = (color >> 16) & 0xFF;
+        int green = (color >> 8) & 0xFF;
+        int blue = color & 0xFF;
+        int solid = premultiply(alpha, red, green, blue, 255);
+        for (int my = myFrom; my < myTo; my++) {
+            int row = (top + my) * width + left;
+            for (int mx = mxFrom; mx < mxTo; mx++) {
+                int coverage = mask[my * side + mx];
+                if (coverage == 0) continue;
+                int src = coverage == 255 ? solid : premultiply(alpha, red, green, blue, coverage);
+                int dst = pixels[row + mx];
+                if (dst == 0) {
+                    pixels[row + mx] = src;
+                    continue;
                 }
+                int inverse = 255 - (src >>> 24);
+                int a = (src >>> 24) + mul255(dst >>> 24, inverse);
+                int r = ((src >> 16) & 0xFF) + mul255((dst >> 16) & 0xFF, inverse);
+                int g = ((src >> 8) & 0xFF) + mul255((dst >> 8) & 0xFF, inverse);
+                int b = (src & 0xFF) + mul255(dst & 0xFF, inverse);
+                pixels[row + mx] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    /**
+     * Converts a colour at partial coverage to premultiplied ARGB.
+     */
+    private static int premultiply(int alpha, int red, int green, int blue, int coverage) {
+        int a = mul255(alpha, coverage);
+        return (a << 24) | (mul255(red, a) << 16) | (mul255(green, a) << 8) | mul255(blue, a);
+    }
+
+    /**
+     * Multiplies two 0-255 values as fractions of 255, rounded, without a division.
+     */
+    private static int mul255(int x, int y) {
+        int t = x * y + 128;
+        return (t + (t >> 8)) >> 8;
+    }
+
+    /**
+     * Computes the coverage of a disc centred on a pixel corner, as drawn by
+     * {@code fillOval(cx - radius, cy - radius, 2 * radius, 2 * radius)}.
+     *
+     * @param radius Disc radius in pixels
+     * @return Coverage from 0 to 255 for each pixel of a square of side 2 * radius + 2
+     */
+    private static int[] discMask(int radius) {
+        int side = 2 * radius + 2;
+        int[] mask = new int[side * side];
+        for (int my = 0; my < side; my++) {
+            double dy = my - radius - 0.5;
+            for (int mx = 0; mx < side; mx++) {
+                double dx = mx - radius - 0.5;
+                double coverage = radius - Math.sqrt(dx * dx + dy * dy) + 0.5;
+                mask[my * side + mx] = (int) Math.round(Math.max(0, Math.min(1, coverage)) * 255);
             }
         }
+        return mask;
     }
 
     /**
@@ -220,8 +567,8 @@ public class RinkPanel extends JPanel {
 
         // Create a vertical gradient from red (high) to yellow (low)
         GradientPaint gp = new GradientPaint(
-            x, y, new Color(255, 0, 0, 180),         // Red = High intensity
-            x, y + legendHeight, new Color(255, 255, 0, 40) // Yellow = Low intensity
+            x, y, HIGH_HEAT,                  // Red = High intensity
+            x, y + legendHeight, LOW_HEAT     // Yellow = Low intensity
         );
         g2.setPaint(gp);
         g2.fillRect(x, y, legendWidth, legendHeight);
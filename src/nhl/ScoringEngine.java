@@ -0,0 +1,432 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Computes composite defensive scores for players against a target. A roster is scored in
+ * one pass into a {@code double[]} and ranked by that precomputed key, so sorting never
+ * recomputes a score. Nothing is printed; per-player components are available as a
+ * {@link Breakdown} when a caller asks for them.
+ */
+public class ScoringEngine {
+
+    /** Built-in weighting of the defensive score in the composite. */
+    public static final double DEFAULT_DEF_WEIGHT = ScoringWeights.Term.DEF_WEIGHT.getDefaultValue();
+
+    /** Built-in weighting of the offensive score in the composite. */
+    public static final double DEFAULT_OFF_WEIGHT = ScoringWeights.Term.OFF_WEIGHT.getDefaultValue();
+
+    /** Number of values {@link #features(Player, double[], int)} writes per player. */
+    static final int FEATURES = 8;
+
+    /** Weights used by {@link #forTarget(Player)} and for every coefficient not given explicitly. */
+    private static volatile ScoringWeights profile = ScoringWeights.DEFAULT;
+
+    private static final Metrics.Counter CALLS =
+            Metrics.counter("scoring.calls", "Calls that score one or more players");
+    private static final Metrics.Counter PLAYERS_SCORED =
+            Metrics.counter("scoring.players", "Players scored across all scoring calls");
+
+    private final ScoringWeights weights;
+    private final double defWeight;
+    private final double offWeight;
+    private final double threatBoost;
+    private final double xgaWeight;
+    private final double hitsWeight;
+    private final double blockedShotsWeight;
+    private final double possessionWeight;
+    private final double goalsWeight;
+    private final double pointsWeight;
+    private final double highDangerWeight;
+    private final double reboundGoalsWeight;
+    private final double matchupGain;
+
+    /**
+     * Creates an engine with an explicit defensive/offensive split and threat boost; every
+     * other coefficient comes from the current {@link #getWeightProfile() weight profile}.
+     *
+     * @param defWeight   The weighting for defensive score in the final composite.
+     * @param offWeight   The weighting for offensive score in the final composite.
+     * @param threatBoost A scaling factor representing the offensive threat of the target.
+     */
+    public ScoringEngine(double defWeight, double offWeight, double threatBoost) {
+        this(profile.with(ScoringWeights.Term.DEF_WEIGHT, defWeight)
+                .with(ScoringWeights.Term.OFF_WEIGHT, offWeight), threatBoost);
+    }
+
+    /**
+     * Creates an engine with explicit weights and threat boost.
+     *
+     * @param weights     Every coefficient of the composite score.
+     * @param threatBoost A scaling factor representing the offensive threat of the target.
+     */
+    public ScoringEngine(ScoringWeights weights, double threatBoost) {
+        this.weights = weights;
+        this.defWeight = weights.get(ScoringWeights.Term.DEF_WEIGHT);
+        this.offWeight = weights.get(ScoringWeights.Term.OFF_WEIGHT);
+        this.threatBoost = threatBoost;
+        this.xgaWeight = weights.get(ScoringWeights.Term.XGA_PER_60);
+        this.hitsWeight = weights.get(ScoringWeights.Term.HITS);
+        this.blockedShotsWeight = weights.get(ScoringWeights.Term.BLOCKED_SHOTS);
+        this.possessionWeight = weights.get(ScoringWeights.Term.POSSESSION);
+        this.goalsWeight = weights.get(ScoringWeights.Term.GOALS);
+        this.pointsWeight = weights.get(ScoringWeights.Term.POINTS);
+        this.highDangerWeight = weights.get(ScoringWeights.Term.HIGH_DANGER_XGOALS);
+        this.reboundGoalsWeight = weights.get(ScoringWeights.Term.REBOUND_GOALS);
+        this.matchupGain = weights.get(ScoringWeights.Term.MATCHUP_GAIN);
+    }
+
+    /**
+     * Creates an engine with the current weight profile, boosted by the target's offensive threat.
+     *
+     * @param target The opposing player to defend against (can be null).
+     * @return The engine.
+     */
+    public static ScoringEngine forTarget(Player target) {
+        return new ScoringEngine(profile, threatBoost(target));
+    }
+
+    /**
+     * Gets the weights new engines use unless given others.
+     *
+     * @return The current weight profile; {@link ScoringWeights#DEFAULT} unless one was set.
+     */
+    public static ScoringWeights getWeightProfile() {
+        return profile;
+    }
+
+    /**
+     * Replaces the weights new engines use unless given others. Engines and lineup indexes
+     * built before the change keep the weights they were built with.
+     *
+     * @param weights The new profile.
+     */
+    public static void setWeightProfile(ScoringWeights weights) {
+        profile = Objects.requireNonNull(weights);
+    }
+
+    /**
+     * Gets the threat boost for a target: high-danger xG plus goals over 5, capped at 1.
+     *
+     * @param target The opposing player (can be null).
+     * @return The boost, between 0 and 1; 0 if there is no target.
+     */
+    public static double threatBoost(Player target) {
+        if (target == null) return 0.0;
+        double offensiveThreat = target.getHighDangerxGoals() + target.getGoals();
+        return Math.min(offensiveThreat / 5.0, 1.0);
+    }
+
+    /**
+     * Gets the threat boost this engine applies.
+     *
+     * @return The threat boost.
+     */
+    public double getThreatBoost() {
+        return threatBoost;
+    }
+
+    /**
+     * Calculates one player's composite score.
+     *
+     * @param p The player being evaluated.
+     * @return The composite score.
+     */
+    public double score(Player p) {
+        return breakdown(p).getComposite();
+    }
+
+    /**
+     * Scores every player in one pass.
+     *
+     * @param players The players to score.
+     * @return The composite scores, in the same order as {@code players}.
+     */
+    public double[] scoreAll(List<Player> players) {
+        SkaterTable table = sharedTable(players);
+        if (table != null) return scoreAll(table, rowsOf(players));
+
+        CALLS.increment();
+        PLAYERS_SCORED.add(players.size());
+        double[] scores = new double[players.size()];
+        double matchupMultiplier = matchupMultiplier();
+        for (int i = 0; i < scores.length; i++) {
+            Player p = players.get(i);
+            scores[i] = composite(p.getTable(), p.getRow(), matchupMultiplier);
+        }
+        return scores;
+    }
+
+    /**
+     * Scores table rows in one pass over the table's columns, e.g. the rows of a
+     * table-backed {@link Team#getRows() team}.
+     *
+     * @param table The table holding the players' stats.
+     * @param rows  The rows to score.
+     * @return The composite scores, in the same order as {@code rows}.
+     */
+    public double[] scoreAll(SkaterTable table, int[] rows) {
+        CALLS.increment();
+        PLAYERS_SCORED.add(rows.length);
+        double[] scores = new double[rows.length];
+        double matchupMultiplier = matchupMultiplier();
+        for (int i = 0; i < rows.length; i++) {
+            scores[i] = composite(table, rows[i], matchupMultiplier);
+        }
+        return scores;
+    }
+
+    /**
+     * Gets how fast each player's composite grows with the threat boost. Composites are
+     * linear in the boost, so a player's score at boost {@code t} is the score at boost 0
+     * plus {@code t} times this slope.
+     *
+     * @param players The players to evaluate.
+     * @return The slopes, in the same order as {@code players}.
+     */
+    public double[] threatSlopes(List<Player> players) {
+        SkaterTable table = sharedTable(players);
+        if (table != null) return threatSlopes(table, rowsOf(players));
+
+        CALLS.increment();
+        PLAYERS_SCORED.add(players.size());
+        double[] slopes = new double[players.size()];
+        for (int i = 0; i < slopes.length; i++) {
+            Player p = players.get(i);
+            slopes[i] = defWeight * defScore(p.getTable(), p.getRow()) * matchupGain;
+        }
+        return slopes;
+    }
+
+    /**
+     * Gets how fast the composite of each table row grows with the threat boost.
+     *
+     * @param table The table holding the players' stats.
+     * @param rows  The rows to evaluate.
+     * @return The slopes, in the same order as {@code rows}.
+     * @see #threatSlopes(List)
+     */
+    public double[] threatSlopes(SkaterTable table, int[] rows) {
+        CALLS.increment();
+        PLAYERS_SCORED.add(rows.length);
+        double[] slopes = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            slopes[i] = defWeight * defScore(table, rows[i]) * matchupGain;
+        }
+        return slopes;
+    }
+
+    /** The table every player reads from, or null if they come from different tables. */
+    private static SkaterTable sharedTable(List<Player> players) {
+        if (players.isEmpty()) return null;
+        SkaterTable table = players.get(0).getTable();
+        for (Player p : players) {
+            if (p.getTable() != table) return null;
+        }
+        return table;
+    }
+
+    private static int[] rowsOf(List<Player> players) {
+        int[] rows = new int[players.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = players.get(i).getRow();
+        return rows;
+    }
+
+    /**
+     * Gets the coefficients this engine scores with.
+     *
+     * @return The weights.
+     */
+    public ScoringWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Gets the weighting for defensive score in the composite.
+     *
+     * @return The defensive weight.
+     */
+    public double getDefWeight() {
+        return defWeight;
+    }
+
+    /**
+     * Gets the weighting for offensive score in the composite.
+     *
+     * @return The offensive weight.
+     */
+    public double getOffWeight() {
+        return offWeight;
+    }
+
+    /**
+     * Orders indices by score, highest first. Ties keep their original order.
+     *
+     * @param scores Scores as returned by {@link #scoreAll(List)}.
+     * @return Indices into {@code scores}, best first.
+     */
+    public static int[] rankDescending(double[] scores) {
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        int[] ranked = new int[order.length];
+        for (int i = 0; i < ranked.length; i++) ranked[i] = order[i];
+        return ranked;
+    }
+
+    /**
+     * Calculates the components of one player's composite score.
+     *
+     * @param p The player being evaluated.
+     * @return The breakdown.
+     */
+    public Breakdown breakdown(Player p) {
+        CALLS.increment();
+        PLAYERS_SCORED.increment();
+        SkaterTable t = p.getTable();
+        int r = p.getRow();
+        double xgaPer60 = xgaPer60(t, r);
+        double baseDefScore = baseDefScore(t, r, xgaPer60);
+        double possessionScore = possessionWeight * possession(t, r);
+        double matchupMultiplier = matchupMultiplier();
+        double offScore = offScore(t, r);
+        double composite = defWeight * ((baseDefScore + possessionScore) * matchupMultiplier) + offWeight * offScore;
+        return new Breakdown(p, xgaPer60, baseDefScore, possessionScore, matchupMultiplier, offScore, composite);
+    }
+
+    /**
+     * Calculates the breakdowns for several players.
+     *
+     * @param players The players to evaluate.
+     * @return One breakdown per player, in the same order.
+     */
+    public List<Breakdown> breakdowns(List<Player> players) {
+        List<Breakdown> result = new ArrayList<>(players.size());
+        for (Player p : players) result.add(breakdown(p));
+        return result;
+    }
+
+    // The terms read the table's columns directly, so scoring rows of one table is a
+    // sequential pass over primitive arrays rather than a walk through Player views
+
+    private double composite(SkaterTable t, int r, double matchupMultiplier) {
+        return defWeight * (defScore(t, r) * matchupMultiplier) + offWeight * offScore(t, r);
+    }
+
+    private double defScore(SkaterTable t, int r) {
+        return baseDefScore(t, r, xgaPer60(t, r)) + possessionWeight * possession(t, r);
+    }
+
+    private static double xgaPer60(SkaterTable t, int r) {
+        double minutes = t.iceTime[r] > 0 ? t.iceTime[r] : 1; // prevent division by zero
+        return (t.expectedGoalsAgainst[r] / minutes) * 60.0;
+    }
+
+    private double baseDefScore(SkaterTable t, int r, double xgaPer60) {
+        return xgaWeight * xgaPer60 +
+               hitsWeight * t.hits[r] +
+               blockedShotsWeight * t.blockedShots[r];
+    }
+
+    private static double possession(SkaterTable t, int r) {
+        return t.takeaways[r] - 0.5 * t.giveaways[r];
+    }
+
+    private double offScore(SkaterTable t, int r) {
+        return goalsWeight * t.goals[r] +
+               pointsWeight * t.points[r] +
+               highDangerWeight * t.highDangerxGoals[r] +
+               reboundGoalsWeight * t.reboundGoals[r];
+    }
+
+    private double matchupMultiplier() {
+        return 1.0 + matchupGain * threatBoost;
+    }
+
+    /**
+     * Writes the unweighted value of each term of a player's composite, in the order of the
+     * first {@value #FEATURES} {@link ScoringWeights.Term terms}, so that a composite is a
+     * dot product of these features with the weights.
+     *
+     * @param p      The player.
+     * @param out    The array to write to.
+     * @param offset Where the player's features start.
+     */
+    static void features(Player p, double[] out, int offset) {
+        features(p.getTable(), p.getRow(), out, offset);
+    }
+
+    /**
+     * Writes the unweighted terms of one table row; see {@link #features(Player, double[], int)}.
+     *
+     * @param t      The table.
+     * @param r      The row.
+     * @param out    The array to write to.
+     * @param offset Where the row's features start.
+     */
+    static void features(SkaterTable t, int r, double[] out, int offset) {
+        out[offset] = xgaPer60(t, r);
+        out[offset + 1] = t.hits[r];
+        out[offset + 2] = t.blockedShots[r];
+        out[offset + 3] = possession(t, r);
+        out[offset + 4] = t.goals[r];
+        out[offset + 5] = t.points[r];
+        out[offset + 6] = t.highDangerxGoals[r];
+        out[offset + 7] = t.reboundGoals[r];
+    }
+
+    /**
+     * The components of one player's composite score.
+     */
+    public static final class Breakdown {
+        private final Player player;
+        private final double xgaPer60;
+        private final double baseDefScore;
+        private final double possessionScore;
+        private final double matchupMultiplier;
+        private final double offScore;
+        private final double composite;
+
+        Breakdown(Player player, double xgaPer60, double baseDefScore, double possessionScore,
+                  double matchupMultiplier, double offScore, double composite) {
+            this.player = player;
+            this.xgaPer60 = xgaPer60;
+            this.baseDefScore = baseDefScore;
+            this.possessionScore = possessionScore;
+            this.matchupMultiplier = matchupMultiplier;
+            this.offScore = offScore;
+            this.composite = composite;
+        }
+
+        /** @return The player this breakdown describes. */
+        public Player getPlayer() { return player; }
+
+        /** @return Expected goals against per 60 minutes. */
+        public double getXgaPer60() { return xgaPer60; }
+
+        /** @return The defensive score from xGA/60, hits and blocked shots. */
+        public double getBaseDefScore() { return baseDefScore; }
+
+        /** @return The possession score from takeaways and giveaways. */
+        public double getPossessionScore() { return possessionScore; }
+
+        /** @return The defensive score before the matchup multiplier. */
+        public double getDefScore() { return baseDefScore + possessionScore; }
+
+        /** @return The multiplier applied to the defensive score for the target's threat. */
+        public double getMatchupMultiplier() { return matchupMultiplier; }
+
+        /** @return The offensive score. */
+        public double getOffScore() { return offScore; }
+
+        /** @return The weighted composite score. */
+        public double getComposite() { return composite; }
+
+        @Override
+        public String toString() {
+            return String.format("%s - xGA/60: %.2f, Def: %.2f, Off: %.2f, Matchup: %.2f, Composite: %.2f",
+                    player.getName(), xgaPer60, getDefScore(), offScore, matchupMultiplier, composite);
+        }
+    }
+}
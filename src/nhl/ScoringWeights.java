@@ -0,0 +1,159 @@
+package nhl;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The coefficients of the composite score computed by {@link ScoringEngine}: one weight per
+ * defensive and offensive term, the defensive/offensive split and the matchup gain.
+ *
+ * Weights are immutable values. A profile is stored as a properties file with one
+ * {@code key=value} line per {@link Term}; keys left out keep their default value, so a
+ * profile only has to name the weights it changes. {@link WeightTuner} writes profiles and
+ * {@link LineupGenerator#loadWeightProfile(String)} makes one the default at runtime.
+ */
+public final class ScoringWeights {
+
+    /**
+     * One coefficient of the composite score, with its profile key and default value.
+     */
+    public enum Term {
+        /** Per unit of the player's xGA per 60 minutes. */
+        XGA_PER_60("xgaPer60", -1.5),
+        HITS("hits", 0.04),
+        BLOCKED_SHOTS("blockedShots", 0.05),
+        /** Per unit of takeaways minus half the giveaways. */
+        POSSESSION("possession", 2.0),
+        GOALS("goals", 0.15),
+        POINTS("points", 0.10),
+        HIGH_DANGER_XGOALS("highDangerxGoals", 0.08),
+        REBOUND_GOALS("reboundGoals", 0.10),
+        /** Weighting of the defensive score in the composite. */
+        DEF_WEIGHT("defWeight", 0.7),
+        /** Weighting of the offensive score in the composite. */
+        OFF_WEIGHT("offWeight", 0.3),
+        /** How much a threat boost of 1 raises the defensive score's weight. */
+        MATCHUP_GAIN("matchupGain", 0.25);
+
+        private final String key;
+        private final double defaultValue;
+
+        Term(String key, double defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        /** @return The term's key in a profile file. */
+        public String getKey() { return key; }
+
+        /** @return The coefficient the scoring used before profiles existed. */
+        public double getDefaultValue() { return defaultValue; }
+    }
+
+    private static final Term[] TERMS = Term.values();
+
+    /** The built-in weights. */
+    public static final ScoringWeights DEFAULT = defaults();
+
+    private final double[] values;
+
+    private ScoringWeights(double[] values) {
+        this.values = values;
+    }
+
+    private static ScoringWeights defaults() {
+        double[] values = new double[TERMS.length];
+        for (Term term : TERMS) values[term.ordinal()] = term.defaultValue;
+        return new ScoringWeights(values);
+    }
+
+    /**
+     * Gets one coefficient.
+     *
+     * @param term The term.
+     * @return Its weight.
+     */
+    public double get(Term term) {
+        return values[term.ordinal()];
+    }
+
+    /**
+     * Gets a copy of these weights with one coefficient changed.
+     *
+     * @param term  The term.
+     * @param value The new weight.
+     * @return The new weights.
+     */
+    public ScoringWeights with(Term term, double value) {
+        if (!Double.isFinite(value)) throw new IllegalArgumentException(term.key + " must be finite");
+        double[] copy = values.clone();
+        copy[term.ordinal()] = value;
+        return new ScoringWeights(copy);
+    }
+
+    /**
+     * Reads a weight profile.
+     *
+     * @param path The properties file.
+     * @return The weights; terms the file does not name keep their default.
+     * @throws IOException If the file cannot be read or holds a key or value that is not a weight.
+     */
+    public static ScoringWeights load(String path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        Map<String, Term> byKey = new HashMap<>();
+        for (Term term : TERMS) byKey.put(term.key, term);
+
+        double[] values = DEFAULT.values.clone();
+        for (String key : properties.stringPropertyNames()) {
+            Term term = byKey.get(key);
+            if (term == null) throw new IOException("Unknown weight " + key + " in " + path);
+            try {
+                values[term.ordinal()] = Double.parseDouble(properties.getProperty(key).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Weight " + key + " in " + path + " is not a number");
+            }
+            if (!Double.isFinite(values[term.ordinal()])) throw new IOException("Weight " + key + " must be finite");
+        }
+        return new ScoringWeights(values);
+    }
+
+    /**
+     * Writes these weights as a profile that {@link #load(String)} reads back exactly.
+     *
+     * @param path    The properties file to write.
+     * @param comment A comment for the first line, e.g. how the weights were tuned (may be null).
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(String path, String comment) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8)) {
+            if (comment != null) out.write("# " + comment.replace('\n', ' ') + "\n");
+            for (Term term : TERMS) {
+                out.write(term.key + "=" + values[term.ordinal()] + "\n");
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ScoringWeights && Arrays.equals(values, ((ScoringWeights) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Term term : TERMS) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(term.key).append('=').append(String.format(Locale.ROOT, "%.4g", values[term.ordinal()]));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -1,15 +1,38 @@
 package nhl;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Utility class for loading shot data from a CSV file and filtering it by shooter.
+ * Files ending in {@code .gz} are read through a gzip stream.
  */
 public class ShotDataLoader {
 
+    /** Shots delivered per batch to a {@link ShotListener}, at most. */
+    static final int BATCH_SHOTS = 256;
+
+    /** Longest a found shot waits before its batch is delivered, in nanoseconds. */
+    static final long BATCH_NANOS = 50_000_000L;
+
+    /** Bytes read from the stream at a time while scanning. */
+    private static final int SCAN_CHUNK_BYTES = 64 * 1024;
+
+    static final Metrics.Counter ROWS_READ =
+            Metrics.counter("shots.rows.read", "Shot data rows read");
+    static final Metrics.Counter ROWS_REJECTED =
+            Metrics.counter("shots.rows.rejected", "Shot rows missing required columns");
+
     /**
      * Loads shot data for a specific player from a CSV file.
+     * Uses the file's {@link ShotIndex} so only the player's own rows are read; falls back
+     * to a full scan if the index cannot be built.
      *
      * @param filePath   The path to the CSV file containing shot data.
      * @param playerName The name of the player whose shots should be loaded.
@@ -17,6 +40,214 @@ public class ShotDataLoader {
      */
     public static List<ShotData> loadShotsForPlayer(String filePath, String playerName) {
         List<ShotData> shots = new ArrayList<>();
+        if (isCompressed(filePath)) {
+            streamShotsForPlayer(filePath, playerName, shots::addAll);
+            return shots;
+        }
+
+        ShotIndex index;
+        try {
+            index = ShotIndex.forFile(filePath);
+        } catch (IOException e) {
+            System.err.println("Shot index unavailable, scanning " + filePath + ": " + e.getMessage());
+            return scanShotsForPlayer(filePath, playerName);
+        }
+
+        try {
+            readIndexed(filePath, index, playerName, shots::add);
+        } catch (IOException e) {
+            e.printStackTrace(); // Print error if file read fails
+        }
+        return shots;
+    }
+
+    /**
+     * Streams a player's shots to {@code listener} in batches as they are parsed, so a caller
+     * can show the first shots long before a large file has been read. Batches hold up to
+     * {@link #BATCH_SHOTS} shots and are delivered at least every 50 ms while shots are found.
+     *
+     * An up-to-date {@link ShotIndex} is used if one exists; otherwise the file, which may
+     * be gzip-compressed, is scanned sequentially and no index is built. Interrupting the
+     * calling thread stops the read after the current chunk.
+     *
+     * @param filePath   The path to the CSV file containing shot data.
+     * @param playerName The name of the player whose shots should be loaded.
+     * @param listener   Receives the batches on the calling thread.
+     * @return The number of shots delivered.
+     */
+    public static int streamShotsForPlayer(String filePath, String playerName, ShotListener listener) {
+        Batcher batcher = new Batcher(listener);
+        try {
+            ShotIndex index = isCompressed(filePath) ? null : ShotIndex.current(filePath);
+            if (index != null) {
+                readIndexed(filePath, index, playerName, batcher);
+            } else {
+                streamScan(filePath, playerName, batcher);
+            }
+        } catch (IOException e) {
+            System.err.println("Error streaming shots from " + filePath + ": " + e.getMessage());
+        }
+        batcher.flush();
+        listener.onComplete(batcher.count);
+        return batcher.count;
+    }
+
+    /**
+     * Reads only the row ranges the index lists for a player.
+     */
+    private static void readIndexed(String filePath, ShotIndex index, String playerName,
+                                    Consumer<ShotData> sink) throws IOException {
+        long[] ranges = index.rangesFor(playerName);
+        int maxColumn = Math.max(Math.max(index.shooterColumn, index.xGoalColumn), Math.max(index.xColumn, index.yColumn));
+        String wanted = playerName.trim();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (Thread.currentThread().isInterrupted()) return;
+                int length = (int) ranges[i + 1];
+                if (buffer.capacity() < length) buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+                buffer.clear().limit(length);
+                long offset = ranges[i];
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) break;
+                }
+
+                MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.position());
+                while (reader.nextRow()) {
+                    ROWS_READ.increment();
+                    if (reader.fieldCount() <= maxColumn) {
+                        ROWS_REJECTED.increment();
+                        continue;
+                    }
+                    String shooter = reader.getString(index.shooterColumn);
+                    if (!shooter.equalsIgnoreCase(wanted)) continue;
+                    sink.accept(new ShotData(
+                            reader.getDouble(index.xColumn),
+                            reader.getDouble(index.yColumn),
+                            shooter,
+                            reader.getDouble(index.xGoalColumn)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the whole file chunk by chunk, parsing the complete lines of each chunk in place.
+     */
+    private static void streamScan(String filePath, String playerName, Batcher batcher) throws IOException {
+        String wanted = playerName.trim();
+        try (InputStream in = open(filePath)) {
+            byte[] bytes = new byte[SCAN_CHUNK_BYTES];
+            int length = 0;
+            int[] columns = null;
+            boolean eof = false;
+
+            while (!eof) {
+                if (Thread.currentThread().isInterrupted()) return;
+                if (length == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2); // line longer than the buffer
+                int read = in.read(bytes, length, bytes.length - length);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    length += read;
+                }
+
+                // Parse up to the last complete line; the remainder waits for the next read
+                int end = eof ? length : lastLineEnd(bytes, length);
+                if (end == 0) continue;
+                MappedCsvReader reader = new MappedCsvReader(ByteBuffer.wrap(bytes), 0, end);
+                if (columns == null) {
+                    if (!reader.nextRow()) return;
+                    columns = ShotIndex.resolveColumns(reader);
+                }
+                int maxColumn = Math.max(Math.max(columns[0], columns[1]), Math.max(columns[2], columns[3]));
+                int rows = 0;
+                int rejected = 0;
+                while (reader.nextRow()) {
+                    rows++;
+                    if (reader.fieldCount() <= maxColumn) {
+                        rejected++;
+                        continue;
+                    }
+                    String shooter = reader.getString(columns[0]);
+                    if (!shooter.equalsIgnoreCase(wanted)) continue;
+                    batcher.accept(new ShotData(reader.getDouble(columns[1]), reader.getDouble(columns[2]),
+                            shooter, reader.getDouble(columns[3])));
+                }
+                ROWS_READ.add(rows);
+                ROWS_REJECTED.add(rejected);
+                batcher.flushIfDue();
+
+                System.arraycopy(bytes, end, bytes, 0, length - end);
+                length -= end;
+            }
+        }
+    }
+
+    /**
+     * Finds the offset just past the last newline in the first {@code length} bytes.
+     *
+     * @return The offset, or 0 if there is no newline.
+     */
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') return i + 1;
+        }
+        return 0;
+    }
+
+    static boolean isCompressed(String filePath) {
+        return filePath.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    private static InputStream open(String filePath) throws IOException {
+        InputStream in = new FileInputStream(filePath);
+        return isCompressed(filePath) ? new GZIPInputStream(in, SCAN_CHUNK_BYTES) : in;
+    }
+
+    /**
+     * Groups shots into batches, delivering one when it is full or has waited long enough.
+     */
+    private static final class Batcher implements Consumer<ShotData> {
+        private final ShotListener listener;
+        private List<ShotData> batch = new ArrayList<>();
+        private long batchStarted;
+        int count;
+
+        Batcher(ShotListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void accept(ShotData shot) {
+            if (batch.isEmpty()) batchStarted = System.nanoTime();
+            batch.add(shot);
+            count++;
+            if (batch.size() >= BATCH_SHOTS) flush();
+        }
+
+        void flushIfDue() {
+            if (!batch.isEmpty() && System.nanoTime() - batchStarted >= BATCH_NANOS) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<ShotData> full = batch;
+            batch = new ArrayList<>();
+            listener.onShots(full);
+        }
+    }
+
+    /**
+     * Loads shot data for a specific player by reading and splitting every row of the file.
+     *
+     * @param filePath   The path to the CSV file containing shot data.
+     * @param playerName The name of the player whose shots should be loaded.
+     * @return A list of {@link ShotData} objects corresponding to the specified player.
+     */
+    static List<ShotData> scanShotsForPlayer(String filePath, String playerName) {
+        List<ShotData> shots = new ArrayList<>();
 
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String headerLine = br.readLine(); // Read header line
@@ -45,9 +276,13 @@ public class ShotDataLoader {
             String line;
             while ((line = br.readLine()) != null) {
                 String[] tokens = line.split(",", -1); // -1 to preserve empty strings
+                ROWS_READ.increment();
 
                 // Skip if data row is too short
-                if (tokens.length <= Math.max(Math.max(shooterIndex, xIndex), yIndex)) continue;
+                if (tokens.length <= Math.max(Math.max(shooterIndex, xIndex), Math.max(yIndex, xgIndex))) {
+                    ROWS_REJECTED.increment();
+                    continue;
+                }
 
                 // Match shooter
                 String shooter = tokens[shooterIndex].trim();
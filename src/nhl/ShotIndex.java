@@ -0,0 +1,263 @@
+package nhl;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sidecar index over a shots CSV mapping each shooter (case-folded) to the byte ranges
+ * of that shooter's rows. With it, loading one player's shots reads only those rows
+ * instead of scanning the whole league file.
+ *
+ * The index is stored next to the CSV as {@code <file>.idx} and is rebuilt whenever the
+ * CSV's size or modification time no longer match the ones recorded in it.
+ */
+public class ShotIndex {
+
+    private static final int MAGIC = 0x4E484C49; // "NHLI"
+    private static final int VERSION = 1;
+
+    /** Indexes already loaded in this JVM, keyed by absolute CSV path. */
+    private static final Map<Path, ShotIndex> LOADED = new ConcurrentHashMap<>();
+
+    private final long fileSize;
+    private final long modifiedMillis;
+    final int shooterColumn;
+    final int xColumn;
+    final int yColumn;
+    final int xGoalColumn;
+
+    /** Folded shooter name to packed (offset, length) pairs of that shooter's row ranges. */
+    private final Map<String, long[]> rangesByShooter;
+
+    private ShotIndex(long fileSize, long modifiedMillis, int shooterColumn, int xColumn, int yColumn,
+                      int xGoalColumn, Map<String, long[]> rangesByShooter) {
+        this.fileSize = fileSize;
+        this.modifiedMillis = modifiedMillis;
+        this.shooterColumn = shooterColumn;
+        this.xColumn = xColumn;
+        this.yColumn = yColumn;
+        this.xGoalColumn = xGoalColumn;
+        this.rangesByShooter = rangesByShooter;
+    }
+
+    /**
+     * Gets an up-to-date index for a shots CSV, reusing the in-memory or on-disk copy when
+     * it still matches the file and rebuilding it otherwise.
+     *
+     * @param csvPath Path to the shots CSV.
+     * @return The index.
+     * @throws IOException If the CSV cannot be read or lacks the required columns.
+     */
+    public static ShotIndex forFile(String csvPath) throws IOException {
+        ShotIndex index = current(csvPath);
+        if (index != null) return index;
+
+        Path csv = Paths.get(csvPath).toAbsolutePath();
+        index = build(csv);
+        Path sidecar = indexPathFor(csv);
+        try {
+            index.write(sidecar);
+        } catch (IOException e) {
+            System.err.println("Could not write shot index " + sidecar + ": " + e.getMessage());
+        }
+        LOADED.put(csv, index);
+        return index;
+    }
+
+    /**
+     * Gets the index for a shots CSV only if the in-memory or on-disk copy still matches
+     * the file, without ever scanning the CSV.
+     *
+     * @param csvPath Path to the shots CSV.
+     * @return The index, or null if none is up to date.
+     * @throws IOException If the CSV's attributes cannot be read.
+     */
+    public static ShotIndex current(String csvPath) throws IOException {
+        Path csv = Paths.get(csvPath).toAbsolutePath();
+        BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+
+        ShotIndex index = LOADED.get(csv);
+        if (index != null && index.matches(attrs)) return index;
+
+        index = read(indexPathFor(csv));
+        if (index == null || !index.matches(attrs)) return null;
+        LOADED.put(csv, index);
+        return index;
+    }
+
+    /**
+     * Gets the sidecar location used for a given shots CSV.
+     *
+     * @param csv Path to the shots CSV.
+     * @return The index path next to the CSV.
+     */
+    public static Path indexPathFor(Path csv) {
+        return Paths.get(csv.toString() + ".idx");
+    }
+
+    /**
+     * Scans a shots CSV once and records where each shooter's rows are.
+     *
+     * @param csv Path to the shots CSV.
+     * @return The new index.
+     * @throws IOException If the CSV cannot be read or lacks the required columns.
+     */
+    public static ShotIndex build(Path csv) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+        ByteBuffer buffer = MappedCsvReader.map(csv.toString());
+        MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.limit());
+        if (!reader.nextRow()) {
+            throw new IOException("Shot file is empty: " + csv);
+        }
+
+        int[] columns = resolveColumns(reader);
+        int shooterIndex = columns[0];
+
+        Map<String, LongList> ranges = new HashMap<>();
+        int rowStart = reader.position();
+        while (reader.nextRow()) {
+            int rowEnd = reader.position();
+            if (reader.fieldCount() > shooterIndex) {
+                String shooter = fold(reader.getString(shooterIndex));
+                ranges.computeIfAbsent(shooter, k -> new LongList()).addRange(rowStart, rowEnd - rowStart);
+            }
+            rowStart = rowEnd;
+        }
+
+        Map<String, long[]> packed = new HashMap<>(ranges.size() * 2);
+        ranges.forEach((shooter, list) -> packed.put(shooter, list.toArray()));
+        return new ShotIndex(attrs.size(), attrs.lastModifiedTime().toMillis(),
+                shooterIndex, columns[1], columns[2], columns[3], packed);
+    }
+
+    /**
+     * Maps the header row's column names to the indices of the shooter, x, y and xG columns.
+     *
+     * @param header A reader positioned on the header row.
+     * @return The indices in that order.
+     * @throws IOException If any of the required columns is missing.
+     */
+    static int[] resolveColumns(MappedCsvReader header) throws IOException {
+        Map<String, Integer> columnMap = new HashMap<>();
+        for (int i = 0; i < header.fieldCount(); i++) {
+            columnMap.put(header.getString(i), i);
+        }
+        int[] columns = {
+            columnMap.getOrDefault("shooterName", -1),
+            columnMap.getOrDefault("xCordAdjusted", -1),
+            columnMap.getOrDefault("yCordAdjusted", -1),
+            columnMap.getOrDefault("xGoal", -1)
+        };
+        for (int column : columns) {
+            if (column == -1) throw new IOException("Required columns not found in CSV.");
+        }
+        return columns;
+    }
+
+    /**
+     * Gets the row ranges for a shooter as packed (offset, length) pairs.
+     *
+     * @param shooter The shooter's name, in any case.
+     * @return The ranges, or an empty array if the shooter has no rows.
+     */
+    long[] rangesFor(String shooter) {
+        return rangesByShooter.getOrDefault(fold(shooter.trim()), new long[0]);
+    }
+
+    /**
+     * Gets the folded names of every shooter in the file.
+     *
+     * @return An unmodifiable set of lower-case shooter names.
+     */
+    public Set<String> getShooters() {
+        return Collections.unmodifiableSet(rangesByShooter.keySet());
+    }
+
+    private boolean matches(BasicFileAttributes attrs) {
+        return fileSize == attrs.size() && modifiedMillis == attrs.lastModifiedTime().toMillis();
+    }
+
+    private void write(Path sidecar) throws IOException {
+        Path tmp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fileSize);
+                out.writeLong(modifiedMillis);
+                out.writeInt(shooterColumn);
+                out.writeInt(xColumn);
+                out.writeInt(yColumn);
+                out.writeInt(xGoalColumn);
+                out.writeInt(rangesByShooter.size());
+                for (Map.Entry<String, long[]> entry : rangesByShooter.entrySet()) {
+                    byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+                    out.writeInt(entry.getValue().length);
+                    for (long v : entry.getValue()) out.writeLong(v);
+                }
+            }
+            Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static ShotIndex read(Path sidecar) {
+        if (!Files.isRegularFile(sidecar)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long size = in.readLong();
+            long mtime = in.readLong();
+            int shooter = in.readInt();
+            int x = in.readInt();
+            int y = in.readInt();
+            int xg = in.readInt();
+            int shooters = in.readInt();
+            Map<String, long[]> ranges = new HashMap<>(shooters * 2);
+            for (int i = 0; i < shooters; i++) {
+                byte[] name = new byte[in.readInt()];
+                in.readFully(name);
+                long[] packed = new long[in.readInt()];
+                for (int k = 0; k < packed.length; k++) packed[k] = in.readLong();
+                ranges.put(new String(name, StandardCharsets.UTF_8), packed);
+            }
+            return new ShotIndex(size, mtime, shooter, x, y, xg, ranges);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable shot index " + sidecar + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable list of (offset, length) pairs that merges ranges touching the previous one.
+     */
+    private static final class LongList {
+        private long[] values = new long[8];
+        private int size;
+
+        void addRange(long offset, long length) {
+            if (size > 0 && values[size - 2] + values[size - 1] == offset) {
+                values[size - 1] += length;
+                return;
+            }
+            if (size + 2 > values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[size++] = offset;
+            values[size++] = length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
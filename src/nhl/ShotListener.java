@@ -0,0 +1,25 @@
+package nhl;
+
+import java.util.List;
+
+/**
+ * Receives a player's shots in batches while {@link ShotDataLoader} is still reading the file.
+ * Callbacks arrive on the loading thread, so implementations that touch Swing components
+ * must hand off to the Event Dispatch Thread.
+ */
+public interface ShotListener {
+
+    /**
+     * Called with each batch of matching shots, in file order.
+     *
+     * @param batch The shots parsed since the previous batch; the listener may keep the list.
+     */
+    void onShots(List<ShotData> batch);
+
+    /**
+     * Called once after the last batch, including when the read stopped early.
+     *
+     * @param shotCount The total number of shots delivered.
+     */
+    default void onComplete(int shotCount) { }
+}
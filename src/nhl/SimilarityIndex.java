@@ -0,0 +1,413 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Nearest-neighbour search over players by playing style, for questions like "defenders
+ * like X" across any number of seasons.
+ *
+ * Each player becomes a vector of per-60-minute rates (hits, takeaways, giveaways, blocked
+ * shots, high-danger xGoals, goals, points, shot attempts and penalty minutes), on-ice xGA
+ * per 60 and offensive-zone start share. Every feature is z-score normalized over the indexed
+ * players so that none dominates the Euclidean distance. The vectors are indexed in a
+ * vantage-point tree: each node splits its points by their distance to one vantage point,
+ * so a query skips every subtree that cannot hold a point closer than the current k-th best.
+ *
+ * The index is immutable and safe to share between threads; it reads the players' stats
+ * only while being built.
+ */
+public class SimilarityIndex {
+
+    /** Names of the vector components, in order. */
+    static final String[] FEATURES = {
+        "hits/60", "takeaways/60", "giveaways/60", "blockedShots/60", "highDangerxGoals/60",
+        "goals/60", "points/60", "shotAttemptsAgainst/60", "penaltyMinutes/60", "onIceXGA/60",
+        "oZoneStartShare"
+    };
+    private static final int DIMS = FEATURES.length;
+    /** Subtrees this small are scanned instead of split further. */
+    private static final int LEAF_SIZE = 8;
+
+    private final Player[] players;
+    /** Normalized vectors in tree order: point i is {@code points[i * DIMS .. (i + 1) * DIMS)}. */
+    private final double[] points;
+    private final double[] means = new double[DIMS];
+    private final double[] scales = new double[DIMS];
+
+    // Tree nodes. An inner node's vantage point is the first point of its range; the points
+    // closer than its threshold follow it, up to the start of the outer child's range.
+    private int[] nodeStart;
+    private int[] nodeEnd;
+    private double[] nodeThreshold;
+    private int[] nodeInner;
+    private int[] nodeOuter;
+    private int nodeCount;
+
+    /**
+     * A player found by a query, with its distance from the query player.
+     */
+    public static final class Match {
+        private final Player player;
+        private final double distance;
+
+        Match(Player player, double distance) {
+            this.player = player;
+            this.distance = distance;
+        }
+
+        /** @return The similar player. */
+        public Player getPlayer() { return player; }
+
+        /** @return The distance in normalized feature space; 0 is identical. */
+        public double getDistance() { return distance; }
+    }
+
+    private SimilarityIndex(List<Player> indexed) {
+        int n = indexed.size();
+        double[] raw = new double[n * DIMS];
+        for (int i = 0; i < n; i++) features(indexed.get(i), raw, i * DIMS);
+
+        for (int d = 0; d < DIMS; d++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) sum += raw[i * DIMS + d];
+            means[d] = n == 0 ? 0 : sum / n;
+            double squares = 0;
+            for (int i = 0; i < n; i++) {
+                double delta = raw[i * DIMS + d] - means[d];
+                squares += delta * delta;
+            }
+            double sd = n == 0 ? 0 : Math.sqrt(squares / n);
+            scales[d] = sd > 0 ? 1 / sd : 0; // A constant feature carries no information
+        }
+        for (int i = 0; i < n; i++) normalize(raw, i * DIMS);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int maxNodes = Math.max(1, n); // Every node owns at least one point
+        nodeStart = new int[maxNodes];
+        nodeEnd = new int[maxNodes];
+        nodeThreshold = new double[maxNodes];
+        nodeInner = new int[maxNodes];
+        nodeOuter = new int[maxNodes];
+        buildNode(raw, order, new double[n], 0, n, new SplittableRandom(42));
+
+        // Lay the points out in tree order so that each subtree is one contiguous block
+        players = new Player[n];
+        points = new double[n * DIMS];
+        for (int i = 0; i < n; i++) {
+            players[i] = indexed.get(order[i]);
+            System.arraycopy(raw, order[i] * DIMS, points, i * DIMS, DIMS);
+        }
+    }
+
+    /**
+     * Builds an index over players. Players without ice time have no rates and are left out.
+     *
+     * @param players The players, e.g. every roster of several seasons.
+     * @return The index.
+     */
+    public static SimilarityIndex build(Collection<Player> players) {
+        List<Player> indexed = new ArrayList<>(players.size());
+        for (Player p : players) {
+            if (p != null && p.getIceTime() > 0) indexed.add(p);
+        }
+        return new SimilarityIndex(indexed);
+    }
+
+    /**
+     * Builds an index over every player of a list of teams.
+     *
+     * @param teams The teams.
+     * @return The index.
+     */
+    public static SimilarityIndex buildFromTeams(List<Team> teams) {
+        List<Player> players = new ArrayList<>();
+        for (Team team : teams) {
+            if (team.getRoster() != null) players.addAll(team.getRoster());
+        }
+        return build(players);
+    }
+
+    /**
+     * Gets the number of indexed players.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return players.length;
+    }
+
+    /**
+     * Finds the players most similar to a player.
+     *
+     * @param target The player to compare against; need not be indexed, and is never returned.
+     * @param k      The number of players wanted.
+     * @return Up to k matches, closest first.
+     */
+    public List<Match> nearest(Player target, int k) {
+        return nearest(target, k, Leaderboard.Filter.ALL);
+    }
+
+    /**
+     * Finds the players accepted by a filter that are most similar to a player.
+     *
+     * @param target The player to compare against; need not be indexed, and is never returned.
+     * @param k      The number of players wanted.
+     * @param filter Which players may be returned, e.g. {@code Filter.ALL.position("D")}.
+     * @return Up to k matches, closest first.
+     */
+    public List<Match> nearest(Player target, int k, Leaderboard.Filter filter) {
+        if (target == null || k <= 0 || players.length == 0) return Collections.emptyList();
+        Search search = new Search(query(target), target, filter, k, Double.POSITIVE_INFINITY);
+        search.visit(0);
+        return search.results();
+    }
+
+    /**
+     * Finds every player within a distance of a player.
+     *
+     * @param target The player to compare against; need not be indexed, and is never returned.
+     * @param radius The largest distance, in normalized feature space.
+     * @param filter Which players may be returned.
+     * @return The matches, closest first.
+     */
+    public List<Match> withinRadius(Player target, double radius, Leaderboard.Filter filter) {
+        if (target == null || radius < 0 || players.length == 0) return Collections.emptyList();
+        Search search = new Search(query(target), target, filter, Integer.MAX_VALUE, radius);
+        search.visit(0);
+        return search.results();
+    }
+
+    /**
+     * Gets the distance between two players in this index's normalized feature space.
+     *
+     * @param a One player.
+     * @param b The other player.
+     * @return The Euclidean distance.
+     */
+    public double distance(Player a, Player b) {
+        return Math.sqrt(squaredDistance(query(a), 0, query(b), 0));
+    }
+
+    /**
+     * Fills one player's raw feature vector.
+     */
+    static void features(Player p, double[] out, int offset) {
+        double minutes = p.getIceTime();
+        double per60 = minutes > 0 ? 60.0 / minutes : 0;
+        int zoneStarts = p.getOZoneStarts() + p.getDZoneStarts();
+        out[offset] = p.getHits() * per60;
+        out[offset + 1] = p.getTakeaways() * per60;
+        out[offset + 2] = p.getGiveaways() * per60;
+        out[offset + 3] = p.getBlockedShots() * per60;
+        out[offset + 4] = p.getHighDangerxGoals() * per60;
+        out[offset + 5] = p.getGoals() * per60;
+        out[offset + 6] = p.getPoints() * per60;
+        out[offset + 7] = p.getShotAttemptsAgainst() * per60;
+        out[offset + 8] = p.getPenaltyMinutes() * per60;
+        out[offset + 9] = p.getOnIceExpectedGoalsAgainstPer60();
+        out[offset + 10] = zoneStarts > 0 ? p.getOZoneStarts() / (double) zoneStarts : 0.5;
+    }
+
+    private void normalize(double[] vector, int offset) {
+        for (int d = 0; d < DIMS; d++) {
+            vector[offset + d] = (vector[offset + d] - means[d]) * scales[d];
+        }
+    }
+
+    private double[] query(Player p) {
+        double[] vector = new double[DIMS];
+        features(p, vector, 0);
+        normalize(vector, 0);
+        return vector;
+    }
+
+    private static double squaredDistance(double[] a, int aOffset, double[] b, int bOffset) {
+        double sum = 0;
+        for (int d = 0; d < DIMS; d++) {
+            double delta = a[aOffset + d] - b[bOffset + d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    /**
+     * Builds the subtree over {@code order[start, end)}, reordering that range so the vantage
+     * point comes first, then its inner points, then its outer points.
+     *
+     * @return The node's index.
+     */
+    private int buildNode(double[] raw, int[] order, double[] dist, int start, int end, SplittableRandom random) {
+        int node = nodeCount++;
+        nodeStart[node] = start;
+        nodeEnd[node] = end;
+        nodeInner[node] = -1;
+        nodeOuter[node] = -1;
+        if (end - start <= LEAF_SIZE) return node;
+
+        swap(order, dist, start, start + random.nextInt(end - start));
+        int vantage = order[start] * DIMS;
+        for (int i = start + 1; i < end; i++) {
+            dist[i] = Math.sqrt(squaredDistance(raw, vantage, raw, order[i] * DIMS));
+        }
+        int mid = (start + 1 + end) >>> 1;
+        select(order, dist, start + 1, end - 1, mid);
+        nodeThreshold[node] = dist[mid];
+
+        nodeInner[node] = buildNode(raw, order, dist, start + 1, mid, random);
+        nodeOuter[node] = buildNode(raw, order, dist, mid, end, random);
+        return node;
+    }
+
+    /**
+     * Partially sorts {@code order[lo, hi]} by distance so that position k holds the value it
+     * would have if fully sorted, with no larger value before it and no smaller one after it.
+     */
+    private static void select(int[] order, double[] dist, int lo, int hi, int k) {
+        while (lo < hi) {
+            double pivot = dist[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (dist[i] < pivot) i++;
+                while (dist[j] > pivot) j--;
+                if (i <= j) swap(order, dist, i++, j--);
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] order, double[] dist, int i, int j) {
+        int o = order[i];
+        order[i] = order[j];
+        order[j] = o;
+        double d = dist[i];
+        dist[i] = dist[j];
+        dist[j] = d;
+    }
+
+    /**
+     * One k-nearest or radius query: a bounded max-heap of the best matches so far, whose
+     * root distance is the pruning radius once it is full.
+     */
+    private final class Search {
+        private final double[] query;
+        private final Player exclude;
+        private final Leaderboard.Filter filter;
+        private final int k;
+        private final double radius;
+        private int[] heap = new int[16];
+        private double[] heapDist = new double[16];
+        private int size;
+
+        Search(double[] query, Player exclude, Leaderboard.Filter filter, int k, double radius) {
+            this.query = query;
+            this.exclude = exclude;
+            this.filter = filter;
+            this.k = k;
+            this.radius = radius;
+        }
+
+        /** The distance a point must beat to be kept. */
+        private double tau() {
+            return size < k ? radius : Math.min(radius, heapDist[0]);
+        }
+
+        void visit(int node) {
+            int start = nodeStart[node];
+            if (nodeInner[node] < 0) {
+                for (int i = start; i < nodeEnd[node]; i++) consider(i);
+                return;
+            }
+
+            double d = consider(start);
+            double threshold = nodeThreshold[node];
+            // Descend first into the side the query falls on; the other side is usually pruned
+            if (d < threshold) {
+                if (d - tau() <= threshold) visit(nodeInner[node]);
+                if (d + tau() >= threshold) visit(nodeOuter[node]);
+            } else {
+                if (d + tau() >= threshold) visit(nodeOuter[node]);
+                if (d - tau() <= threshold) visit(nodeInner[node]);
+            }
+        }
+
+        /** Offers one point to the heap and returns its distance from the query. */
+        private double consider(int point) {
+            double d = Math.sqrt(squaredDistance(query, 0, points, point * DIMS));
+            if (d > tau() || (size == k && d == heapDist[0] && point > heap[0])) return d;
+            Player p = players[point];
+            if (p.equals(exclude) || !filter.accepts(p.getTable(), p.getRow())) return d;
+
+            if (size == k) {
+                heap[0] = point;
+                heapDist[0] = d;
+                siftDown();
+            } else {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 2);
+                    heapDist = Arrays.copyOf(heapDist, size * 2);
+                }
+                heap[size] = point;
+                heapDist[size] = d;
+                siftUp(size++);
+            }
+            return d;
+        }
+
+        /** Whether entry a is a worse match than entry b; equal distances rank by tree position. */
+        private boolean worse(int a, int b) {
+            int cmp = Double.compare(heapDist[a], heapDist[b]);
+            return cmp != 0 ? cmp > 0 : heap[a] > heap[b];
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(i, parent)) return;
+                swapHeap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown() {
+            int i = 0;
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && worse(left, worst)) worst = left;
+                if (right < size && worse(right, worst)) worst = right;
+                if (worst == i) return;
+                swapHeap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swapHeap(int i, int j) {
+            int p = heap[i];
+            heap[i] = heap[j];
+            heap[j] = p;
+            double d = heapDist[i];
+            heapDist[i] = heapDist[j];
+            heapDist[j] = d;
+        }
+
+        List<Match> results() {
+            // Popping the worst match repeatedly fills the result from the back
+            Match[] matches = new Match[size];
+            for (int i = size - 1; i >= 0; i--) {
+                matches[i] = new Match(players[heap[0]], heapDist[0]);
+                swapHeap(0, --size);
+                siftDown();
+            }
+            return Arrays.asList(matches);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package nhl;
+
+/**
+ * The game situations a skaters file reports stats for, keyed by the text of its
+ * {@code situation} column.
+ */
+public enum Situation {
+    ALL("all", "L", "C", "R"),
+    FIVE_ON_FIVE("5on5", "L", "C", "R"),
+    POWER_PLAY("5on4", "L", "C", "R"),
+    PENALTY_KILL("4on5", "F", "F"),
+    OTHER("other", "L", "C", "R");
+
+    private final String code;
+    private final String[] forwardSlots;
+
+    Situation(String code, String... forwardSlots) {
+        this.code = code;
+        this.forwardSlots = forwardSlots;
+    }
+
+    /**
+     * Gets the situation's code as it appears in the CSV.
+     *
+     * @return The code, e.g. "5on5".
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the forward slots of a unit iced in this situation, alongside two defensemen.
+     * "F" accepts any forward; a penalty-kill unit is two D and two F.
+     *
+     * @return A copy of the slot positions.
+     */
+    public String[] getForwardSlots() {
+        return forwardSlots.clone();
+    }
+
+    /**
+     * Finds the situation with the given code.
+     *
+     * @param code The code, e.g. "4on5"; case and surrounding whitespace are ignored.
+     * @return The matching situation, or null if none matches.
+     */
+    public static Situation fromCode(String code) {
+        if (code == null) return null;
+        String trimmed = code.trim();
+        for (Situation situation : values()) {
+            if (situation.code.equalsIgnoreCase(trimmed)) return situation;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the situation named by one field of a CSV row without materializing the field.
+     *
+     * @param row   The row.
+     * @param field The index of the situation column.
+     * @return The matching situation, or null if the field holds none of the known codes.
+     */
+    static Situation of(CsvRow row, int field) {
+        for (Situation situation : values()) {
+            if (row.fieldEquals(field, situation.code)) return situation;
+        }
+        return null;
+    }
+}
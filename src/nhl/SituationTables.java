@@ -0,0 +1,94 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Skater stats for every game situation, loaded from one pass over the skaters file.
+ * Each situation has its own columnar {@link SkaterTable}; all of them share one
+ * {@link PlayerDictionary}, so a player's ordinal is the same in every situation and its
+ * identity strings are stored once.
+ */
+public class SituationTables {
+
+    private final PlayerDictionary dictionary = new PlayerDictionary();
+    private final Map<Situation, SkaterTable> tables = new EnumMap<>(Situation.class);
+    /** Per situation, the table row of each dictionary ordinal, or -1 if the player has none. */
+    private final int[][] rowsByOrdinal = new int[Situation.values().length][];
+
+    /**
+     * Creates an empty set of tables, one per situation.
+     */
+    public SituationTables() {
+        for (Situation situation : Situation.values()) {
+            tables.put(situation, new SkaterTable(1024));
+            rowsByOrdinal[situation.ordinal()] = new int[0];
+        }
+    }
+
+    /**
+     * Gets the dictionary shared by every situation's table.
+     *
+     * @return The player dictionary.
+     */
+    public PlayerDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Gets the table holding one situation's stats.
+     *
+     * @param situation The game situation.
+     * @return The situation's table.
+     */
+    public SkaterTable getTable(Situation situation) {
+        return tables.get(situation);
+    }
+
+    /**
+     * Builds {@link Team} views over one situation's table.
+     *
+     * @param situation The game situation.
+     * @return The teams with at least one player in that situation, in first-seen order.
+     */
+    public List<Team> toTeams(Situation situation) {
+        return getTable(situation).toTeams();
+    }
+
+    /**
+     * Gets the row of a player in one situation's table.
+     *
+     * @param situation The game situation.
+     * @param ordinal   The player's dictionary ordinal.
+     * @return The row, or -1 if the player has no stats for that situation.
+     */
+    public int rowOf(Situation situation, int ordinal) {
+        int[] rows = rowsByOrdinal[situation.ordinal()];
+        return ordinal >= 0 && ordinal < rows.length ? rows[ordinal] : -1;
+    }
+
+    /**
+     * Gets a player's stats for one situation.
+     *
+     * @param situation The game situation.
+     * @param ordinal   The player's dictionary ordinal.
+     * @return A view over the player's row, or null if the player has no stats for that situation.
+     */
+    public Player getPlayer(Situation situation, int ordinal) {
+        int row = rowOf(situation, ordinal);
+        return row < 0 ? null : getTable(situation).getPlayer(row);
+    }
+
+    /**
+     * Records that a player's stats for a situation were appended at a given row.
+     */
+    void setRow(Situation situation, int ordinal, int row) {
+        int[] rows = rowsByOrdinal[situation.ordinal()];
+        if (ordinal >= rows.length) {
+            int oldLength = rows.length;
+            rows = Arrays.copyOf(rows, Math.max(ordinal + 1, oldLength * 2));
+            Arrays.fill(rows, oldLength, rows.length, -1);
+            rowsByOrdinal[situation.ordinal()] = rows;
+        }
+        rows[ordinal] = row;
+    }
+}
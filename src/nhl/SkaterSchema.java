@@ -0,0 +1,134 @@
+package nhl;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Where each column the loaders use sits in a skaters CSV, resolved by header name once
+ * per file instead of being hard-coded at every read.
+ *
+ * A header that names every column is used as is, so a MoneyPuck export with columns added,
+ * dropped or reordered still loads correctly. A file whose first row names none of them,
+ * e.g. one without a header, falls back to the standard MoneyPuck layout. A header that
+ * names only some is rejected, since its columns cannot be trusted to sit where the
+ * standard layout puts them.
+ */
+public final class SkaterSchema {
+
+    /**
+     * The columns read from each row, with their MoneyPuck header names and standard positions.
+     */
+    public enum Column {
+        PLAYER_ID("playerId", 0),
+        SEASON("season", 1),
+        NAME("name", 2),
+        TEAM("team", 3),
+        POSITION("position", 4),
+        SITUATION("situation", 5),
+        GAMES_PLAYED("games_played", 6),
+        ICE_TIME("icetime", 7),
+        SHIFTS("shifts", 8),
+        POINTS("I_F_points", 33),
+        GOALS("I_F_goals", 34),
+        REBOUND_GOALS("I_F_reboundGoals", 36),
+        PENALTIES("penalties", 43),
+        PENALTY_MINUTES("I_F_penalityMinutes", 44),
+        HITS("I_F_hits", 46),
+        TAKEAWAYS("I_F_takeaways", 47),
+        GIVEAWAYS("I_F_giveaways", 48),
+        HIGH_DANGER_XGOALS("I_F_highDangerxGoals", 54),
+        O_ZONE_STARTS("I_F_oZoneShiftStarts", 69),
+        D_ZONE_STARTS("I_F_dZoneShiftStarts", 70),
+        N_ZONE_STARTS("I_F_neutralZoneShiftStarts", 71),
+        TIME_ON_BENCH("timeOnBench", 79),
+        BLOCKED_SHOTS("shotsBlockedByPlayer", 83),
+        ON_ICE_XGA("OnIce_F_unblockedShotAttempts", 106),
+        SHOT_ATTEMPTS_AGAINST("OnIce_A_shotAttempts", 122),
+        EXPECTED_GOALS_AGAINST("OnIce_A_highDangerGoals", 134);
+
+        private final String header;
+        private final int standardIndex;
+
+        Column(String header, int standardIndex) {
+            this.header = header;
+            this.standardIndex = standardIndex;
+        }
+
+        /** @return The column's name in a MoneyPuck header. */
+        public String getHeader() { return header; }
+
+        /** @return The column's position in the standard MoneyPuck layout. */
+        public int getStandardIndex() { return standardIndex; }
+    }
+
+    /** The standard MoneyPuck layout. */
+    public static final SkaterSchema STANDARD = standard();
+
+    private final int[] indices;
+    private final int requiredFields;
+
+    private SkaterSchema(int[] indices) {
+        this.indices = indices;
+        int max = 0;
+        for (int index : indices) max = Math.max(max, index);
+        this.requiredFields = max + 1;
+    }
+
+    private static SkaterSchema standard() {
+        int[] indices = new int[Column.values().length];
+        for (Column column : Column.values()) indices[column.ordinal()] = column.standardIndex;
+        return new SkaterSchema(indices);
+    }
+
+    /**
+     * Resolves the columns from a header row. Names are matched after trimming whitespace
+     * and a leading byte order mark.
+     *
+     * @param header The header row.
+     * @return A schema over the header's columns, or {@link #STANDARD} if the row names none
+     *         of them.
+     * @throws IOException If the header names some of the columns but not all.
+     */
+    public static SkaterSchema fromHeader(CsvRow header) throws IOException {
+        Map<String, Integer> columnMap = new HashMap<>();
+        header.require(Integer.MAX_VALUE);
+        for (int i = 0; i < header.fieldCount(); i++) {
+            String name = header.getString(i);
+            if (i == 0 && name.startsWith("\uFEFF")) name = name.substring(1);
+            columnMap.putIfAbsent(name.trim(), i);
+        }
+
+        int[] indices = new int[Column.values().length];
+        List<String> missing = new ArrayList<>();
+        for (Column column : Column.values()) {
+            Integer index = columnMap.get(column.header);
+            if (index == null) {
+                missing.add(column.header);
+            } else {
+                indices[column.ordinal()] = index;
+            }
+        }
+        if (missing.isEmpty()) return new SkaterSchema(indices);
+        if (missing.size() < indices.length) throw new IOException("Skaters header lacks columns " + missing);
+        return STANDARD;
+    }
+
+    /**
+     * Gets the position of a column.
+     *
+     * @param column The column.
+     * @return Its field index on each row.
+     */
+    public int index(Column column) {
+        return indices[column.ordinal()];
+    }
+
+    /**
+     * Gets how many leading fields a row needs for every column to be present.
+     *
+     * @return One more than the highest column index.
+     */
+    public int getRequiredFields() {
+        return requiredFields;
+    }
+}
@@ -0,0 +1,209 @@
+package nhl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of a parsed and normalized {@link SkaterTable}. A snapshot records the
+ * size, modification time and CRC32C of the CSV it was built from, and is only used
+ * while all three still match.
+ *
+ * Layout (little-endian): a fixed header, then the identity strings row by row, then
+ * every stat column as one contiguous block.
+ */
+public class SkaterSnapshot {
+
+    private static final int MAGIC = 0x4E484C53; // "NHLS"
+
+    /** Bump whenever the column set or layout changes. */
+    static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 4 + 4 + 4;
+
+    /**
+     * Gets the snapshot location used for a given CSV.
+     *
+     * @param csvPath Path to the source CSV.
+     * @return The sidecar snapshot path next to the CSV.
+     */
+    public static Path snapshotPathFor(String csvPath) {
+        return Paths.get(csvPath + ".snapshot");
+    }
+
+    /**
+     * Reads a snapshot if it exists and still matches the CSV.
+     *
+     * @param csvPath      Path to the source CSV.
+     * @param snapshotPath Path to the snapshot file.
+     * @return The table stored in the snapshot, or null if it is missing, stale or unreadable.
+     */
+    public static SkaterTable read(String csvPath, Path snapshotPath) {
+        if (!Files.isRegularFile(snapshotPath)) return null;
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return null;
+            }
+
+            Fingerprint stored = new Fingerprint(buf.getLong(), buf.getLong(), buf.getLong());
+            if (!stored.equals(Fingerprint.of(Paths.get(csvPath)))) return null;
+
+            int rows = buf.getInt();
+            int intColumnCount = buf.getInt();
+            int doubleColumnCount = buf.getInt();
+
+            SkaterTable table = new SkaterTable(rows);
+            for (int i = 0; i < rows; i++) {
+                String team = readString(buf);
+                String name = readString(buf);
+                String position = readString(buf);
+                table.addRow(team, name, position, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                        0, 0, 0, 0, 0, 0, 0, 0);
+            }
+            table.trimToSize();
+
+            int[][] intColumns = table.intColumns();
+            double[][] doubleColumns = table.doubleColumns();
+            if (intColumnCount != intColumns.length || doubleColumnCount != doubleColumns.length) return null;
+
+            for (int[] column : intColumns) {
+                buf.asIntBuffer().get(column, 0, rows);
+                buf.position(buf.position() + rows * Integer.BYTES);
+            }
+            for (double[] column : doubleColumns) {
+                buf.asDoubleBuffer().get(column, 0, rows);
+                buf.position(buf.position() + rows * Double.BYTES);
+            }
+            return table;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of {@code table} fingerprinted against the CSV it was loaded from.
+     * The file is written to a temporary name and moved into place, so readers never see
+     * a partial snapshot.
+     *
+     * @param table        The finalized table to store.
+     * @param csvPath      Path to the source CSV.
+     * @param snapshotPath Where to write the snapshot.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(SkaterTable table, String csvPath, Path snapshotPath) throws IOException {
+        Fingerprint fingerprint = Fingerprint.of(Paths.get(csvPath));
+        int rows = table.size();
+        int[][] intColumns = table.intColumns();
+        double[][] doubleColumns = table.doubleColumns();
+
+        byte[][] strings = new byte[rows * 3][];
+        long stringBytes = 0;
+        for (int i = 0; i < rows; i++) {
+            strings[i * 3] = encode(table.getTeam(i));
+            strings[i * 3 + 1] = encode(table.getName(i));
+            strings[i * 3 + 2] = encode(table.getPosition(i));
+        }
+        for (byte[] s : strings) {
+            stringBytes += Integer.BYTES + (s == null ? 0 : s.length);
+        }
+        long total = HEADER_BYTES + stringBytes
+                + (long) rows * (intColumns.length * Integer.BYTES + doubleColumns.length * Double.BYTES);
+        if (total > Integer.MAX_VALUE) throw new IOException("Table too large to snapshot");
+
+        ByteBuffer buf = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION);
+        buf.putLong(fingerprint.size).putLong(fingerprint.modifiedMillis).putLong(fingerprint.crc);
+        buf.putInt(rows).putInt(intColumns.length).putInt(doubleColumns.length);
+        for (byte[] s : strings) {
+            if (s == null) {
+                buf.putInt(-1);
+            } else {
+                buf.putInt(s.length).put(s);
+            }
+        }
+        for (int[] column : intColumns) {
+            buf.asIntBuffer().put(column, 0, rows);
+            buf.position(buf.position() + rows * Integer.BYTES);
+        }
+        for (double[] column : doubleColumns) {
+            buf.asDoubleBuffer().put(column, 0, rows);
+            buf.position(buf.position() + rows * Double.BYTES);
+        }
+        buf.flip();
+
+        Path dir = snapshotPath.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, snapshotPath.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) channel.write(buf);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static byte[] encode(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Identifies one version of a source file by size, modification time and content hash.
+     */
+    static final class Fingerprint {
+        final long size;
+        final long modifiedMillis;
+        final long crc;
+
+        Fingerprint(long size, long modifiedMillis, long crc) {
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            this.crc = crc;
+        }
+
+        static Fingerprint of(Path file) throws IOException {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long offset = 0;
+                while (offset < size) {
+                    long length = Math.min(size - offset, Integer.MAX_VALUE);
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+                    offset += length;
+                }
+            }
+            return new Fingerprint(attrs.size(), attrs.lastModifiedTime().toMillis(), crc.getValue());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) return false;
+            Fingerprint other = (Fingerprint) o;
+            return size == other.size && modifiedMillis == other.modifiedMillis && crc == other.crc;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(crc);
+        }
+    }
+}
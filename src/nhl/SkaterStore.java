@@ -0,0 +1,232 @@
+package nhl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Skater stats for any number of seasons, keyed by (player id, season, situation) and
+ * grown incrementally: each {@link #ingest(String)} parses only the file it is given.
+ * A row whose key is already stored replaces the stored stats, which is how a daily delta
+ * file of updated season totals is applied; any other row is appended.
+ *
+ * Every (season, situation) pair has its own {@link SkaterTable}, and takeaway efficiency
+ * is kept current by a {@link TakeawayNormalizer} per table: a changed row is rescored on
+ * its own, and a table is rescaled at most once per ingest, only if one of its takeaway or
+ * giveaway bounds moved. Rows without a player id fall back to being keyed by team and name.
+ *
+ * The store is not thread-safe; readers must not run while an ingest is in progress.
+ */
+public class SkaterStore {
+
+    private final Map<Integer, Map<Situation, Slice>> seasons = new TreeMap<>();
+    /** Absolute path of every ingested file to the size and mtime it had when ingested. */
+    private final Map<String, String> ingestedFiles = new HashMap<>();
+
+    /**
+     * Counts of what one ingest changed.
+     */
+    public static final class IngestResult {
+        private final int rowsAdded;
+        private final int rowsUpdated;
+        private final int rowsRescored;
+
+        IngestResult(int rowsAdded, int rowsUpdated, int rowsRescored) {
+            this.rowsAdded = rowsAdded;
+            this.rowsUpdated = rowsUpdated;
+            this.rowsRescored = rowsRescored;
+        }
+
+        /** @return The number of new (player, season, situation) rows. */
+        public int getRowsAdded() { return rowsAdded; }
+
+        /** @return The number of stored rows whose stats were replaced. */
+        public int getRowsUpdated() { return rowsUpdated; }
+
+        /** @return The number of rows whose takeaway efficiency was recomputed. */
+        public int getRowsRescored() { return rowsRescored; }
+    }
+
+    /**
+     * Adds the rows of a season or delta file to the store. Within one file the first row
+     * for a key wins, as in {@link DataLoader}. Ingesting a file again while its size and
+     * modification time are unchanged does nothing.
+     *
+     * @param filePath Path to a skaters CSV with any mix of seasons and situations.
+     * @return What the ingest changed; all zero if the file was unchanged or unreadable.
+     */
+    public IngestResult ingest(String filePath) {
+        File file = new File(filePath);
+        String path = file.getAbsolutePath();
+        String fingerprint = file.length() + ":" + file.lastModified();
+        if (fingerprint.equals(ingestedFiles.get(path))) {
+            return new IngestResult(0, 0, 0);
+        }
+
+        // Parse the whole file before touching the store, so a failed read changes nothing
+        Map<Integer, Map<Situation, SkaterTable>> staged = new TreeMap<>();
+        long start = System.nanoTime();
+        try {
+            ByteBuffer buffer = MappedCsvReader.map(filePath);
+            MappedCsvReader reader = new MappedCsvReader(buffer, 0, buffer.limit());
+            if (!reader.nextRow()) throw new IOException("CSV file is empty");
+            SkaterSchema schema = SkaterSchema.fromHeader(reader);
+
+            Set<Object> seen = new HashSet<>();
+            while (reader.nextRowLazy()) {
+                stageRow(reader, schema, staged, seen);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+            return new IngestResult(0, 0, 0);
+        } finally {
+            DataLoader.PARSE_TIME.recordSince(start);
+        }
+
+        int added = 0;
+        int updated = 0;
+        int rescored = 0;
+        for (Map.Entry<Integer, Map<Situation, SkaterTable>> season : staged.entrySet()) {
+            for (Map.Entry<Situation, SkaterTable> entry : season.getValue().entrySet()) {
+                Slice slice = seasons.computeIfAbsent(season.getKey(), k -> new EnumMap<>(Situation.class))
+                        .computeIfAbsent(entry.getKey(), k -> new Slice());
+                SkaterTable rows = entry.getValue();
+                long rescoresBefore = slice.normalizer.getRescoreCount();
+                for (int r = 0; r < rows.size(); r++) {
+                    Object key = key(rows.getPlayerId(r), rows.getTeam(r), rows.getName(r));
+                    Integer row = slice.rowByKey.get(key);
+                    if (row == null) {
+                        row = slice.table.addRowFrom(rows, r);
+                        slice.rowByKey.put(key, row);
+                        slice.normalizer.rowAdded(row);
+                        added++;
+                    } else {
+                        int oldTakeaways = slice.table.getTakeaways(row);
+                        int oldGiveaways = slice.table.getGiveaways(row);
+                        slice.table.replaceRowFrom(row, rows, r);
+                        slice.normalizer.rowChanged(row, oldTakeaways, oldGiveaways);
+                        updated++;
+                    }
+                }
+                // Readers use the table's column directly, so any pending rescale is applied now, once
+                slice.normalizer.flush();
+                rescored += (int) (slice.normalizer.getRescoreCount() - rescoresBefore);
+            }
+        }
+
+        ingestedFiles.put(path, fingerprint);
+        return new IngestResult(added, updated, rescored);
+    }
+
+    /**
+     * Gets the seasons with at least one stored row.
+     *
+     * @return The seasons in ascending order.
+     */
+    public Set<Integer> getSeasons() {
+        return Collections.unmodifiableSet(seasons.keySet());
+    }
+
+    /**
+     * Gets the table holding one season's stats for one situation.
+     *
+     * @param season    The season, e.g. 2024 for 2024-25.
+     * @param situation The game situation.
+     * @return The table, or null if nothing was ingested for that season and situation.
+     */
+    public SkaterTable getTable(int season, Situation situation) {
+        Map<Situation, Slice> slices = seasons.get(season);
+        Slice slice = slices == null ? null : slices.get(situation);
+        return slice == null ? null : slice.table;
+    }
+
+    /**
+     * Builds {@link Team} views over one season's stats for one situation. The views see
+     * later stat updates but not later roster changes.
+     *
+     * @param season    The season.
+     * @param situation The game situation.
+     * @return The teams in first-seen order, or an empty list if nothing is stored.
+     */
+    public List<Team> toTeams(int season, Situation situation) {
+        SkaterTable table = getTable(season, situation);
+        return table == null ? Collections.emptyList() : table.toTeams();
+    }
+
+    /**
+     * Gets one player's stats for a season and situation.
+     *
+     * @param playerId  The MoneyPuck player id.
+     * @param season    The season.
+     * @param situation The game situation.
+     * @return A view over the stored row, or null if there is none.
+     */
+    public Player getPlayer(int playerId, int season, Situation situation) {
+        Map<Situation, Slice> slices = seasons.get(season);
+        Slice slice = slices == null ? null : slices.get(situation);
+        Integer row = slice == null ? null : slice.rowByKey.get(playerId);
+        return row == null ? null : slice.table.getPlayer(row);
+    }
+
+    /**
+     * Gets the number of stored rows across all seasons and situations.
+     *
+     * @return The row count.
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Situation, Slice> slices : seasons.values()) {
+            for (Slice slice : slices.values()) size += slice.table.size();
+        }
+        return size;
+    }
+
+    /**
+     * Parses one CSV row into the staging table for its season and situation, unless the
+     * file already had a row for the same key.
+     */
+    private static void stageRow(CsvRow fields, SkaterSchema schema, Map<Integer, Map<Situation, SkaterTable>> staged,
+                                 Set<Object> seen) {
+        DataLoader.ROWS_READ.increment();
+        if (fields.require(schema.getRequiredFields()) < schema.getRequiredFields()) {
+            DataLoader.ROWS_REJECTED.increment();
+            return;
+        }
+        Situation situation = Situation.of(fields, schema.index(SkaterSchema.Column.SITUATION));
+        if (situation == null) return;
+
+        try {
+            int playerId = (int) fields.getDouble(schema.index(SkaterSchema.Column.PLAYER_ID));
+            int season = (int) fields.getDouble(schema.index(SkaterSchema.Column.SEASON));
+            String playerName = fields.getString(schema.index(SkaterSchema.Column.NAME));
+            String teamName = fields.getString(schema.index(SkaterSchema.Column.TEAM));
+            if (!seen.add(Arrays.asList(season, situation, key(playerId, teamName, playerName)))) {
+                DataLoader.ROWS_DUPLICATE.increment();
+                return;
+            }
+
+            SkaterTable table = staged.computeIfAbsent(season, k -> new EnumMap<>(Situation.class))
+                    .computeIfAbsent(situation, k -> new SkaterTable());
+            DataLoader.appendStats(fields, schema, table, teamName, playerName,
+                    fields.getString(schema.index(SkaterSchema.Column.POSITION)));
+
+        } catch (Exception e) {
+            DataLoader.ROWS_REJECTED.increment();
+            System.err.println("Error parsing player data: " + e.getMessage());
+        }
+    }
+
+    private static Object key(int playerId, String team, String name) {
+        return playerId > 0 ? (Object) playerId : team + "-" + name;
+    }
+
+    /**
+     * One season's table for one situation, with its key lookup and takeaway normalization.
+     */
+    private static final class Slice {
+        final SkaterTable table = new SkaterTable(1024);
+        final Map<Object, Integer> rowByKey = new HashMap<>();
+        final TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+    }
+}
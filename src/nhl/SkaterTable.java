@@ -0,0 +1,421 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Columnar storage for skater statistics. Every stat is held in its own primitive
+ * array indexed by player ordinal, so league-wide scoring passes walk memory
+ * sequentially instead of chasing one object per player.
+ *
+ * {@link Player} and {@link Team} are thin views over a table: a player is an
+ * ordinal, and a team is a list of ordinals.
+ */
+public class SkaterTable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int size;
+
+    // Identity columns
+    int[] playerIds;
+    String[] names;
+    String[] positions;
+    String[] teams;
+
+    // Stat columns
+    double[] expectedGoalsAgainst;
+    double[] onIceExpectedGoalsAgainstPer60;
+    int[] hits;
+    int[] takeaways;
+    int[] goals;
+    int[] points;
+    int[] blockedShots;
+    int[] shotAttemptsAgainst;
+    int[] dZoneStarts;
+    int[] giveaways;
+    int[] oZoneStarts;
+    int[] nZoneStarts;
+    double[] iceTime; // in minutes
+    int[] shifts;
+    int[] timeOnBench; // in seconds
+    int[] penalties;
+    int[] penaltyMinutes;
+    double[] highDangerxGoals;
+    int[] reboundGoals;
+    int[] gamesPlayed;
+
+    // Derived columns
+    double[] takeawayEfficiencyScore;
+
+    /** Team code to the ordinals of its players, in insertion order. */
+    private final Map<String, IntList> teamRows = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty table with a default initial capacity.
+     */
+    public SkaterTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table able to hold {@code capacity} players before growing.
+     *
+     * @param capacity The initial number of rows to allocate.
+     */
+    public SkaterTable(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Appends a player row without a MoneyPuck player id and returns its ordinal.
+     *
+     * @param team The team code the player belongs to (may be null for standalone players).
+     * @return The ordinal of the new row.
+     */
+    public int addRow(String team, String name, String position, double expectedGoalsAgainst,
+                      double onIceExpectedGoalsAgainstPer60,
+                      int hits, int takeaways, int goals, int points,
+                      int blockedShots, int shotAttemptsAgainst, int dZoneStarts,
+                      int giveaways, int oZoneStarts, int nZoneStarts,
+                      double iceTime, int shifts, int timeOnBench,
+                      int penalties, int penaltyMinutes,
+                      double highDangerxGoals, int reboundGoals, int gamesPlayed) {
+        return addRow(0, team, name, position, expectedGoalsAgainst, onIceExpectedGoalsAgainstPer60,
+                hits, takeaways, goals, points, blockedShots, shotAttemptsAgainst, dZoneStarts,
+                giveaways, oZoneStarts, nZoneStarts, iceTime, shifts, timeOnBench,
+                penalties, penaltyMinutes, highDangerxGoals, reboundGoals, gamesPlayed);
+    }
+
+    /**
+     * Appends a player row and returns its ordinal.
+     *
+     * @param playerId The MoneyPuck player id (CSV column 0), or 0 if unknown.
+     * @param team     The team code the player belongs to (may be null for standalone players).
+     * @return The ordinal of the new row.
+     */
+    public int addRow(int playerId, String team, String name, String position, double expectedGoalsAgainst,
+                      double onIceExpectedGoalsAgainstPer60,
+                      int hits, int takeaways, int goals, int points,
+                      int blockedShots, int shotAttemptsAgainst, int dZoneStarts,
+                      int giveaways, int oZoneStarts, int nZoneStarts,
+                      double iceTime, int shifts, int timeOnBench,
+                      int penalties, int penaltyMinutes,
+                      double highDangerxGoals, int reboundGoals, int gamesPlayed) {
+        if (size == names.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        this.playerIds[row] = playerId;
+        this.teams[row] = team;
+        this.names[row] = name;
+        this.positions[row] = position;
+        this.expectedGoalsAgainst[row] = expectedGoalsAgainst;
+        this.onIceExpectedGoalsAgainstPer60[row] = onIceExpectedGoalsAgainstPer60;
+        this.hits[row] = hits;
+        this.takeaways[row] = takeaways;
+        this.goals[row] = goals;
+        this.points[row] = points;
+        this.blockedShots[row] = blockedShots;
+        this.shotAttemptsAgainst[row] = shotAttemptsAgainst;
+        this.dZoneStarts[row] = dZoneStarts;
+        this.giveaways[row] = giveaways;
+        this.oZoneStarts[row] = oZoneStarts;
+        this.nZoneStarts[row] = nZoneStarts;
+        this.iceTime[row] = iceTime;
+        this.shifts[row] = shifts;
+        this.timeOnBench[row] = timeOnBench;
+        this.penalties[row] = penalties;
+        this.penaltyMinutes[row] = penaltyMinutes;
+        this.highDangerxGoals[row] = highDangerxGoals;
+        this.reboundGoals[row] = reboundGoals;
+        this.gamesPlayed[row] = gamesPlayed;
+
+        if (team != null) {
+            teamRows.computeIfAbsent(team, k -> new IntList()).add(row);
+        }
+        return row;
+    }
+
+    /**
+     * Appends a copy of a row from another table, including its derived columns.
+     *
+     * @param source The table to copy from.
+     * @param row    The ordinal of the row in {@code source}.
+     * @return The ordinal of the new row in this table.
+     */
+    int addRowFrom(SkaterTable source, int row) {
+        int copy = addRow(source.playerIds[row], source.teams[row], source.names[row], source.positions[row],
+                source.expectedGoalsAgainst[row], source.onIceExpectedGoalsAgainstPer60[row],
+                source.hits[row], source.takeaways[row], source.goals[row], source.points[row],
+                source.blockedShots[row], source.shotAttemptsAgainst[row], source.dZoneStarts[row],
+                source.giveaways[row], source.oZoneStarts[row], source.nZoneStarts[row],
+                source.iceTime[row], source.shifts[row], source.timeOnBench[row],
+                source.penalties[row], source.penaltyMinutes[row],
+                source.highDangerxGoals[row], source.reboundGoals[row], source.gamesPlayed[row]);
+        takeawayEfficiencyScore[copy] = source.takeawayEfficiencyScore[row];
+        return copy;
+    }
+
+    /**
+     * Overwrites a row with a copy of a row from another table, including its derived columns.
+     * If the team changes, the row moves to the end of its new team's rows.
+     *
+     * @param row       The ordinal of the row to overwrite in this table.
+     * @param source    The table to copy from.
+     * @param sourceRow The ordinal of the row in {@code source}.
+     */
+    void replaceRowFrom(int row, SkaterTable source, int sourceRow) {
+        checkRow(row);
+        String team = source.teams[sourceRow];
+        if (!Objects.equals(teams[row], team)) {
+            if (teams[row] != null) {
+                IntList rows = teamRows.get(teams[row]);
+                rows.remove(row);
+                if (rows.size() == 0) teamRows.remove(teams[row]);
+            }
+            if (team != null) teamRows.computeIfAbsent(team, k -> new IntList()).add(row);
+        }
+        playerIds[row] = source.playerIds[sourceRow];
+        teams[row] = team;
+        names[row] = source.names[sourceRow];
+        positions[row] = source.positions[sourceRow];
+        expectedGoalsAgainst[row] = source.expectedGoalsAgainst[sourceRow];
+        onIceExpectedGoalsAgainstPer60[row] = source.onIceExpectedGoalsAgainstPer60[sourceRow];
+        hits[row] = source.hits[sourceRow];
+        takeaways[row] = source.takeaways[sourceRow];
+        goals[row] = source.goals[sourceRow];
+        points[row] = source.points[sourceRow];
+        blockedShots[row] = source.blockedShots[sourceRow];
+        shotAttemptsAgainst[row] = source.shotAttemptsAgainst[sourceRow];
+        dZoneStarts[row] = source.dZoneStarts[sourceRow];
+        giveaways[row] = source.giveaways[sourceRow];
+        oZoneStarts[row] = source.oZoneStarts[sourceRow];
+        nZoneStarts[row] = source.nZoneStarts[sourceRow];
+        iceTime[row] = source.iceTime[sourceRow];
+        shifts[row] = source.shifts[sourceRow];
+        timeOnBench[row] = source.timeOnBench[sourceRow];
+        penalties[row] = source.penalties[sourceRow];
+        penaltyMinutes[row] = source.penaltyMinutes[sourceRow];
+        highDangerxGoals[row] = source.highDangerxGoals[sourceRow];
+        reboundGoals[row] = source.reboundGoals[sourceRow];
+        gamesPlayed[row] = source.gamesPlayed[sourceRow];
+        takeawayEfficiencyScore[row] = source.takeawayEfficiencyScore[sourceRow];
+    }
+
+    /**
+     * Gets the number of player rows in the table.
+     *
+     * @return The row count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the team codes present in the table, in the order they were first seen.
+     *
+     * @return An unmodifiable set of team codes.
+     */
+    public Set<String> getTeamNames() {
+        return Collections.unmodifiableSet(teamRows.keySet());
+    }
+
+    /**
+     * Gets the number of distinct teams in the table.
+     *
+     * @return The team count.
+     */
+    public int teamCount() {
+        return teamRows.size();
+    }
+
+    /**
+     * Gets the ordinals of every player on a team.
+     *
+     * @param team The team code.
+     * @return A copy of the team's row ordinals, or an empty array if the team is unknown.
+     */
+    public int[] getTeamRows(String team) {
+        IntList rows = teamRows.get(team);
+        return rows == null ? new int[0] : rows.toArray();
+    }
+
+    /**
+     * Builds a {@link Team} view for every team in the table.
+     *
+     * @return A list of teams in first-seen order, each backed by this table.
+     */
+    public List<Team> toTeams() {
+        List<Team> result = new ArrayList<>(teamRows.size());
+        for (Map.Entry<String, IntList> entry : teamRows.entrySet()) {
+            result.add(new Team(entry.getKey(), this, entry.getValue().toArray()));
+        }
+        return result;
+    }
+
+    /**
+     * Gets a {@link Player} view over one row.
+     *
+     * @param row The player ordinal.
+     * @return A view that reads through to this table.
+     */
+    public Player getPlayer(int row) {
+        checkRow(row);
+        return new Player(this, row);
+    }
+
+    // Row accessors
+    public int getPlayerId(int row) { return playerIds[row]; }
+    public String getTeam(int row) { return teams[row]; }
+    public String getName(int row) { return names[row]; }
+    public String getPosition(int row) { return positions[row]; }
+    public double getExpectedGoalsAgainst(int row) { return expectedGoalsAgainst[row]; }
+    public double getOnIceExpectedGoalsAgainstPer60(int row) { return onIceExpectedGoalsAgainstPer60[row]; }
+    public int getHits(int row) { return hits[row]; }
+    public int getTakeaways(int row) { return takeaways[row]; }
+    public int getGoals(int row) { return goals[row]; }
+    public int getPoints(int row) { return points[row]; }
+    public int getBlockedShots(int row) { return blockedShots[row]; }
+    public int getShotAttemptsAgainst(int row) { return shotAttemptsAgainst[row]; }
+    public int getDZoneStarts(int row) { return dZoneStarts[row]; }
+    public int getGiveaways(int row) { return giveaways[row]; }
+    public int getOZoneStarts(int row) { return oZoneStarts[row]; }
+    public int getNZoneStarts(int row) { return nZoneStarts[row]; }
+    public double getIceTime(int row) { return iceTime[row]; }
+    public int getShifts(int row) { return shifts[row]; }
+    public int getTimeOnBench(int row) { return timeOnBench[row]; }
+    public int getPenalties(int row) { return penalties[row]; }
+    public int getPenaltyMinutes(int row) { return penaltyMinutes[row]; }
+    public double getHighDangerxGoals(int row) { return highDangerxGoals[row]; }
+    public int getReboundGoals(int row) { return reboundGoals[row]; }
+    public int getGamesPlayed(int row) { return gamesPlayed[row]; }
+    public double getTakeawayEfficiencyScore(int row) { return takeawayEfficiencyScore[row]; }
+    public void setTakeawayEfficiencyScore(int row, double score) { takeawayEfficiencyScore[row] = score; }
+
+    /**
+     * Trims every column to the current row count, releasing the slack left by growth.
+     */
+    public void trimToSize() {
+        if (names.length != size) {
+            grow(Math.max(size, 1));
+        }
+    }
+
+    /**
+     * Gets the integer stat columns in a fixed order, for bulk serialization.
+     * The arrays are the live columns, not copies.
+     */
+    int[][] intColumns() {
+        return new int[][] {
+            playerIds, hits, takeaways, goals, points, blockedShots, shotAttemptsAgainst, dZoneStarts,
+            giveaways, oZoneStarts, nZoneStarts, shifts, timeOnBench, penalties, penaltyMinutes,
+            reboundGoals, gamesPlayed
+        };
+    }
+
+    /**
+     * Gets the floating-point stat and derived columns in a fixed order, for bulk serialization.
+     * The arrays are the live columns, not copies.
+     */
+    double[][] doubleColumns() {
+        return new double[][] {
+            expectedGoalsAgainst, onIceExpectedGoalsAgainstPer60, iceTime, highDangerxGoals,
+            takeawayEfficiencyScore
+        };
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for table of size " + size);
+        }
+    }
+
+    private void allocate(int capacity) {
+        playerIds = new int[capacity];
+        names = new String[capacity];
+        positions = new String[capacity];
+        teams = new String[capacity];
+        expectedGoalsAgainst = new double[capacity];
+        onIceExpectedGoalsAgainstPer60 = new double[capacity];
+        hits = new int[capacity];
+        takeaways = new int[capacity];
+        goals = new int[capacity];
+        points = new int[capacity];
+        blockedShots = new int[capacity];
+        shotAttemptsAgainst = new int[capacity];
+        dZoneStarts = new int[capacity];
+        giveaways = new int[capacity];
+        oZoneStarts = new int[capacity];
+        nZoneStarts = new int[capacity];
+        iceTime = new double[capacity];
+        shifts = new int[capacity];
+        timeOnBench = new int[capacity];
+        penalties = new int[capacity];
+        penaltyMinutes = new int[capacity];
+        highDangerxGoals = new double[capacity];
+        reboundGoals = new int[capacity];
+        gamesPlayed = new int[capacity];
+        takeawayEfficiencyScore = new double[capacity];
+    }
+
+    private void grow(int capacity) {
+        playerIds = Arrays.copyOf(playerIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        teams = Arrays.copyOf(teams, capacity);
+        expectedGoalsAgainst = Arrays.copyOf(expectedGoalsAgainst, capacity);
+        onIceExpectedGoalsAgainstPer60 = Arrays.copyOf(onIceExpectedGoalsAgainstPer60, capacity);
+        hits = Arrays.copyOf(hits, capacity);
+        takeaways = Arrays.copyOf(takeaways, capacity);
+        goals = Arrays.copyOf(goals, capacity);
+        points = Arrays.copyOf(points, capacity);
+        blockedShots = Arrays.copyOf(blockedShots, capacity);
+        shotAttemptsAgainst = Arrays.copyOf(shotAttemptsAgainst, capacity);
+        dZoneStarts = Arrays.copyOf(dZoneStarts, capacity);
+        giveaways = Arrays.copyOf(giveaways, capacity);
+        oZoneStarts = Arrays.copyOf(oZoneStarts, capacity);
+        nZoneStarts = Arrays.copyOf(nZoneStarts, capacity);
+        iceTime = Arrays.copyOf(iceTime, capacity);
+        shifts = Arrays.copyOf(shifts, capacity);
+        timeOnBench = Arrays.copyOf(timeOnBench, capacity);
+        penalties = Arrays.copyOf(penalties, capacity);
+        penaltyMinutes = Arrays.copyOf(penaltyMinutes, capacity);
+        highDangerxGoals = Arrays.copyOf(highDangerxGoals, capacity);
+        reboundGoals = Arrays.copyOf(reboundGoals, capacity);
+        gamesPlayed = Arrays.copyOf(gamesPlayed, capacity);
+        takeawayEfficiencyScore = Arrays.copyOf(takeawayEfficiencyScore, capacity);
+    }
+
+    /**
+     * Minimal growable list of primitive ints used for team membership.
+     */
+    static final class IntList {
+        private int[] values = new int[32];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package nhl;
+
+import java.util.*;
+
+/**
+ * Keeps the takeaway efficiency column of a {@link SkaterTable} current as individual
+ * players' takeaway and giveaway counts change, without rescoring the whole table on
+ * every change.
+ *
+ * The counts of every row are held in two multisets, so the min/max bounds used for
+ * normalization stay exact when a value is replaced, including when the old value was
+ * the extreme. A change that leaves the bounds where they were rescores only the changed
+ * row. A change that moves a bound only records that every score is stale; the rescale
+ * happens once, on the next {@link #flush()} or {@link #score(int)} of a stale row, no
+ * matter how many bounds moved in between.
+ *
+ * Not thread-safe.
+ */
+public class TakeawayNormalizer {
+
+    private final SkaterTable table;
+    private final TreeMap<Integer, Integer> takeawayCounts = new TreeMap<>();
+    private final TreeMap<Integer, Integer> giveawayCounts = new TreeMap<>();
+
+    /** Bumped whenever a bound moves; a row whose score was computed under an older epoch is stale. */
+    private int epoch;
+    private int[] rowEpoch = new int[0];
+    private int tracked;
+    /** Tracked rows scored under the current epoch. */
+    private int current;
+    private long rescoreCount;
+
+    private int minTakeaways;
+    private int maxTakeaways;
+    private int minGiveaways;
+    private int maxGiveaways;
+
+    /**
+     * Starts tracking every row currently in the table. All existing scores are treated as
+     * stale until the first {@link #flush()}.
+     *
+     * @param table The table whose takeaway efficiency column this normalizer maintains.
+     */
+    public TakeawayNormalizer(SkaterTable table) {
+        this.table = table;
+        for (int row = 0; row < table.size(); row++) {
+            increment(takeawayCounts, table.takeaways[row]);
+            increment(giveawayCounts, table.giveaways[row]);
+        }
+        ensureCapacity(table.size());
+        tracked = table.size();
+        updateBounds();
+        epoch = 1; // rows start at epoch 0, so all of them are stale
+        current = 0;
+    }
+
+    /**
+     * Starts tracking a row appended to the table since the last call.
+     *
+     * @param row The new row's ordinal; rows must be added in order.
+     */
+    public void rowAdded(int row) {
+        if (row != tracked) {
+            throw new IllegalArgumentException("Expected row " + tracked + " but got " + row);
+        }
+        ensureCapacity(row + 1);
+        tracked++;
+        increment(takeawayCounts, table.takeaways[row]);
+        increment(giveawayCounts, table.giveaways[row]);
+        rowEpoch[row] = epoch - 1;
+        if (!updateBounds()) rescore(row);
+    }
+
+    /**
+     * Accounts for a change to a tracked row's takeaways or giveaways, which must already
+     * be written to the table.
+     *
+     * @param row           The row's ordinal.
+     * @param oldTakeaways  The row's takeaways before the change.
+     * @param oldGiveaways  The row's giveaways before the change.
+     */
+    public void rowChanged(int row, int oldTakeaways, int oldGiveaways) {
+        checkTracked(row);
+        decrement(takeawayCounts, oldTakeaways);
+        decrement(giveawayCounts, oldGiveaways);
+        increment(takeawayCounts, table.takeaways[row]);
+        increment(giveawayCounts, table.giveaways[row]);
+        if (!updateBounds()) rescore(row);
+    }
+
+    /**
+     * Writes new takeaway and giveaway counts for a tracked row and rescores as needed.
+     *
+     * @param row       The row's ordinal.
+     * @param takeaways The new takeaway count.
+     * @param giveaways The new giveaway count.
+     */
+    public void setCounts(int row, int takeaways, int giveaways) {
+        checkTracked(row);
+        int oldTakeaways = table.takeaways[row];
+        int oldGiveaways = table.giveaways[row];
+        table.takeaways[row] = takeaways;
+        table.giveaways[row] = giveaways;
+        rowChanged(row, oldTakeaways, oldGiveaways);
+    }
+
+    /**
+     * Gets a row's takeaway efficiency, rescoring it first if a bound moved since it was scored.
+     *
+     * @param row The row's ordinal.
+     * @return The up-to-date score, which is also written to the table.
+     */
+    public double score(int row) {
+        checkTracked(row);
+        if (rowEpoch[row] != epoch) rescore(row);
+        return table.takeawayEfficiencyScore[row];
+    }
+
+    /**
+     * Rescores every stale row, so the table's column can be read directly.
+     *
+     * @return The number of rows rescored.
+     */
+    public int flush() {
+        if (current == tracked) return 0;
+        int rescored = 0;
+        for (int row = 0; row < tracked; row++) {
+            if (rowEpoch[row] != epoch) {
+                rescore(row);
+                rescored++;
+            }
+        }
+        return rescored;
+    }
+
+    /**
+     * Gets whether any row is waiting for a rescale.
+     *
+     * @return true if the next {@link #flush()} would rescore at least one row.
+     */
+    public boolean isStale() {
+        return current < tracked;
+    }
+
+    /**
+     * Gets how many row scores this normalizer has computed so far, eagerly or in a rescale.
+     *
+     * @return The running count of rescored rows.
+     */
+    public long getRescoreCount() {
+        return rescoreCount;
+    }
+
+    /** @return The smallest tracked takeaway count, or 0 if no rows are tracked. */
+    public int getMinTakeaways() { return minTakeaways; }
+
+    /** @return The largest tracked takeaway count, or 0 if no rows are tracked. */
+    public int getMaxTakeaways() { return maxTakeaways; }
+
+    /** @return The smallest tracked giveaway count, or 0 if no rows are tracked. */
+    public int getMinGiveaways() { return minGiveaways; }
+
+    /** @return The largest tracked giveaway count, or 0 if no rows are tracked. */
+    public int getMaxGiveaways() { return maxGiveaways; }
+
+    private void rescore(int row) {
+        table.takeawayEfficiencyScore[row] = DataLoader.takeawayEfficiency(table.takeaways[row],
+                table.giveaways[row], minTakeaways, maxTakeaways, minGiveaways, maxGiveaways);
+        if (rowEpoch[row] != epoch) current++;
+        rowEpoch[row] = epoch;
+        rescoreCount++;
+    }
+
+    /**
+     * Reads the bounds back from the multisets.
+     *
+     * @return true if any bound moved, in which case every score is now stale.
+     */
+    private boolean updateBounds() {
+        int newMinTakeaways = takeawayCounts.isEmpty() ? 0 : takeawayCounts.firstKey();
+        int newMaxTakeaways = takeawayCounts.isEmpty() ? 0 : takeawayCounts.lastKey();
+        int newMinGiveaways = giveawayCounts.isEmpty() ? 0 : giveawayCounts.firstKey();
+        int newMaxGiveaways = giveawayCounts.isEmpty() ? 0 : giveawayCounts.lastKey();
+        if (newMinTakeaways == minTakeaways && newMaxTakeaways == maxTakeaways
+                && newMinGiveaways == minGiveaways && newMaxGiveaways == maxGiveaways) {
+            return false;
+        }
+        minTakeaways = newMinTakeaways;
+        maxTakeaways = newMaxTakeaways;
+        minGiveaways = newMinGiveaways;
+        maxGiveaways = newMaxGiveaways;
+        epoch++;
+        current = 0;
+        return true;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows > rowEpoch.length) {
+            rowEpoch = Arrays.copyOf(rowEpoch, Math.max(rows, rowEpoch.length * 2));
+        }
+    }
+
+    private void checkTracked(int row) {
+        if (row < 0 || row >= tracked) {
+            throw new IndexOutOfBoundsException("Row " + row + " is not tracked (" + tracked + " rows)");
+        }
+    }
+
+    private static void increment(TreeMap<Integer, Integer> counts, int value) {
+        counts.merge(value, 1, Integer::sum);
+    }
+
+    private static void decrement(TreeMap<Integer, Integer> counts, int value) {
+        Integer count = counts.get(value);
+        if (count == null) throw new IllegalStateException("Value " + value + " was not tracked");
+        if (count == 1) counts.remove(value);
+        else counts.put(value, count - 1);
+    }
+}
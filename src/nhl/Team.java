@@ -1,13 +1,19 @@
 package nhl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents an NHL team containing a name and a list of player objects as its roster.
+ * A team loaded from CSV is a view over a {@link SkaterTable}: its roster is the list of
+ * row ordinals belonging to the team.
  */
 public class Team {
     private String name;
-    private List<Player> roster;
+    private volatile List<Player> roster;
+    private final SkaterTable table;
+    private final int[] rows;
 
     /**
      * Constructs a new {@code Team} instance with the specified team name and player roster.
@@ -18,6 +24,21 @@ public class Team {
     public Team(String name, List<Player> roster) {
         this.name = name;
         this.roster = roster;
+        this.table = null;
+        this.rows = null;
+    }
+
+    /**
+     * Constructs a team view over rows of a {@link SkaterTable}.
+     *
+     * @param name  The team code.
+     * @param table The table holding the players' stats.
+     * @param rows  The ordinals of the team's players in {@code table}.
+     */
+    Team(String name, SkaterTable table, int[] rows) {
+        this.name = name;
+        this.table = table;
+        this.rows = rows;
     }
 
     /**
@@ -35,6 +56,31 @@ public class Team {
      * @return A list of {@link Player} objects representing the roster.
      */
     public List<Player> getRoster() {
+        if (roster == null && table != null) {
+            List<Player> views = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                views.add(new Player(table, row));
+            }
+            roster = Collections.unmodifiableList(views);
+        }
         return roster;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the table backing this team.
+     *
+     * @return The backing table, or null if the team was built from a plain player list.
+     */
+    public SkaterTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the row ordinals of this team's players in {@link #getTable()}.
+     *
+     * @return A copy of the ordinals, or null if the team is not table-backed.
+     */
+    public int[] getRows() {
+        return rows == null ? null : rows.clone();
+    }
+}
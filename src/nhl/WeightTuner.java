@@ -0,0 +1,405 @@
+package nhl;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Searches for {@link ScoringWeights} whose composite scores rank players the way an
+ * objective does, and writes the best as a profile for {@link LineupGenerator#loadWeightProfile(String)}.
+ *
+ * The objective is the Spearman rank correlation between the composite and a target value per
+ * player: by default each player's own on-ice xGA per 60 (lower is better), or, given a holdout
+ * season, the same player's on-ice xGA per 60 in that season. The players' score terms are
+ * extracted once into a dense row-major matrix, so evaluating a candidate is one pass of dot
+ * products and one primitive sort, and candidates are evaluated in parallel on the common
+ * fork-join pool. Grid search, random search and coordinate descent are available on their own
+ * or chained by {@link #tune(ScoringWeights, int, long)}.
+ *
+ * Scores are computed without a target (threat boost 0), so the matchup gain does not affect
+ * the objective and is never changed. Rank correlation ignores the overall scale of the weights,
+ * so tuned profiles are rescaled to a defensive and offensive weight that sum to 1.
+ *
+ * <pre>
+ * java -cp out nhl.WeightTuner [--data data/skaters.csv] [--holdout next-season.csv] [--min-games N]
+ *     [--samples N] [--seed S] [--grid] [--out weights.properties]
+ * </pre>
+ */
+public class WeightTuner {
+
+    /** The terms whose unweighted values make up a feature row, in matrix column order. */
+    private static final ScoringWeights.Term[] FEATURE_TERMS = Arrays.copyOf(ScoringWeights.Term.values(),
+            ScoringEngine.FEATURES);
+    /** Defensive terms come first; the rest are offensive. */
+    private static final int DEFENSIVE_FEATURES = 4;
+    /** The terms the searches change. */
+    private static final ScoringWeights.Term[] TUNED_TERMS = {
+        ScoringWeights.Term.XGA_PER_60, ScoringWeights.Term.HITS, ScoringWeights.Term.BLOCKED_SHOTS,
+        ScoringWeights.Term.POSSESSION, ScoringWeights.Term.GOALS, ScoringWeights.Term.POINTS,
+        ScoringWeights.Term.HIGH_DANGER_XGOALS, ScoringWeights.Term.REBOUND_GOALS,
+        ScoringWeights.Term.DEF_WEIGHT, ScoringWeights.Term.OFF_WEIGHT
+    };
+    /** Multipliers each feature weight takes in {@link #gridSearch(ScoringWeights, double[])} by default. */
+    static final double[] DEFAULT_GRID = {0.5, 1.0, 2.0};
+
+    private final int rows;
+    /** Row-major: the features of player i are {@code features[i * FEATURES .. (i + 1) * FEATURES)}. */
+    private final double[] features;
+    /** Target ranks minus their mean. */
+    private final double[] targetRanks;
+    private final double targetSumOfSquares;
+    private final ThreadLocal<double[][]> scratch;
+
+    /**
+     * Creates a tuner over a feature matrix.
+     *
+     * @param features Row-major features as written by {@link ScoringEngine#features(Player, double[], int)}.
+     * @param target   One target value per row; higher is better.
+     */
+    WeightTuner(double[] features, double[] target) {
+        if (features.length != target.length * ScoringEngine.FEATURES) {
+            throw new IllegalArgumentException("Feature matrix does not match the target");
+        }
+        this.rows = target.length;
+        this.features = features;
+        this.targetRanks = centeredRanks(target.clone(), new double[rows]);
+        double sumOfSquares = 0;
+        for (double r : targetRanks) sumOfSquares += r * r;
+        this.targetSumOfSquares = sumOfSquares;
+        this.scratch = ThreadLocal.withInitial(() -> new double[][]{new double[rows], new double[rows]});
+    }
+
+    /**
+     * Creates a tuner that ranks players against their own on-ice xGA per 60.
+     *
+     * @param table    The players.
+     * @param minGames Players with fewer games are left out.
+     * @return The tuner.
+     */
+    public static WeightTuner forOnIceXga(SkaterTable table, int minGames) {
+        int[] rows = new int[table.size()];
+        double[] target = new double[table.size()];
+        int n = 0;
+        for (int r = 0; r < table.size(); r++) {
+            if (table.getGamesPlayed(r) < minGames || table.getIceTime(r) <= 0) continue;
+            rows[n] = r;
+            target[n++] = -table.getOnIceExpectedGoalsAgainstPer60(r);
+        }
+        return of(table, Arrays.copyOf(rows, n), Arrays.copyOf(target, n));
+    }
+
+    /**
+     * Creates a tuner that ranks players against their on-ice xGA per 60 in a later season.
+     * Only players with a MoneyPuck id that appear in both tables are used.
+     *
+     * @param training The season the scores are computed from.
+     * @param holdout  The season the scores should predict.
+     * @param minGames Players with fewer games in the training season are left out.
+     * @return The tuner.
+     */
+    public static WeightTuner forHoldout(SkaterTable training, SkaterTable holdout, int minGames) {
+        Map<Integer, Integer> holdoutRows = new HashMap<>();
+        for (int r = 0; r < holdout.size(); r++) {
+            if (holdout.getPlayerId(r) > 0 && holdout.getIceTime(r) > 0) holdoutRows.putIfAbsent(holdout.getPlayerId(r), r);
+        }
+        int[] rows = new int[training.size()];
+        double[] target = new double[training.size()];
+        int n = 0;
+        for (int r = 0; r < training.size(); r++) {
+            Integer h = holdoutRows.get(training.getPlayerId(r));
+            if (h == null || training.getGamesPlayed(r) < minGames || training.getIceTime(r) <= 0) continue;
+            rows[n] = r;
+            target[n++] = -holdout.getOnIceExpectedGoalsAgainstPer60(h);
+        }
+        return of(training, Arrays.copyOf(rows, n), Arrays.copyOf(target, n));
+    }
+
+    /** Extracts the features of the given rows straight from the table's columns. */
+    private static WeightTuner of(SkaterTable table, int[] rows, double[] target) {
+        double[] features = new double[rows.length * ScoringEngine.FEATURES];
+        for (int i = 0; i < rows.length; i++) {
+            ScoringEngine.features(table, rows[i], features, i * ScoringEngine.FEATURES);
+        }
+        return new WeightTuner(features, target);
+    }
+
+    /**
+     * Gets the number of players the objective covers.
+     *
+     * @return The row count of the feature matrix.
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Evaluates the objective for one set of weights.
+     *
+     * @param weights The weights.
+     * @return The Spearman correlation between composite and target, from -1 to 1; 0 if either is constant.
+     */
+    public double evaluate(ScoringWeights weights) {
+        double[] coefficients = coefficients(weights);
+        double[][] buffers = scratch.get();
+        double[] scores = buffers[0];
+        double[] sorted = buffers[1];
+
+        for (int i = 0, f = 0; i < rows; i++, f += ScoringEngine.FEATURES) {
+            double score = 0;
+            for (int j = 0; j < ScoringEngine.FEATURES; j++) score += coefficients[j] * features[f + j];
+            scores[i] = score;
+        }
+        centeredRanks(scores, sorted);
+
+        double covariance = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < rows; i++) {
+            covariance += scores[i] * targetRanks[i];
+            sumOfSquares += scores[i] * scores[i];
+        }
+        if (sumOfSquares == 0 || targetSumOfSquares == 0) return 0;
+        return covariance / Math.sqrt(sumOfSquares * targetSumOfSquares);
+    }
+
+    /**
+     * Evaluates several candidates in parallel.
+     *
+     * @return The objective of each candidate, in order.
+     */
+    double[] evaluateAll(List<ScoringWeights> candidates) {
+        double[] results = new double[candidates.size()];
+        IntStream.range(0, results.length).parallel().forEach(i -> results[i] = evaluate(candidates.get(i)));
+        return results;
+    }
+
+    /**
+     * Tries every combination of multipliers on the feature weights; with n multipliers that is
+     * n to the power 8 candidates.
+     *
+     * @param center      The weights the multipliers apply to.
+     * @param multipliers The multipliers, e.g. {@link #DEFAULT_GRID}.
+     * @return The best candidate; the first one on ties.
+     */
+    public ScoringWeights gridSearch(ScoringWeights center, double[] multipliers) {
+        int total = (int) Math.pow(multipliers.length, FEATURE_TERMS.length);
+        List<ScoringWeights> candidates = new ArrayList<>(total);
+        for (int index = 0; index < total; index++) {
+            ScoringWeights candidate = center;
+            int digits = index;
+            for (ScoringWeights.Term term : FEATURE_TERMS) {
+                candidate = candidate.with(term, center.get(term) * multipliers[digits % multipliers.length]);
+                digits /= multipliers.length;
+            }
+            candidates.add(candidate);
+        }
+        return best(candidates);
+    }
+
+    /**
+     * Tries random candidates around a center, each tuned weight scaled by a factor drawn
+     * log-uniformly between {@code 1 / spread} and {@code spread}.
+     *
+     * @param center  The weights to perturb; also tried unchanged.
+     * @param samples The number of random candidates.
+     * @param spread  The largest scale factor, at least 1.
+     * @param seed    The random seed; the same seed gives the same candidates.
+     * @return The best candidate; the first one on ties.
+     */
+    public ScoringWeights randomSearch(ScoringWeights center, int samples, double spread, long seed) {
+        double logSpread = Math.log(Math.max(1.0, spread));
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ScoringWeights> candidates = new ArrayList<>(samples + 1);
+        candidates.add(center);
+        for (int s = 0; s < samples; s++) {
+            ScoringWeights candidate = center;
+            for (ScoringWeights.Term term : TUNED_TERMS) {
+                double factor = Math.exp((2 * random.nextDouble() - 1) * logSpread);
+                candidate = candidate.with(term, center.get(term) * factor);
+            }
+            candidates.add(candidate);
+        }
+        return best(candidates);
+    }
+
+    /**
+     * Improves weights one coordinate at a time: each round tries every tuned weight scaled up
+     * and down by the current step, keeps the best move if it improves the objective and
+     * otherwise halves the step (in log terms). A weight of 0 stays 0.
+     *
+     * @param start     The starting weights.
+     * @param maxRounds The most rounds to run.
+     * @return The best weights found.
+     */
+    public ScoringWeights coordinateDescent(ScoringWeights start, int maxRounds) {
+        ScoringWeights best = start;
+        double bestScore = evaluate(best);
+        double step = 2.0;
+        for (int round = 0; round < maxRounds && step > 1.001; round++) {
+            List<ScoringWeights> candidates = new ArrayList<>(2 * TUNED_TERMS.length);
+            for (ScoringWeights.Term term : TUNED_TERMS) {
+                candidates.add(best.with(term, best.get(term) * step));
+                candidates.add(best.with(term, best.get(term) / step));
+            }
+            double[] scores = evaluateAll(candidates);
+            int bestIndex = 0;
+            for (int i = 1; i < scores.length; i++) {
+                if (scores[i] > scores[bestIndex]) bestIndex = i;
+            }
+            if (scores[bestIndex] > bestScore) {
+                best = candidates.get(bestIndex);
+                bestScore = scores[bestIndex];
+            } else {
+                step = Math.sqrt(step);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs a random search around the starting weights, refines the best candidate by
+     * coordinate descent and normalizes the result.
+     *
+     * @param start   The starting weights, e.g. {@link ScoringWeights#DEFAULT}.
+     * @param samples The number of random candidates.
+     * @param seed    The random seed.
+     * @return The tuned weights, never worse than the starting weights.
+     */
+    public ScoringWeights tune(ScoringWeights start, int samples, long seed) {
+        ScoringWeights best = randomSearch(start, samples, 4.0, seed);
+        return normalize(coordinateDescent(best, 200));
+    }
+
+    /**
+     * Rescales the defensive and offensive weights to sum to 1, which leaves every ranking as is.
+     *
+     * @param weights The weights.
+     * @return The rescaled weights, or the weights unchanged if their split does not sum to a positive value.
+     */
+    static ScoringWeights normalize(ScoringWeights weights) {
+        double sum = weights.get(ScoringWeights.Term.DEF_WEIGHT) + weights.get(ScoringWeights.Term.OFF_WEIGHT);
+        if (!(sum > 0)) return weights;
+        return weights.with(ScoringWeights.Term.DEF_WEIGHT, weights.get(ScoringWeights.Term.DEF_WEIGHT) / sum)
+                .with(ScoringWeights.Term.OFF_WEIGHT, weights.get(ScoringWeights.Term.OFF_WEIGHT) / sum);
+    }
+
+    private ScoringWeights best(List<ScoringWeights> candidates) {
+        double[] scores = evaluateAll(candidates);
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        return candidates.get(best);
+    }
+
+    /**
+     * Folds the defensive/offensive split into the feature weights, so a composite at threat
+     * boost 0 is the dot product of a feature row with the result.
+     */
+    private static double[] coefficients(ScoringWeights weights) {
+        double[] coefficients = new double[ScoringEngine.FEATURES];
+        double defWeight = weights.get(ScoringWeights.Term.DEF_WEIGHT);
+        double offWeight = weights.get(ScoringWeights.Term.OFF_WEIGHT);
+        for (int j = 0; j < coefficients.length; j++) {
+            coefficients[j] = (j < DEFENSIVE_FEATURES ? defWeight : offWeight) * weights.get(FEATURE_TERMS[j]);
+        }
+        return coefficients;
+    }
+
+    /**
+     * Replaces each value with its rank minus the mean rank; tied values share their average rank.
+     *
+     * @param values The values; overwritten with the centered ranks.
+     * @param sorted Scratch space of the same length.
+     * @return {@code values}.
+     */
+    private static double[] centeredRanks(double[] values, double[] sorted) {
+        int n = values.length;
+        System.arraycopy(values, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        double meanRank = (n - 1) / 2.0;
+        for (int i = 0; i < n; i++) {
+            int first = bound(sorted, n, values[i], false);
+            int last = bound(sorted, n, values[i], true) - 1;
+            values[i] = (first + last) / 2.0 - meanRank;
+        }
+        return values;
+    }
+
+    /** Binary search for the first position holding a value greater than (or, if not {@code after}, not less than) a key. */
+    private static int bound(double[] sorted, int n, double key, boolean after) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = Double.compare(sorted[mid], key);
+            if (cmp < 0 || (after && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public static void main(String[] args) {
+        String dataPath = "data/skaters.csv";
+        String holdoutPath = null;
+        String outPath = "weights.properties";
+        int minGames = 20;
+        int samples = 20_000;
+        long seed = 1;
+        boolean grid = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data": dataPath = args[++i]; break;
+                    case "--holdout": holdoutPath = args[++i]; break;
+                    case "--out": outPath = args[++i]; break;
+                    case "--min-games": minGames = Integer.parseInt(args[++i]); break;
+                    case "--samples": samples = Integer.parseInt(args[++i]); break;
+                    case "--seed": seed = Long.parseLong(args[++i]); break;
+                    case "--grid": grid = true; break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (samples < 0) throw new IllegalArgumentException("--samples must not be negative");
+        } catch (RuntimeException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: WeightTuner [--data skaters.csv] [--holdout next-season.csv] [--min-games N] [--samples N] [--seed S] [--grid] [--out weights.properties]");
+            System.exit(2);
+            return;
+        }
+
+        SkaterTable table = DataLoader.loadSkaterTable(dataPath);
+        SkaterTable holdout = holdoutPath != null ? DataLoader.loadSkaterTable(holdoutPath) : null;
+        WeightTuner tuner = holdout != null ? forHoldout(table, holdout, minGames) : forOnIceXga(table, minGames);
+        if (tuner.size() < 3) {
+            System.err.println("Too few players to tune against: " + tuner.size());
+            System.exit(1);
+            return;
+        }
+        String objective = holdout != null ? "on-ice xGA/60 in " + holdoutPath : "on-ice xGA/60";
+
+        long start = System.nanoTime();
+        ScoringWeights startWeights = ScoringEngine.getWeightProfile();
+        double baseline = tuner.evaluate(startWeights);
+        ScoringWeights seedWeights = grid ? tuner.gridSearch(startWeights, DEFAULT_GRID) : startWeights;
+        ScoringWeights tuned = tuner.tune(seedWeights, samples, seed);
+        double result = tuner.evaluate(tuned);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "Players: %d, objective: Spearman with %s%n", tuner.size(), objective);
+        System.out.printf(Locale.ROOT, "Starting weights: %.4f%n", baseline);
+        System.out.printf(Locale.ROOT, "Tuned weights:    %.4f (%.1f s)%n", result, seconds);
+        System.out.println(tuned);
+        try {
+            tuned.save(outPath, String.format(Locale.ROOT, "Tuned on %d players, Spearman with %s %.4f (was %.4f)",
+                    tuner.size(), objective, result, baseline));
+            System.out.println("Wrote " + outPath);
+        } catch (IOException e) {
+            System.err.println("Error writing weight profile: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.io.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class BatchRunnerTest {
+
+    private Player createPlayer(String name, String pos, int takeaways, int goals) {
+        return new Player(name, pos, 0.0, 0.0, 0, takeaways, goals, 0,
+                0, 0, 0, 0, 0, 0, 1000, 0, 0, 0, 0, 0.0, 0, 82);
+    }
+
+    private BatchRunner createRunner() {
+        Team home = new Team("HOM", Arrays.asList(
+                createPlayer("Home D1", "D", 5, 0), createPlayer("Home D2", "D", 4, 0),
+                createPlayer("Home L", "L", 3, 1), createPlayer("Home C", "C", 3, 1),
+                createPlayer("Home R", "R", 3, 1)));
+        Team away = new Team("AWY", Arrays.asList(
+                createPlayer("Sniper", "C", 0, 50), createPlayer("Away D", "D", 1, 0)));
+        return new BatchRunner(Arrays.asList(home, away));
+    }
+
+    private List<String> run(String input, BatchRunner.Format format, int threads) throws IOException {
+        StringWriter out = new StringWriter();
+        createRunner().run(new BufferedReader(new StringReader(input)), out, format, threads);
+        return Arrays.asList(out.toString().split("\n"));
+    }
+
+    @Test
+    public void testResultsKeepInputOrder() throws IOException {
+        StringBuilder input = new StringBuilder("team,target\n");
+        for (int i = 0; i < 500; i++) {
+            input.append(i % 2 == 0 ? "HOM" : "AWY").append(",Sniper\n");
+        }
+        List<String> lines = run(input.toString(), BatchRunner.Format.NDJSON, 4);
+
+        assertEquals(500, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i), lines.get(i).startsWith("{\"line\":" + (i + 2) + ","));
+            assertTrue(lines.get(i).contains("\"elapsedMicros\":"));
+        }
+    }
+
+    @Test
+    public void testNdjsonLineupAndErrors() throws IOException {
+        List<String> lines = run("# comment\nhom,Sniper\n\nNOPE,Sniper\nHOM,Sniper,x,1\n", BatchRunner.Format.NDJSON, 2);
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"status\":\"ok\""));
+        assertTrue(lines.get(0).contains("\"targetFound\":true"));
+        assertTrue(lines.get(0).contains("\"threatBoost\":1.0000"));
+        assertTrue(lines.get(0).contains("{\"name\":\"Home D1\",\"position\":\"D\"}"));
+        assertTrue(lines.get(1).contains("\"error\":\"Unknown team NOPE\""));
+        assertTrue(lines.get(2).startsWith("{\"line\":5,"));
+        assertTrue(lines.get(2).contains("\"status\":\"error\""));
+    }
+
+    @Test
+    public void testCsvWithWeights() throws IOException {
+        List<String> lines = run("HOM,Nobody,1.0,0.0\n", BatchRunner.Format.CSV, 1);
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("line,team,target,status"));
+        String[] fields = lines.get(1).split(",", -1);
+        assertEquals("1", fields[0]);
+        assertEquals("ok", fields[3]);
+        assertEquals("false", fields[4]);
+        assertEquals(5, fields[6].split("\\|").length);
+        assertEquals(String.format(Locale.ROOT, "%.4f", 2.0 * (5 + 4 + 3 + 3 + 3)), fields[7]);
+        assertEquals("", fields[9]);
+    }
+}
@@ -4,7 +4,12 @@ package test.nhl;
 import org.junit.*;
 
 import nhl.DataLoader;
+import nhl.LoadListener;
 import nhl.Player;
+import nhl.PlayerDictionary;
+import nhl.Situation;
+import nhl.SituationTables;
+import nhl.SkaterTable;
 import nhl.Team;
 
 import java.io.*;
@@ -69,6 +74,194 @@ public class DataLoaderTest {
         assertEquals(1, teams.get(0).getRoster().size());
     }
 
+    @Test
+    public void testLoadModes_produceSameTable() throws IOException {
+        String csv = "Header\n" +
+                     "0,0,Player One,TeamA,C,5on5," + "1.5,".repeat(137) + "\r\n" +
+                     "0,0,Player Two,TeamA,D,5on5,82,3600," + "2,".repeat(98) + "12.25," + "3,".repeat(37) + "\n" +
+                     "0,0,Player Three,TeamB,L,all," + "0,".repeat(137) + "\n";
+        tempCsv = createTempCSV(csv);
+        SkaterTable buffered = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), DataLoader.LoadMode.BUFFERED);
+        SkaterTable mapped = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), DataLoader.LoadMode.MAPPED);
+
+        assertEquals(2, mapped.size());
+        assertEquals(buffered.size(), mapped.size());
+        for (int i = 0; i < mapped.size(); i++) {
+            assertEquals(buffered.getName(i), mapped.getName(i));
+            assertEquals(buffered.getIceTime(i), mapped.getIceTime(i), 0.0);
+            assertEquals(buffered.getOnIceExpectedGoalsAgainstPer60(i), mapped.getOnIceExpectedGoalsAgainstPer60(i), 0.0);
+            assertEquals(buffered.getHits(i), mapped.getHits(i));
+            assertEquals(buffered.getTakeawayEfficiencyScore(i), mapped.getTakeawayEfficiencyScore(i), 0.0);
+        }
+    }
+
+    /** Header and one row in the standard MoneyPuck layout, with every column named. */
+    private static String[][] standardHeaderAndRow() {
+        String[] header = new String[135];
+        String[] row = new String[135];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = "unused" + i;
+            row[i] = "0";
+        }
+        header[2] = "name"; row[2] = "Player One";
+        header[3] = "team"; row[3] = "TeamA";
+        header[4] = "position"; row[4] = "C";
+        header[5] = "situation"; row[5] = "5on5";
+        header[6] = "games_played"; row[6] = "41";
+        header[7] = "icetime"; row[7] = "3600";
+        header[46] = "I_F_hits"; row[46] = "17";
+        String[] standard = {"playerId", "season", "shifts", "I_F_points", "I_F_goals", "I_F_reboundGoals",
+                "penalties", "I_F_penalityMinutes", "I_F_takeaways", "I_F_giveaways", "I_F_highDangerxGoals",
+                "I_F_oZoneShiftStarts", "I_F_dZoneShiftStarts", "I_F_neutralZoneShiftStarts", "timeOnBench",
+                "shotsBlockedByPlayer", "OnIce_F_unblockedShotAttempts", "OnIce_A_shotAttempts",
+                "OnIce_A_highDangerGoals"};
+        int[] standardIndex = {0, 1, 8, 33, 34, 36, 43, 44, 47, 48, 54, 69, 70, 71, 79, 83, 106, 122, 134};
+        for (int i = 0; i < standard.length; i++) header[standardIndex[i]] = standard[i];
+        return new String[][]{header, row};
+    }
+
+    @Test
+    public void testLoadModes_resolveColumnsByHeader() throws IOException {
+        // Every column named, then written out in reverse order
+        String[][] csv = standardHeaderAndRow();
+        List<String> headerList = new ArrayList<>(Arrays.asList(csv[0]));
+        List<String> rowList = new ArrayList<>(Arrays.asList(csv[1]));
+        Collections.reverse(headerList);
+        Collections.reverse(rowList);
+        tempCsv = createTempCSV(String.join(",", headerList) + "\n" + String.join(",", rowList) + "\n");
+
+        for (DataLoader.LoadMode mode : DataLoader.LoadMode.values()) {
+            SkaterTable table = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), mode);
+            assertEquals(mode.name(), 1, table.size());
+            assertEquals(mode.name(), "Player One", table.getName(0));
+            assertEquals(mode.name(), "TeamA", table.getTeam(0));
+            assertEquals(mode.name(), 60.0, table.getIceTime(0), 0.0);
+            assertEquals(mode.name(), 17, table.getHits(0));
+        }
+    }
+
+    @Test
+    public void testLoadModes_rejectHeaderMissingSomeColumns() throws IOException {
+        String[][] csv = standardHeaderAndRow();
+        csv[0][46] = "hits";
+        tempCsv = createTempCSV(String.join(",", csv[0]) + "\n" + String.join(",", csv[1]) + "\n");
+
+        for (DataLoader.LoadMode mode : DataLoader.LoadMode.values()) {
+            assertEquals(mode.name(), 0, DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), mode).size());
+        }
+    }
+
+    @Test
+    public void testLoadModes_ignoreByteOrderMarkAndSpacesInHeader() throws IOException {
+        String[][] csv = standardHeaderAndRow();
+        csv[0][46] = " I_F_hits ";
+        tempCsv = File.createTempFile("test_players", ".csv");
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(tempCsv), "UTF-8")) {
+            w.write("\uFEFF" + String.join(",", csv[0]) + "\n" + String.join(",", csv[1]) + "\n");
+        }
+
+        // The mapped loaders decode UTF-8 regardless of the platform charset
+        for (DataLoader.LoadMode mode : EnumSet.of(DataLoader.LoadMode.MAPPED, DataLoader.LoadMode.PARALLEL)) {
+            SkaterTable table = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), mode);
+            assertEquals(mode.name(), 1, table.size());
+            assertEquals(mode.name(), 17, table.getHits(0));
+        }
+    }
+
+    @Test
+    public void testParallelLoadKeepsFirstOccurrence() throws IOException {
+        StringBuilder csv = new StringBuilder("Header\n");
+        for (int i = 0; i < 3000; i++) {
+            // Every player appears twice, 1500 rows apart, with different hit counts
+            int player = i % 1500;
+            csv.append("0,0,Player ").append(player).append(",Team").append(player % 32).append(",C,5on5,82,3600,")
+               .append("1.25,".repeat(38)).append(i).append(",").append("0.5,".repeat(91)).append("0\n");
+        }
+        tempCsv = createTempCSV(csv.toString());
+        SkaterTable mapped = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), DataLoader.LoadMode.MAPPED);
+        SkaterTable parallel = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), DataLoader.LoadMode.PARALLEL);
+
+        assertEquals(1500, parallel.size());
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(mapped.getName(i), parallel.getName(i));
+            assertEquals(i, parallel.getHits(i));
+            assertEquals(mapped.getTakeawayEfficiencyScore(i), parallel.getTakeawayEfficiencyScore(i), 0.0);
+        }
+        assertArrayEquals(mapped.getTeamRows("Team7"), parallel.getTeamRows("Team7"));
+    }
+
+    @Test
+    public void testLoadAllSituations_onePassSharedDictionary() throws IOException {
+        String csv = "Header\n" +
+                     "0,0,Player One,TeamA,C,other,82,60," + "1,".repeat(130) + "0\n" +
+                     "0,0,Player One,TeamA,C,5on5,82,3600," + "2,".repeat(130) + "0\n" +
+                     "0,0,Player One,TeamA,C,4on5,82,120," + "3,".repeat(130) + "0\n" +
+                     "0,0,Player Two,TeamB,D,5on5,82,3000," + "4,".repeat(130) + "0\n" +
+                     "0,0,Player Two,TeamB,D,5on5,82,9999," + "5,".repeat(130) + "0\n" +
+                     "0,0,Player Two,TeamB,D,PowerPlay,82,1," + "6,".repeat(130) + "0\n";
+        tempCsv = createTempCSV(csv);
+        SituationTables tables = DataLoader.loadAllSituations(tempCsv.getAbsolutePath());
+        PlayerDictionary dictionary = tables.getDictionary();
+
+        assertEquals(2, dictionary.size());
+        int one = dictionary.ordinalOf("TeamA", "Player One");
+        int two = dictionary.ordinalOf("TeamB", "Player Two");
+        assertEquals(2, tables.getTable(Situation.FIVE_ON_FIVE).size());
+        assertEquals(1, tables.getTable(Situation.PENALTY_KILL).size());
+        assertEquals(1, tables.getTable(Situation.OTHER).size());
+        assertEquals(0, tables.getTable(Situation.POWER_PLAY).size());
+        assertEquals(-1, tables.rowOf(Situation.PENALTY_KILL, two));
+        assertNull(tables.getPlayer(Situation.ALL, one));
+
+        assertEquals(1.0, tables.getPlayer(Situation.OTHER, one).getIceTime(), 0.0);
+        assertEquals(2.0, tables.getPlayer(Situation.PENALTY_KILL, one).getIceTime(), 0.0);
+        assertEquals(50.0, tables.getPlayer(Situation.FIVE_ON_FIVE, two).getIceTime(), 0.0); // first row wins
+        assertSame(dictionary.getName(one), tables.getPlayer(Situation.PENALTY_KILL, one).getName());
+        assertSame(dictionary.getName(one), tables.getPlayer(Situation.OTHER, one).getName());
+
+        // The 5-on-5 slice matches the dedicated 5-on-5 loader
+        SkaterTable fiveOnFive = DataLoader.loadSkaterTable(tempCsv.getAbsolutePath());
+        SkaterTable slice = tables.getTable(Situation.FIVE_ON_FIVE);
+        for (int i = 0; i < fiveOnFive.size(); i++) {
+            assertEquals(fiveOnFive.getName(i), slice.getName(i));
+            assertEquals(fiveOnFive.getIceTime(i), slice.getIceTime(i), 0.0);
+            assertEquals(fiveOnFive.getTakeawayEfficiencyScore(i), slice.getTakeawayEfficiencyScore(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testLoadListener_reportsTeamsAndProgress() throws IOException {
+        StringBuilder csv = new StringBuilder("Header\n");
+        for (int i = 0; i < 3000; i++) {
+            csv.append("0,0,Player ").append(i).append(",Team").append(i % 32).append(",C,5on5,82,3600,")
+               .append("1.25,".repeat(130)).append("0\n");
+        }
+        tempCsv = createTempCSV(csv.toString());
+        long fileSize = tempCsv.length();
+
+        for (DataLoader.LoadMode mode : DataLoader.LoadMode.values()) {
+            List<String> teamsSeen = Collections.synchronizedList(new ArrayList<>());
+            long[] lastProgress = new long[2];
+            DataLoader.loadSkaterTable(tempCsv.getAbsolutePath(), mode, new LoadListener() {
+                @Override
+                public synchronized void onProgress(long bytesRead, long totalBytes) {
+                    assertTrue(bytesRead >= lastProgress[0]);
+                    lastProgress[0] = bytesRead;
+                    lastProgress[1] = totalBytes;
+                }
+
+                @Override
+                public void onTeamSeen(String team) {
+                    teamsSeen.add(team);
+                }
+            });
+            assertEquals(mode.name(), 32, teamsSeen.size());
+            assertEquals(mode.name(), 32, new HashSet<>(teamsSeen).size());
+            assertEquals(mode.name(), fileSize, lastProgress[0]);
+            assertEquals(mode.name(), fileSize, lastProgress[1]);
+        }
+    }
+
     @Test
     public void testFindPlayerByName_found() throws IOException {
         List<Team> teams = new ArrayList<>();
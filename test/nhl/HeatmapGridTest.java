@@ -0,0 +1,84 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+public class HeatmapGridTest {
+
+    private File tempCsv;
+
+    @After
+    public void tearDown() throws IOException {
+        if (tempCsv != null) {
+            Files.deleteIfExists(Paths.get(tempCsv.getAbsolutePath() + ".heat"));
+            Files.deleteIfExists(ShotIndex.indexPathFor(tempCsv.toPath().toAbsolutePath()));
+            tempCsv.delete();
+        }
+    }
+
+    @Test
+    public void testCellIndexFlipsYAndRejectsOffRink() {
+        assertEquals(0, HeatmapGrid.cellIndex(-100, 42.5));
+        assertEquals(42 * HeatmapGrid.WIDTH + 100, HeatmapGrid.cellIndex(0, 0));
+        assertEquals(-1, HeatmapGrid.cellIndex(101, 0));
+        assertEquals(-1, HeatmapGrid.cellIndex(0, 43));
+    }
+
+    @Test
+    public void testSumMatchesCells() {
+        List<ShotData> shots = Arrays.asList(
+                new ShotData(-95, 40, "A", 0.2),
+                new ShotData(50, -10, "A", 0.3),
+                new ShotData(50.5, -10.2, "A", 0.1));
+        HeatmapGrid grid = HeatmapGrid.fromShots(shots);
+        assertEquals(0.6, grid.total(), 1e-9);
+        assertEquals(3, grid.getShotCount());
+        assertEquals(0.4, grid.sum(150, 52, 151, 53), 1e-9);
+        assertEquals(0.2, grid.sum(0, 0, 100, 85), 1e-9);
+    }
+
+    @Test
+    public void testResamplePreservesTotalAtAnySize() {
+        List<ShotData> shots = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            shots.add(new ShotData(random.nextDouble() * 200 - 100, random.nextDouble() * 85 - 42.5, "A", random.nextDouble()));
+        }
+        HeatmapGrid grid = HeatmapGrid.fromShots(shots);
+        for (int[] size : new int[][]{{1000, 425}, {400, 170}, {733, 311}}) {
+            // Only whole cells are drawn, so compare against the area they cover
+            double[][] cells = grid.resample(size[0], size[1], 10);
+            double sum = 0;
+            for (double[] column : cells) for (double v : column) sum += v;
+            int coveredX = (int) Math.round(cells.length * 10 * 200.0 / size[0]);
+            int coveredY = (int) Math.round(cells[0].length * 10 * 85.0 / size[1]);
+            assertEquals(grid.sum(0, 0, coveredX, coveredY), sum, 1e-9);
+        }
+    }
+
+    @Test
+    public void testStoreMatchesPerShooterLoad() throws IOException {
+        tempCsv = File.createTempFile("test_heat", ".csv");
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempCsv))) {
+            bw.write("shooterName,xCordAdjusted,yCordAdjusted,xGoal\n");
+            bw.write("Shooter A,10,10,0.5\nShooter B,20,-20,0.25\nshooter a,10.4,10.1,0.125\nShooter B,300,0,0.9\n");
+        }
+        assertNull(HeatmapStore.current(tempCsv.getAbsolutePath())); // never aggregates
+        HeatmapStore store = HeatmapStore.forFile(tempCsv.getAbsolutePath());
+        assertSame(store, HeatmapStore.current(tempCsv.getAbsolutePath()));
+        HeatmapGrid fromStore = store.grid("SHOOTER A");
+        HeatmapGrid direct = HeatmapGrid.fromShots(ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Shooter A"));
+        assertEquals(direct.total(), fromStore.total(), 1e-12);
+        assertEquals(2, fromStore.getShotCount());
+        assertEquals(1, store.grid("Shooter B").getShotCount()); // off-rink shot dropped
+        assertNull(store.grid("Nobody"));
+
+        // A second lookup comes from the on-disk cache written by the first
+        assertTrue(Files.exists(Paths.get(tempCsv.getAbsolutePath() + ".heat")));
+    }
+}
@@ -0,0 +1,82 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 16; value++) histogram.record(value);
+
+        assertEquals(16, histogram.getCount());
+        assertEquals(7.5, histogram.getMean(), 1e-9);
+        assertEquals(7, histogram.valueAtPercentile(50));
+        assertEquals(15, histogram.valueAtPercentile(100));
+        assertEquals(0, histogram.valueAtPercentile(0));
+    }
+
+    @Test
+    public void testPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            long value = (long) Math.exp(random.nextDouble() * 20); // 1 ns to about 0.5 s
+            values.add(value);
+            histogram.record(value);
+        }
+        Collections.sort(values);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values.get((int) Math.ceil(percentile / 100 * values.size()) - 1);
+            long reported = histogram.valueAtPercentile(percentile);
+            assertTrue("p" + percentile + " below exact value", reported >= exact);
+            assertTrue("p" + percentile + " too coarse: " + reported + " vs " + exact, reported <= exact * 1.07 + 1);
+        }
+        assertEquals((long) values.get(values.size() - 1), histogram.getMax());
+        assertEquals(histogram.getMax(), histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void testHugeAndNegativeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long offset = t * 1000L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50000; i++) histogram.record(offset + i % 1000);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(200000, histogram.getCount());
+        assertEquals(3999, histogram.getMax());
+        assertEquals(1999.5, histogram.getMean(), 1e-9);
+    }
+}
@@ -0,0 +1,97 @@
+package test.nhl;
+
+import nhl.Leaderboard;
+import nhl.Player;
+import nhl.SkaterTable;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class LeaderboardTest {
+
+    private SkaterTable table;
+    private Leaderboard leaderboard;
+
+    private int addPlayer(String team, String name, String pos, int hits, int points, int gamesPlayed) {
+        return table.addRow(team, name, pos, 1.0, 2.0, hits, 0, 0, points, 0, 0, 0, 0, 0, 0,
+                60.0, 0, 0, 0, 0, 0.5, 0, gamesPlayed);
+    }
+
+    private static List<String> names(List<Player> players) {
+        List<String> names = new ArrayList<>();
+        for (Player p : players) names.add(p.getName());
+        return names;
+    }
+
+    @Before
+    public void setUp() {
+        table = new SkaterTable();
+        addPlayer("CGY", "A", "C", 10, 5, 82);
+        addPlayer("EDM", "B", "D", 30, 1, 10);
+        addPlayer("CGY", "C", "L", 20, 9, 60);
+        addPlayer("EDM", "D", "D", 30, 3, 70);
+        addPlayer("TOR", "E", "R", 5, 7, 82);
+        leaderboard = new Leaderboard(table);
+    }
+
+    @Test
+    public void testTopAndBottomOrderTiesByRow() {
+        assertEquals(Arrays.asList("B", "D", "C"), names(leaderboard.top(Leaderboard.Stat.HITS, 3)));
+        assertEquals(Arrays.asList("E", "A"), names(leaderboard.bottom(Leaderboard.Stat.HITS, 2)));
+        assertEquals(5, leaderboard.top(Leaderboard.Stat.HITS, 50).size());
+        assertTrue(leaderboard.top(Leaderboard.Stat.HITS, 0).isEmpty());
+    }
+
+    @Test
+    public void testFilters() {
+        Leaderboard.Filter forwards = Leaderboard.Filter.ALL.position("F");
+        assertEquals(Arrays.asList("C", "E", "A"), names(leaderboard.top(Leaderboard.Stat.POINTS, 5, forwards)));
+        assertEquals(Arrays.asList("D"),
+                names(leaderboard.top(Leaderboard.Stat.HITS, 5, Leaderboard.Filter.ALL.position("d").minGamesPlayed(20))));
+        assertEquals(Arrays.asList("A", "C"),
+                names(leaderboard.bottom(Leaderboard.Stat.POINTS, 5, Leaderboard.Filter.ALL.team("cgy"))));
+    }
+
+    @Test
+    public void testCachedPermutationMatchesHeap() {
+        table = new SkaterTable();
+        Random random = new Random(7);
+        String[] positions = {"C", "L", "R", "D"};
+        for (int i = 0; i < 500; i++) {
+            addPlayer("T" + random.nextInt(8), "P" + i, positions[random.nextInt(4)],
+                    random.nextInt(40), random.nextInt(40), random.nextInt(82));
+        }
+        Leaderboard.Filter filter = Leaderboard.Filter.ALL.position("F").minGamesPlayed(30);
+        for (Leaderboard.Stat stat : Leaderboard.Stat.values()) {
+            Leaderboard fresh = new Leaderboard(table);
+            List<Player> heapTop = fresh.top(stat, 25, filter);
+            List<Player> heapBottom = fresh.bottom(stat, 25);
+            assertEquals(stat.name(), heapTop, fresh.top(stat, 25, filter)); // now cached
+            assertEquals(stat.name(), heapBottom, fresh.bottom(stat, 25));
+        }
+    }
+
+    @Test
+    public void testAddedRowsInvalidateCache() {
+        leaderboard.top(Leaderboard.Stat.HITS, 1);
+        leaderboard.top(Leaderboard.Stat.HITS, 1);
+        addPlayer("TOR", "F", "C", 99, 0, 1);
+        assertEquals("F", leaderboard.top(Leaderboard.Stat.HITS, 1).get(0).getName());
+    }
+
+    @Test
+    public void testCustomMetric() {
+        Leaderboard.Metric hitsPlusPoints = Leaderboard.Metric.of(p -> p.getHits() + p.getPoints());
+        assertEquals(Arrays.asList("D", "B"), names(leaderboard.top(hitsPlusPoints, 2)));
+    }
+
+    @Test
+    public void testMetricsCreatedPerQueryStayCorrect() {
+        Leaderboard.Metric reused = Leaderboard.Metric.of(Player::getPoints);
+        for (int i = 0; i < 200; i++) {
+            assertEquals("B", leaderboard.top(Leaderboard.Metric.of(Player::getHits), 1).get(0).getName());
+            assertEquals("C", leaderboard.top(reused, 1).get(0).getName());
+        }
+    }
+}
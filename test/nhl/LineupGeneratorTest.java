@@ -47,6 +47,25 @@ public class LineupGeneratorTest {
         assertTrue(positions.containsAll(Arrays.asList("L", "C", "R", "D")));
     }
 
+    @Test
+    public void testPenaltyKillUnitHasTwoForwards() {
+        Player l = createPlayer("L", "L", 82, 1, 1200, 1, 2, 1, 3, 1, 2, 0.5, 1);
+        Player c1 = createPlayer("C1", "C", 82, 1, 1200, 2, 5, 0, 2, 1, 2, 0.4, 1);
+        Player c2 = createPlayer("C2", "C", 82, 1, 1200, 2, 4, 0, 2, 1, 2, 0.4, 1);
+        Player r = createPlayer("R", "R", 82, 1, 1200, 2, 0, 2, 2, 0, 0, 0.3, 0);
+        Player d1 = createPlayer("D1", "D", 82, 0.8, 1300, 5, 4, 1, 4, 0, 1, 0.2, 0);
+        Player d2 = createPlayer("D2", "D", 82, 0.9, 1250, 6, 3, 2, 3, 0, 1, 0.1, 0);
+        Team team = new Team("PK", Arrays.asList(l, c1, c2, r, d1, d2));
+
+        List<Player> unit = LineupGenerator.getBestDefensiveLineup(null, team, "Enemy", Situation.PENALTY_KILL);
+        assertEquals(4, unit.size());
+        assertTrue(unit.containsAll(Arrays.asList(c1, c2, d1, d2)));
+
+        List<Player> evenStrength = LineupGenerator.getBestDefensiveLineup(null, team, "Enemy", Situation.FIVE_ON_FIVE);
+        assertEquals(LineupGenerator.getBestDefensiveLineup(team, "Enemy"), evenStrength);
+        assertEquals(5, evenStrength.size());
+    }
+
     @Test
     public void testFallbackForMissingPositions() {
         Player c = createPlayer("OnlyCenter", "C", 82, 1, 1200, 1, 1, 1, 1, 1, 1, 0.5, 0);
@@ -102,4 +121,27 @@ public class LineupGeneratorTest {
         List<Player> result = LineupGenerator.getBestDefensiveLineup(team, "Nonexistent", null);
         assertEquals(1, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAlternativesFromSimilarityIndex() {
+        Player l = createPlayer("L", "L", 82, 1, 1200, 1, 2, 1, 3, 1, 2, 0.5, 1);
+        Player c = createPlayer("C", "C", 82, 1, 1200, 2, 1, 0, 2, 1, 2, 0.4, 1);
+        Player r = createPlayer("R", "R", 82, 1, 1200, 2, 3, 2, 2, 3, 3, 0.3, 0);
+        Player d1 = createPlayer("D1", "D", 82, 0.8, 1300, 5, 4, 1, 4, 0, 1, 0.2, 0);
+        Player d2 = createPlayer("D2", "D", 82, 0.9, 1250, 6, 3, 2, 3, 0, 1, 0.1, 0);
+        Team team = new Team("FullTeam", Arrays.asList(l, c, r, d1, d2));
+        // Plays like D2 with more hits and takeaways, and fewer goals against
+        Player better = createPlayer("Better", "D", 82, 0.5, 1250, 7, 4, 2, 3, 0, 1, 0.1, 0);
+        Player shortSeason = createPlayer("Short", "D", 30, 0.1, 1250, 9, 9, 0, 9, 0, 1, 0.1, 0);
+        SimilarityIndex similar = SimilarityIndex.build(Arrays.asList(l, c, r, d1, d2, better, shortSeason));
+
+        List<Player> base = LineupGenerator.getBestDefensiveLineup(null, team, "Enemy", Situation.FIVE_ON_FIVE);
+        assertEquals(base, LineupGenerator.getBestDefensiveLineup(null, team, "Enemy", Situation.FIVE_ON_FIVE, similar, 0));
+
+        List<Player> withAlternatives =
+                LineupGenerator.getBestDefensiveLineup(null, team, "Enemy", Situation.FIVE_ON_FIVE, similar, 2);
+        assertEquals(5, withAlternatives.size());
+        assertTrue(withAlternatives.contains(better));
+        assertFalse(withAlternatives.contains(shortSeason));
+    }
+}
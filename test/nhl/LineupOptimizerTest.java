@@ -0,0 +1,122 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class LineupOptimizerTest {
+
+    /** A player whose composite score under {@code ENGINE} is exactly {@code 0.3 * goals * 0.15}. */
+    private Player createPlayer(String name, String pos, int goals, double iceTime) {
+        return new Player(name, pos, 0.0, 0.0, 0, 0, goals, 0,
+                0, 0, 0, 0, 0, 0, iceTime, 0, 0, 0, 0, 0.0, 0, 82);
+    }
+
+    private static final ScoringEngine ENGINE = new ScoringEngine(0.7, 0.3, 0.0);
+
+    private List<Player> roster() {
+        return Arrays.asList(
+                createPlayer("D1", "D", 100, 1000),
+                createPlayer("D2", "D", 90, 1000),
+                createPlayer("D3", "D", 80, 2000),
+                createPlayer("L1", "L", 100, 1000),
+                createPlayer("L2", "L", 50, 1000),
+                createPlayer("C1", "C", 100, 1000),
+                createPlayer("C2", "C", 95, 1000),
+                createPlayer("R1", "R", 100, 1000));
+    }
+
+    private Set<String> names(LineupOptimizer.Unit unit) {
+        Set<String> names = new HashSet<>();
+        for (Player p : unit.getPlayers()) names.add(p.getName());
+        return names;
+    }
+
+    @Test
+    public void testAdditiveObjectivePicksBestPerSlot() {
+        LineupOptimizer.Unit unit = new LineupOptimizer(ENGINE).optimize(roster());
+        assertEquals(new HashSet<>(Arrays.asList("D1", "D2", "L1", "C1", "R1")), names(unit));
+        assertEquals(0.045 * 490, unit.getScore(), 1e-9);
+        assertEquals("D1", unit.getPlayers().get(0).getName()); // best individual score first
+    }
+
+    @Test
+    public void testChemistryCanOutweighIndividualScores() {
+        LineupOptimizer.Unit unit = new LineupOptimizer(ENGINE)
+                .withChemistry((a, b) -> {
+                    Set<String> pair = new HashSet<>(Arrays.asList(a.getName(), b.getName()));
+                    return pair.equals(new HashSet<>(Arrays.asList("D3", "C2"))) ? 5.0 : 0.0;
+                })
+                .optimize(roster());
+        assertEquals(new HashSet<>(Arrays.asList("D1", "D3", "L1", "C2", "R1")), names(unit));
+        assertEquals(0.045 * 475 + 5.0, unit.getScore(), 1e-9);
+    }
+
+    @Test
+    public void testMinimumIceTimeForcesHeavierUnit() {
+        LineupOptimizer.Unit unit = new LineupOptimizer(ENGINE).withMinIceTime(6000).optimize(roster());
+        assertTrue(names(unit).contains("D3"));
+        double ice = 0;
+        for (Player p : unit.getPlayers()) ice += p.getIceTime();
+        assertTrue(ice >= 6000);
+    }
+
+    @Test
+    public void testInfeasibleMinimumIceTimeGivesEmptyUnit() {
+        LineupOptimizer.Unit unit = new LineupOptimizer(ENGINE).withMinIceTime(1e9).optimize(roster());
+        assertTrue(unit.getPlayers().isEmpty());
+        assertEquals(Double.NEGATIVE_INFINITY, unit.getScore(), 0.0);
+    }
+
+    @Test
+    public void testFlexPenaltyLetsForwardFillEmptySlot() {
+        List<Player> noRightWing = new ArrayList<>(roster());
+        noRightWing.removeIf(p -> p.getName().equals("R1"));
+
+        assertEquals(4, new LineupOptimizer(ENGINE).optimize(noRightWing).getPlayers().size());
+
+        LineupOptimizer.Unit flexed = new LineupOptimizer(ENGINE).withFlexPenalty(1.0).optimize(noRightWing);
+        assertEquals(new HashSet<>(Arrays.asList("D1", "D2", "L1", "C1", "C2")), names(flexed));
+        assertEquals(0.045 * 485 - 1.0, flexed.getScore(), 1e-9);
+    }
+
+    @Test
+    public void testMatchesExhaustiveSearchWithChemistry() {
+        Random random = new Random(42);
+        String[] positions = {"D", "D", "D", "D", "D", "D", "L", "L", "L", "C", "C", "C", "R", "R", "R"};
+        for (int trial = 0; trial < 25; trial++) {
+            List<Player> players = new ArrayList<>();
+            for (int i = 0; i < positions.length; i++) {
+                players.add(createPlayer("P" + i, positions[i], random.nextInt(100), 500 + random.nextInt(1000)));
+            }
+            long seed = random.nextLong();
+            LineupOptimizer.PairChemistry chemistry = (a, b) -> {
+                int h = a.getName().hashCode() ^ b.getName().hashCode();
+                return new Random(seed ^ h).nextDouble() * 4 - 2;
+            };
+            double minIce = 3000 + random.nextInt(2000);
+            LineupOptimizer.Unit unit = new LineupOptimizer(ENGINE)
+                    .withChemistry(chemistry).withMinIceTime(minIce).optimize(players);
+
+            assertEquals(exhaustiveBest(players, chemistry, minIce), unit.getScore(), 1e-9);
+        }
+    }
+
+    private double exhaustiveBest(List<Player> players, LineupOptimizer.PairChemistry chemistry, double minIce) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (Player d1 : players) for (Player d2 : players) for (Player l : players) for (Player c : players) for (Player r : players) {
+            if (!d1.getPosition().equals("D") || !d2.getPosition().equals("D") || d1.getName().compareTo(d2.getName()) >= 0) continue;
+            if (!l.getPosition().equals("L") || !c.getPosition().equals("C") || !r.getPosition().equals("R")) continue;
+            Player[] unit = {d1, d2, l, c, r};
+            double score = 0, ice = 0;
+            for (int i = 0; i < unit.length; i++) {
+                score += ENGINE.score(unit[i]);
+                ice += unit[i].getIceTime();
+                for (int j = i + 1; j < unit.length; j++) score += chemistry.between(unit[i], unit[j]);
+            }
+            if (ice >= minIce) best = Math.max(best, score);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,137 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class LineupServerTest {
+
+    private File shotsCsv;
+    private LineupServer server;
+    private int port;
+
+    private Player createPlayer(String name, String pos, int takeaways, int goals) {
+        return new Player(name, pos, 0.0, 0.0, 0, takeaways, goals, 0,
+                0, 0, 0, 0, 0, 0, 1000, 0, 0, 0, 0, 0.0, 0, 82);
+    }
+
+    private List<Team> createTeams() {
+        Team home = new Team("HOM", Arrays.asList(
+                createPlayer("Home D1", "D", 5, 0), createPlayer("Home D2", "D", 4, 0),
+                createPlayer("Home L", "L", 3, 1), createPlayer("Home C", "C", 3, 1),
+                createPlayer("Home R", "R", 3, 1)));
+        Team away = new Team("AWY", Arrays.asList(createPlayer("Sniper", "C", 0, 50)));
+        return Arrays.asList(home, away);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        shotsCsv = File.createTempFile("test_server_shots", ".csv");
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(shotsCsv))) {
+            bw.write("shotID,xCordAdjusted,yCordAdjusted,shooterName,xGoal\n" +
+                     "1,50,10,Sniper,0.25\n" +
+                     "2,80,0,Sniper,0.5\n");
+        }
+        server = new LineupServer(createTeams(), shotsCsv.getAbsolutePath(), 8);
+        port = server.start(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop();
+        Files.deleteIfExists(Paths.get(shotsCsv.getAbsolutePath() + ".heat"));
+        shotsCsv.delete();
+    }
+
+    private HttpURLConnection get(String path, String ifNoneMatch) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        if (ifNoneMatch != null) conn.setRequestProperty("If-None-Match", ifNoneMatch);
+        return conn;
+    }
+
+    private String body(HttpURLConnection conn) throws IOException {
+        InputStream in = conn.getResponseCode() < 400 ? conn.getInputStream() : conn.getErrorStream();
+        try (InputStream stream = in) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testLineupEndpoint() throws IOException {
+        HttpURLConnection conn = get("/lineup?team=hom&target=Sniper", null);
+        assertEquals(200, conn.getResponseCode());
+        String json = body(conn);
+        assertTrue(json, json.startsWith("{\"team\":\"HOM\",\"target\":\"Sniper\",\"targetFound\":true,\"threatBoost\":1.0000"));
+        assertTrue(json.contains("{\"name\":\"Home D1\",\"position\":\"D\""));
+    }
+
+    @Test
+    public void testEtagRevalidation() throws IOException {
+        HttpURLConnection first = get("/lineup?team=HOM&target=Sniper", null);
+        assertEquals(200, first.getResponseCode());
+        String etag = first.getHeaderField("ETag");
+        assertNotNull(etag);
+        body(first);
+
+        HttpURLConnection second = get("/lineup?team=HOM&target=Sniper", etag);
+        assertEquals(304, second.getResponseCode());
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertEquals(404, get("/lineup?team=NOPE", null).getResponseCode());
+        assertEquals(400, get("/lineup", null).getResponseCode());
+        assertEquals(404, get("/player/Nobody", null).getResponseCode());
+        assertEquals(404, get("/unknown", null).getResponseCode());
+    }
+
+    @Test
+    public void testPlayerEndpoint() throws IOException {
+        HttpURLConnection conn = get("/player/home%20d1", null);
+        assertEquals(200, conn.getResponseCode());
+        String json = body(conn);
+        assertTrue(json, json.startsWith("{\"name\":\"Home D1\",\"teams\":[{\"team\":\"HOM\""));
+        assertTrue(json.contains("\"takeaways\":5"));
+    }
+
+    @Test
+    public void testHeatmapJsonAndPng() throws IOException {
+        HttpURLConnection json = get("/heatmap/sniper", null);
+        assertEquals(200, json.getResponseCode());
+        String body = body(json);
+        assertTrue(body, body.contains("\"shots\":2"));
+        assertTrue(body.contains("\"totalXG\":0.7500"));
+        assertTrue(body.contains("[150,32,0.2500]"));
+
+        HttpURLConnection png = get("/heatmap/Sniper?format=png&width=200&height=85", null);
+        assertEquals(200, png.getResponseCode());
+        assertEquals("image/png", png.getContentType());
+        byte[] bytes = png.getInputStream().readAllBytes();
+        assertEquals((byte) 0x89, bytes[0]);
+        assertEquals('P', bytes[1]);
+
+        assertEquals(404, get("/heatmap/Nobody", null).getResponseCode());
+        assertEquals(400, get("/heatmap/Sniper?format=png&width=4000&height=4000", null).getResponseCode());
+    }
+
+    @Test
+    public void testBusyServerAnswers503() throws IOException {
+        LineupServer busy = new LineupServer(createTeams(), shotsCsv.getAbsolutePath(), 0);
+        int busyPort = busy.start(0);
+        try {
+            HttpURLConnection conn = (HttpURLConnection)
+                    new URL("http://localhost:" + busyPort + "/lineup?team=HOM").openConnection();
+            assertEquals(503, conn.getResponseCode());
+            assertEquals("1", conn.getHeaderField("Retry-After"));
+        } finally {
+            busy.stop();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package test.nhl;
+
+import nhl.MappedCsvReader;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class MappedCsvReaderTest {
+
+    private MappedCsvReader readerFor(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new MappedCsvReader(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    @Test
+    public void testFieldCountMatchesSplit() {
+        MappedCsvReader reader = readerFor("a,b,,d,\n");
+        assertTrue(reader.nextRow());
+        assertEquals("a,b,,d,".split(",", -1).length, reader.fieldCount());
+        assertFalse(reader.nextRow());
+    }
+
+    @Test
+    public void testHandlesCrLfAndMissingTrailingNewline() {
+        MappedCsvReader reader = readerFor("x,1\r\ny,2");
+        assertTrue(reader.nextRow());
+        assertEquals("x", reader.getString(0));
+        assertEquals(1.0, reader.getDouble(1), 0.0);
+        assertTrue(reader.nextRow());
+        assertEquals("y", reader.getString(0));
+        assertEquals(2.0, reader.getDouble(1), 0.0);
+        assertFalse(reader.nextRow());
+    }
+
+    @Test
+    public void testParsesDoublesExactly() {
+        String[] values = {"0", "-12.5", "2237.0", " 0.37 ", "3.1e-4", "1E3", "+7", "123456789012345678901", "0.000000000000000000000001"};
+        MappedCsvReader reader = readerFor(String.join(",", values));
+        assertTrue(reader.nextRow());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], Double.parseDouble(values[i].trim()), reader.getDouble(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testMalformedNumbersAreZero() {
+        MappedCsvReader reader = readerFor(",abc,1.2.3,-,1e,5on5");
+        assertTrue(reader.nextRow());
+        for (int i = 0; i < reader.fieldCount(); i++) {
+            assertEquals(0.0, reader.getDouble(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testFieldEqualsIgnoresWhitespace() {
+        MappedCsvReader reader = readerFor("0, 5on5 ,5on4");
+        assertTrue(reader.nextRow());
+        assertTrue(reader.fieldEquals(1, "5on5"));
+        assertFalse(reader.fieldEquals(2, "5on5"));
+    }
+
+    @Test
+    public void testLazyRowLocatesOnlyRequiredFields() {
+        MappedCsvReader reader = readerFor("a,b,c,d,e\nf,g\n");
+        assertTrue(reader.nextRowLazy());
+        assertEquals(0, reader.fieldCount());
+        assertEquals(2, reader.require(2));
+        assertEquals("b", reader.getString(1));
+        assertEquals(5, reader.require(Integer.MAX_VALUE));
+        assertEquals("e", reader.getString(4));
+
+        assertTrue(reader.nextRowLazy());
+        assertEquals(2, reader.require(6)); // short row: only what is there
+        assertEquals("g", reader.getString(1));
+        assertFalse(reader.nextRowLazy());
+    }
+
+    @Test
+    public void testLazyRowSkipsUnreadFieldsAcrossLineEndings() {
+        String longLine = "x," + "0123456789,".repeat(20) + "end";
+        MappedCsvReader reader = readerFor(longLine + "\r\ny,1\rz,2\n" + longLine);
+        String[] expected = {"x", "y", "z", "x"};
+        for (String first : expected) {
+            assertTrue(reader.nextRowLazy());
+            reader.require(1);
+            assertEquals(first, reader.getString(0));
+        }
+        assertFalse(reader.nextRowLazy());
+    }
+}
@@ -0,0 +1,70 @@
+package test.nhl;
+
+import nhl.MatchupSimulator;
+import nhl.Player;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class MatchupSimulatorTest {
+
+    private static Player skater(String name, String pos, double onIceXga60, int takeaways, int giveaways,
+                                 int goals, double highDanger) {
+        return new Player(name, pos, 5.0, onIceXga60, 10, takeaways, goals, goals, 10, 0, 0, giveaways,
+                0, 0, 1000.0, 0, 0, 0, 0, highDanger, 0, 82);
+    }
+
+    private static List<Player> unit(double onIceXga60) {
+        List<Player> unit = new ArrayList<>();
+        for (int i = 0; i < 5; i++) unit.add(skater("P" + i, i < 2 ? "D" : "C", onIceXga60, 0, 0, 0, 0));
+        return unit;
+    }
+
+    @Test
+    public void testSameSeedSameResult() {
+        MatchupSimulator simulator = new MatchupSimulator(unit(3.0), null);
+        // More than one chunk, so the parallel split is exercised
+        MatchupSimulator.Result a = simulator.simulate(100_000, 42);
+        MatchupSimulator.Result b = simulator.simulate(100_000, 42);
+        assertArrayEquals(a.getGoalCounts(), b.getGoalCounts());
+        assertFalse(Arrays.equals(a.getGoalCounts(), simulator.simulate(100_000, 43).getGoalCounts()));
+    }
+
+    @Test
+    public void testMeanTracksOnIceXga() {
+        MatchupSimulator.Result result = new MatchupSimulator(unit(3.0), null).simulate(200_000, 1);
+        assertEquals(200_000, result.getTrials());
+        assertEquals(15.0, result.getMinutesPerTrial(), 1e-9);
+        assertEquals(3.0, result.getMeanGoalsAgainstPer60(), 0.1);
+        assertTrue(result.getStdDevGoalsAgainstPer60() > 0);
+        assertTrue(result.getGoalsAgainstPer60AtPercentile(5) <= result.getGoalsAgainstPer60AtPercentile(95));
+        assertEquals(Math.exp(-0.75), result.getShutoutProbability(), 0.02); // Poisson, 0.75 goals per trial
+    }
+
+    @Test
+    public void testThreatAndPossessionMoveTheMean() {
+        List<Player> base = unit(3.0);
+        Player sniper = skater("Sniper", "C", 0, 0, 0, 40, 20.0);
+        List<Player> ballHawks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) ballHawks.add(skater("H" + i, "D", 3.0, 2000, 0, 0, 0));
+
+        double baseMean = new MatchupSimulator(base, null).simulate(100_000, 7).getMeanGoalsAgainstPer60();
+        assertTrue(new MatchupSimulator(base, sniper).simulate(100_000, 7).getMeanGoalsAgainstPer60() > 1.5 * baseMean);
+        assertTrue(new MatchupSimulator(ballHawks, null).simulate(100_000, 7).getMeanGoalsAgainstPer60() < 0.5 * baseMean);
+    }
+
+    @Test
+    public void testRankUnitsBestFirst() {
+        List<List<Player>> units = Arrays.asList(unit(4.0), unit(1.0), unit(2.5));
+        assertArrayEquals(new int[]{1, 2, 0}, MatchupSimulator.rankUnits(units, null, 50_000, 3));
+    }
+
+    @Test
+    public void testEmptyRuns() {
+        MatchupSimulator.Result none = new MatchupSimulator(unit(3.0), null).simulate(0, 1);
+        assertEquals(0.0, none.getMeanGoalsAgainstPer60(), 0.0);
+        MatchupSimulator.Result empty = new MatchupSimulator(Collections.emptyList(), null).withShifts(3).simulate(1000, 1);
+        assertEquals(1.0, empty.getShutoutProbability(), 0.0);
+    }
+}
@@ -0,0 +1,124 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class MetricsTest {
+
+    private File tempFile;
+
+    @After
+    public void tearDown() {
+        Metrics.stopPeriodicDump();
+        if (tempFile != null) tempFile.delete();
+    }
+
+    private String row(String name, String team) {
+        String[] fields = new String[140];
+        Arrays.fill(fields, "0");
+        fields[2] = name;
+        fields[3] = team;
+        fields[4] = "D";
+        fields[5] = "5on5";
+        return String.join(",", fields) + "\n";
+    }
+
+    @Test
+    public void testMetricsAreSharedByName() {
+        Metrics.Counter counter = Metrics.counter("test.shared", "A counter for tests");
+        long before = counter.getCount();
+        Metrics.counter("test.shared", "Description ignored after the first call").add(3);
+        counter.increment();
+
+        assertSame(counter, Metrics.counter("test.shared", ""));
+        assertEquals(before + 4, counter.getCount());
+        assertSame(Metrics.timer("test.sharedTimer", ""), Metrics.timer("test.sharedTimer", ""));
+    }
+
+    @Test
+    public void testMetricsArePublishedOverJmx() throws Exception {
+        Metrics.counter("test.jmx", "Published counter").add(7);
+        Metrics.Timer timer = Metrics.timer("test.jmxTimer", "Published timer");
+        timer.record(2_000_000);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName counterName = new ObjectName(Metrics.JMX_DOMAIN + ":type=Counter,name=" + ObjectName.quote("test.jmx"));
+        ObjectName timerName = new ObjectName(Metrics.JMX_DOMAIN + ":type=Timer,name=" + ObjectName.quote("test.jmxTimer"));
+        assertEquals(7L, server.getAttribute(counterName, "Count"));
+        assertEquals("Published counter", server.getAttribute(counterName, "Description"));
+        assertEquals(1L, server.getAttribute(timerName, "Count"));
+        assertEquals(2.0, (Double) server.getAttribute(timerName, "MaxMillis"), 1e-9);
+    }
+
+    @Test
+    public void testDumpListsCountersAndTimers() {
+        Metrics.counter("test.dumped", "").add(42);
+        Metrics.timer("test.dumpedTimer", "").record(1_500_000);
+
+        String dump = Metrics.dump();
+        assertTrue(dump, dump.matches("(?s).*test\\.dumped\\s+42\\n.*"));
+        assertTrue(dump, dump.contains("test.dumpedTimer"));
+        assertTrue(dump, dump.contains("max=1.500ms"));
+    }
+
+    @Test
+    public void testPeriodicDumpWritesToStream() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Metrics.counter("test.periodic", "").increment();
+        Metrics.startPeriodicDump(1, new PrintStream(bytes, true, "UTF-8"));
+        Thread.sleep(1300);
+        Metrics.stopPeriodicDump();
+
+        String out = bytes.toString(StandardCharsets.UTF_8.name());
+        assertTrue(out, out.startsWith("--- metrics ---"));
+        assertTrue(out, out.contains("test.periodic"));
+    }
+
+    private static String standardHeader() {
+        String[] names = new String[140];
+        for (int i = 0; i < names.length; i++) names[i] = "unused" + i;
+        for (SkaterSchema.Column column : SkaterSchema.Column.values()) {
+            names[column.getStandardIndex()] = column.getHeader();
+        }
+        return String.join(",", names) + "\n";
+    }
+
+    @Test
+    public void testLoaderCountsRowsAndPhases() throws IOException {
+        tempFile = File.createTempFile("test_metrics", ".csv");
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempFile))) {
+            bw.write(standardHeader());
+            bw.write(row("Player One", "CGY"));
+            bw.write(row("Player One", "CGY"));   // duplicate
+            bw.write("1,2024,Short Row,CGY\n");   // rejected
+            bw.write(row("Player Two", "EDM"));
+        }
+        Metrics.Counter read = Metrics.counter("load.rows.read", "");
+        Metrics.Counter rejected = Metrics.counter("load.rows.rejected", "");
+        Metrics.Counter duplicate = Metrics.counter("load.rows.duplicate", "");
+        Metrics.Timer parse = Metrics.timer("load.parse", "");
+        Metrics.Timer finalize = Metrics.timer("load.finalize", "");
+        long readBefore = read.getCount();
+        long rejectedBefore = rejected.getCount();
+        long duplicateBefore = duplicate.getCount();
+        long parseBefore = parse.getCount();
+        long finalizeBefore = finalize.getCount();
+
+        SkaterTable table = DataLoader.loadSkaterTable(tempFile.getAbsolutePath());
+
+        assertEquals(2, table.size());
+        assertEquals(4, read.getCount() - readBefore);
+        assertEquals(1, rejected.getCount() - rejectedBefore);
+        assertEquals(1, duplicate.getCount() - duplicateBefore);
+        assertEquals(1, parse.getCount() - parseBefore);
+        assertEquals(1, finalize.getCount() - finalizeBefore);
+    }
+}
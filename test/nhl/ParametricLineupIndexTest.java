@@ -0,0 +1,98 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ParametricLineupIndexTest {
+
+    @After
+    public void tearDown() {
+        ScoringEngine.setWeightProfile(ScoringWeights.DEFAULT);
+    }
+
+    private Player createPlayer(String name, String pos, int takeaways, int goals, double highDanger) {
+        return new Player(name, pos, 0.0, 0.0, 0, takeaways, goals, 0,
+                0, 0, 0, 0, 0, 0, 1000, 0, 0, 0, 0, highDanger, 0, 82);
+    }
+
+    /**
+     * D1 is always picked. DefD (composite 7 + 1.75t) overtakes OffD (composite 0.045 * 180 = 8.1)
+     * at t = 1.1 / 1.75.
+     */
+    private Team createTeam() {
+        return new Team("TST", Arrays.asList(
+                createPlayer("D1", "D", 50, 0, 0),
+                createPlayer("DefD", "D", 5, 0, 0),
+                createPlayer("OffD", "D", 0, 180, 0),
+                createPlayer("L1", "L", 1, 1, 0),
+                createPlayer("C1", "C", 1, 1, 0),
+                createPlayer("R1", "R", 1, 1, 0)));
+    }
+
+    private Player target(double threatBoost) {
+        return createPlayer("Target", "C", 0, 0, 5 * threatBoost);
+    }
+
+    @Test
+    public void testBreakpointAtScoreCrossing() {
+        ParametricLineupIndex index = ParametricLineupIndex.build(createTeam());
+        double[] breakpoints = index.getBreakpoints();
+        assertEquals(1, breakpoints.length);
+        assertEquals(1.1 / 1.75, breakpoints[0], 1e-9);
+    }
+
+    @Test
+    public void testLineupSwitchesAtBreakpoint() {
+        ParametricLineupIndex index = ParametricLineupIndex.build(createTeam());
+        Set<String> low = new HashSet<>();
+        for (Player p : index.lineupFor(0.2)) low.add(p.getName());
+        Set<String> high = new HashSet<>();
+        for (Player p : index.lineupFor(0.9)) high.add(p.getName());
+
+        assertTrue(low.contains("OffD") && !low.contains("DefD"));
+        assertTrue(high.contains("DefD") && !high.contains("OffD"));
+    }
+
+    @Test
+    public void testMatchesDirectLineupForAnyTarget() {
+        Team team = createTeam();
+        ParametricLineupIndex index = ParametricLineupIndex.build(team);
+        double[] boosts = {0.0, 0.1, 0.5, 1.1 / 1.75, 0.7, 0.999, 1.0};
+        for (double boost : boosts) {
+            Player target = target(boost);
+            PlayerIndex league = PlayerIndex.build(Arrays.asList(team, new Team("OPP", Arrays.asList(target))));
+            List<Player> direct = LineupGenerator.getBestDefensiveLineup(league, team, "Target");
+            assertEquals("boost " + boost, direct, index.lineupFor(target));
+        }
+    }
+
+    @Test
+    public void testNullTargetUsesZeroBoost() {
+        ParametricLineupIndex index = ParametricLineupIndex.build(createTeam());
+        assertEquals(index.lineupFor(0.0), index.lineupFor((Player) null));
+    }
+
+    @Test
+    public void testKeepsWeightsAfterProfileChange() {
+        ParametricLineupIndex index = ParametricLineupIndex.build(createTeam());
+        double nearBreakpoint = 1.1 / 1.75 + 1e-10; // solved directly, not from the cached units
+        List<Player> before = index.lineupFor(nearBreakpoint);
+        List<Player> cached = index.lineupFor(0.9);
+
+        // Without the matchup gain DefD would never overtake OffD
+        ScoringEngine.setWeightProfile(ScoringWeights.DEFAULT.with(ScoringWeights.Term.MATCHUP_GAIN, 0.0));
+        assertEquals(ScoringWeights.DEFAULT, index.getWeights());
+        assertEquals(before, index.lineupFor(nearBreakpoint));
+        assertEquals(cached, index.lineupFor(0.9));
+        assertNotEquals(before, ParametricLineupIndex.build(createTeam()).lineupFor(nearBreakpoint));
+    }
+
+    @Test
+    public void testBuildAllKeysByTeamName() {
+        Map<String, ParametricLineupIndex> indexes = ParametricLineupIndex.buildAll(Arrays.asList(createTeam()));
+        assertEquals(Collections.singleton("TST"), indexes.keySet());
+        assertEquals("TST", indexes.get("TST").getTeam().getName());
+    }
+}
@@ -0,0 +1,66 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class PlayerIndexTest {
+
+    private SkaterTable table;
+    private PlayerIndex index;
+
+    private void addPlayer(int id, String team, String name) {
+        table.addRow(id, team, name, "C", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                60.0, 0, 0, 0, 0, 0.0, 0, 82);
+    }
+
+    @Before
+    public void setUp() {
+        table = new SkaterTable();
+        addPlayer(100, "CGY", "Nazem Kadri");
+        addPlayer(200, "EDM", "Traded Guy");
+        addPlayer(300, "EDM", "Connor McDavid");
+        addPlayer(200, "CGY", "Traded Guy");
+        index = PlayerIndex.build(table.toTeams());
+    }
+
+    @Test
+    public void testFindByNameIgnoresCase() {
+        assertEquals("Connor McDavid", index.findByName("connor mcdavid").getName());
+        assertNull(index.findByName("Nobody"));
+        assertNull(index.findByName(null));
+    }
+
+    @Test
+    public void testPlayerOnTwoTeamsReturnsAllEntriesInTeamOrder() {
+        List<PlayerIndex.Entry> entries = index.findEntriesByName("TRADED GUY");
+        assertEquals(2, entries.size());
+        assertEquals("CGY", entries.get(0).getTeam().getName());
+        assertEquals("EDM", entries.get(1).getTeam().getName());
+        assertEquals("CGY", index.getTeamNameForPlayer("Traded Guy"));
+        assertEquals(2, index.findEntriesById(200).size());
+    }
+
+    @Test
+    public void testFindById() {
+        assertEquals("Nazem Kadri", index.findById(100).getName());
+        assertNull(index.findById(999));
+    }
+
+    @Test
+    public void testTeamLookupIgnoresCase() {
+        assertEquals(2, index.getTeam("edm").getRoster().size());
+        assertNull(index.getTeam("TOR"));
+        assertEquals("Unknown Team", index.getTeamNameForPlayer("Nobody"));
+    }
+
+    @Test
+    public void testHandBuiltTeamsWithoutIds() {
+        Player p = new Player("Solo", "D", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0.0, 0, 0);
+        PlayerIndex handBuilt = PlayerIndex.build(Arrays.asList(new Team("X", Arrays.asList(p)), new Team("Y", null)));
+        assertEquals(p, handBuilt.findByName("solo"));
+        assertEquals(0, handBuilt.findEntriesById(0).size());
+    }
+}
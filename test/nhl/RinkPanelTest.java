@@ -0,0 +1,98 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+public class RinkPanelTest {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 425;
+
+    private List<ShotData> randomShots(int count, long seed) {
+        Random random = new Random(seed);
+        List<ShotData> shots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shots.add(new ShotData(random.nextDouble() * 200 - 100, random.nextDouble() * 85 - 42.5,
+                    "Shooter", random.nextDouble() * 0.3));
+        }
+        return shots;
+    }
+
+    private BufferedImage paint(RinkPanel panel, Rectangle clip, BufferedImage onto) {
+        BufferedImage image = onto != null ? onto : new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            if (clip != null) g2.setClip(clip);
+            panel.paint(g2);
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    private void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    /** Lets the refresh timer fire and the EDT drain. */
+    private void awaitRefresh() throws Exception {
+        Thread.sleep(150);
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    @Test
+    public void testStreamedBatchesMatchFullGrid() throws Exception {
+        List<ShotData> shots = randomShots(2000, 3);
+        RinkPanel panel = new RinkPanel((HeatmapGrid) null);
+        panel.setSize(WIDTH, HEIGHT);
+
+        for (int i = 0; i < shots.size(); i += 250) {
+            List<ShotData> batch = shots.subList(i, i + 250);
+            SwingUtilities.invokeAndWait(() -> panel.addShots(batch));
+        }
+        awaitRefresh();
+
+        assertEquals(2000, panel.getGrid().getShotCount());
+        assertSameImage(RinkPanel.render(HeatmapGrid.fromShots(shots), WIDTH, HEIGHT), paint(panel, null, null));
+    }
+
+    @Test
+    public void testAddShotsExtendsPrecomputedGrid() throws Exception {
+        List<ShotData> first = randomShots(300, 5);
+        List<ShotData> second = randomShots(300, 6);
+        RinkPanel panel = new RinkPanel(HeatmapGrid.fromShots(first));
+        panel.setSize(WIDTH, HEIGHT);
+
+        SwingUtilities.invokeAndWait(() -> panel.addShots(second));
+        awaitRefresh();
+
+        List<ShotData> all = new ArrayList<>(first);
+        all.addAll(second);
+        assertEquals(HeatmapGrid.fromShots(all).total(), panel.getGrid().total(), 1e-9);
+        assertEquals(600, panel.getGrid().getShotCount());
+    }
+
+    @Test
+    public void testClippedPaintMatchesFullPaint() {
+        RinkPanel panel = new RinkPanel(HeatmapGrid.fromShots(randomShots(1500, 7)));
+        panel.setSize(WIDTH, HEIGHT);
+        BufferedImage full = paint(panel, null, null);
+
+        // Interior regions only: antialiased outline pixels may differ slightly when the renderer clips paths
+        BufferedImage patched = paint(panel, null, null);
+        paint(panel, new Rectangle(333, 111, 97, 64), patched);
+        paint(panel, new Rectangle(600, 200, 120, 90), patched);
+        assertSameImage(full, patched);
+    }
+}
@@ -0,0 +1,83 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ScoringEngineTest {
+
+    private Player createPlayer(String name, String pos, double xga, double iceTime, int hits, int takeaways,
+                                int giveaways, int blocked, int goals, int points, double highDanger, int reboundGoals) {
+        return new Player(name, pos, xga, 0.0, hits, takeaways, goals, points,
+                blocked, 0, 0, giveaways, 0, 0, iceTime, 0, 0, 0, 0, highDanger, reboundGoals, 82);
+    }
+
+    @Test
+    public void testScoreAllMatchesSingleScores() {
+        List<Player> players = Arrays.asList(
+                createPlayer("A", "C", 1.0, 60, 5, 4, 2, 3, 2, 5, 1.0, 1),
+                createPlayer("B", "D", 2.5, 900, 40, 10, 12, 60, 3, 15, 2.2, 0),
+                createPlayer("C", "L", 0.0, 0, 0, 0, 0, 0, 0, 0, 0.0, 0));
+        ScoringEngine engine = new ScoringEngine(0.7, 0.3, 0.6);
+
+        double[] scores = engine.scoreAll(players);
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(engine.score(players.get(i)), scores[i], 0.0);
+            assertEquals(LineupGenerator.getPlayerCompositeScore(players.get(i), null, 0.7, 0.3, 0.6), scores[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testTableRowsScoreLikeTheirPlayers() {
+        SkaterTable table = new SkaterTable();
+        table.addRow("CGY", "A", "C", 1.0, 0.0, 5, 4, 2, 5, 3, 0, 0, 2, 0, 0, 60, 0, 0, 0, 0, 1.0, 1, 82);
+        table.addRow("CGY", "B", "D", 2.5, 0.0, 40, 10, 3, 15, 60, 0, 0, 12, 0, 0, 900, 0, 0, 0, 0, 2.2, 0, 82);
+        table.addRow("EDM", "C", "L", 0.0, 0.0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0.0, 0, 82);
+        ScoringEngine engine = new ScoringEngine(0.7, 0.3, 0.6);
+        int[] rows = {2, 0, 1};
+
+        double[] scores = engine.scoreAll(table, rows);
+        double[] slopes = engine.threatSlopes(table, rows);
+        List<Player> players = new ArrayList<>();
+        for (int row : rows) players.add(table.getPlayer(row));
+        players.add(createPlayer("Standalone", "C", 1.0, 60, 5, 4, 2, 3, 2, 5, 1.0, 1)); // another table
+        double[] mixed = engine.scoreAll(players);
+        double[] mixedSlopes = engine.threatSlopes(players);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(engine.score(table.getPlayer(rows[i])), scores[i], 0.0);
+            assertEquals(scores[i], mixed[i], 0.0);
+            assertEquals(slopes[i], mixedSlopes[i], 0.0);
+        }
+        assertEquals(mixed[1], mixed[3], 0.0); // same stats as row 0
+    }
+
+    @Test
+    public void testBreakdownComponents() {
+        Player p = createPlayer("Comp", "C", 1.0, 60, 5, 4, 2, 3, 2, 5, 1.0, 1);
+        ScoringEngine.Breakdown b = new ScoringEngine(0.7, 0.3, 1.0).breakdown(p);
+
+        assertEquals(1.0, b.getXgaPer60(), 1e-9);
+        assertEquals(-1.5 + 0.2 + 0.15, b.getBaseDefScore(), 1e-9);
+        assertEquals(6.0, b.getPossessionScore(), 1e-9);
+        assertEquals(1.25, b.getMatchupMultiplier(), 1e-9);
+        assertEquals(0.3 + 0.5 + 0.08 + 0.1, b.getOffScore(), 1e-9);
+        assertEquals(0.7 * b.getDefScore() * 1.25 + 0.3 * b.getOffScore(), b.getComposite(), 1e-9);
+        assertSame(p, b.getPlayer());
+    }
+
+    @Test
+    public void testRankDescendingKeepsTiesInOrder() {
+        int[] ranked = ScoringEngine.rankDescending(new double[]{1.0, 3.0, 1.0, 2.0, 3.0});
+        assertArrayEquals(new int[]{1, 4, 3, 0, 2}, ranked);
+    }
+
+    @Test
+    public void testThreatBoostIsCapped() {
+        assertEquals(0.0, ScoringEngine.threatBoost(null), 0.0);
+        Player star = createPlayer("Star", "C", 0, 1000, 0, 0, 0, 0, 20, 40, 10.0, 3);
+        assertEquals(1.0, ScoringEngine.threatBoost(star), 0.0);
+        Player depth = createPlayer("Depth", "C", 0, 1000, 0, 0, 0, 0, 1, 2, 1.5, 0);
+        assertEquals(0.5, ScoringEngine.threatBoost(depth), 1e-9);
+    }
+}
@@ -0,0 +1,83 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ScoringWeightsTest {
+
+    private File tempFile;
+
+    @After
+    public void tearDown() {
+        ScoringEngine.setWeightProfile(ScoringWeights.DEFAULT);
+        if (tempFile != null) tempFile.delete();
+    }
+
+    private File write(String content) throws IOException {
+        tempFile = File.createTempFile("weights", ".properties");
+        Files.write(tempFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return tempFile;
+    }
+
+    private static Player player(String name, double xga, int hits, int takeaways, int goals) {
+        return new Player(name, "C", xga, 0.0, hits, takeaways, goals, goals, 3, 0, 0, 2, 0, 0,
+                900, 0, 0, 0, 0, 1.5, 1, 82);
+    }
+
+    @Test
+    public void testSaveLoadRoundTrip() throws IOException {
+        ScoringWeights weights = ScoringWeights.DEFAULT
+                .with(ScoringWeights.Term.HITS, 0.123456789)
+                .with(ScoringWeights.Term.XGA_PER_60, -2.0 / 3.0);
+        File file = write("");
+        weights.save(file.getAbsolutePath(), "test profile");
+        assertEquals(weights, ScoringWeights.load(file.getAbsolutePath()));
+    }
+
+    @Test
+    public void testPartialProfileKeepsDefaults() throws IOException {
+        ScoringWeights weights = ScoringWeights.load(write("# only hits\nhits = 0.5\n").getAbsolutePath());
+        assertEquals(0.5, weights.get(ScoringWeights.Term.HITS), 0.0);
+        assertEquals(-1.5, weights.get(ScoringWeights.Term.XGA_PER_60), 0.0);
+        assertEquals(0.7, weights.get(ScoringWeights.Term.DEF_WEIGHT), 0.0);
+    }
+
+    @Test
+    public void testBadProfilesAreRejected() throws IOException {
+        for (String content : new String[]{"hitz=1\n", "hits=lots\n", "hits=NaN\n"}) {
+            try {
+                ScoringWeights.load(write(content).getAbsolutePath());
+                fail("Accepted " + content.trim());
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+        assertFalse(LineupGenerator.loadWeightProfile(write("hits=lots\n").getAbsolutePath()));
+        assertSame(ScoringWeights.DEFAULT, ScoringEngine.getWeightProfile());
+    }
+
+    @Test
+    public void testDefaultWeightsMatchBuiltInScoring() {
+        List<Player> players = Arrays.asList(player("A", 1.0, 5, 4, 2), player("B", 2.5, 40, 10, 3));
+        double[] legacy = new ScoringEngine(0.7, 0.3, 0.6).scoreAll(players);
+        assertArrayEquals(legacy, new ScoringEngine(ScoringWeights.DEFAULT, 0.6).scoreAll(players), 0.0);
+    }
+
+    @Test
+    public void testLoadedProfileChangesScoring() throws IOException {
+        Player hitter = player("Hitter", 2.0, 200, 0, 0);
+        Player scorer = player("Scorer", 2.0, 0, 0, 30);
+        assertTrue(ScoringEngine.forTarget(null).score(hitter) > ScoringEngine.forTarget(null).score(scorer));
+
+        assertTrue(LineupGenerator.loadWeightProfile(write("hits=0\ngoals=1\noffWeight=1\n").getAbsolutePath()));
+        assertEquals(1.0, ScoringEngine.getWeightProfile().get(ScoringWeights.Term.GOALS), 0.0);
+        assertTrue(ScoringEngine.forTarget(null).score(hitter) < ScoringEngine.forTarget(null).score(scorer));
+        // Explicit def/off weights still take the other coefficients from the profile
+        assertEquals(0.0, new ScoringEngine(0.7, 0.3, 0.0).getWeights().get(ScoringWeights.Term.HITS), 0.0);
+    }
+}
@@ -0,0 +1,168 @@
+package test.nhl;
+
+import nhl.ShotData;
+import nhl.ShotDataLoader;
+import nhl.ShotIndex;
+import nhl.ShotListener;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+public class ShotDataLoaderTest {
+
+    private File tempCsv;
+
+    @Before
+    public void setUp() throws IOException {
+        tempCsv = File.createTempFile("test_shots", ".csv");
+        writeShots("shotID,xCordAdjusted,yCordAdjusted,shooterName,xGoal\n" +
+                   "1,50,10,Connor McDavid,0.25\n" +
+                   "2,-60,5,Leon Draisaitl,0.10\n" +
+                   "3,70,-20,connor mcdavid,0.05\n" +
+                   "4,80,0,Leon Draisaitl,bad\n" +
+                   "5,20\n");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(ShotIndex.indexPathFor(tempCsv.toPath().toAbsolutePath()));
+        tempCsv.delete();
+    }
+
+    private void writeShots(String content) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempCsv))) {
+            bw.write(content);
+        }
+    }
+
+    @Test
+    public void testLoadsOnlyRequestedShooterIgnoringCase() {
+        List<ShotData> shots = ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "CONNOR MCDAVID");
+        assertEquals(2, shots.size());
+        assertEquals(50.0, shots.get(0).getX(), 0.0);
+        assertEquals(-20.0, shots.get(1).getY(), 0.0);
+        assertEquals(0.05, shots.get(1).getXGoal(), 0.0);
+    }
+
+    @Test
+    public void testMalformedValuesParseAsZero() {
+        List<ShotData> shots = ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Leon Draisaitl");
+        assertEquals(2, shots.size());
+        assertEquals(0.0, shots.get(1).getXGoal(), 0.0);
+    }
+
+    @Test
+    public void testWritesSidecarIndex() {
+        ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Nobody");
+        assertTrue(Files.exists(ShotIndex.indexPathFor(tempCsv.toPath().toAbsolutePath())));
+    }
+
+    @Test
+    public void testIndexRebuiltWhenFileChanges() throws IOException {
+        assertEquals(2, ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Leon Draisaitl").size());
+
+        FileTime before = Files.getLastModifiedTime(tempCsv.toPath());
+        writeShots("shotID,xCordAdjusted,yCordAdjusted,shooterName,xGoal\n" +
+                   "1,10,10,Leon Draisaitl,0.5\n");
+        Files.setLastModifiedTime(tempCsv.toPath(), FileTime.fromMillis(before.toMillis() + 5000));
+
+        List<ShotData> shots = ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Leon Draisaitl");
+        assertEquals(1, shots.size());
+        assertEquals(0.5, shots.get(0).getXGoal(), 0.0);
+    }
+
+    private static final class Collector implements ShotListener {
+        final List<List<ShotData>> batches = new ArrayList<>();
+        int completed = -1;
+
+        @Override
+        public void onShots(List<ShotData> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onComplete(int shotCount) {
+            completed = shotCount;
+        }
+
+        List<ShotData> all() {
+            List<ShotData> shots = new ArrayList<>();
+            batches.forEach(shots::addAll);
+            return shots;
+        }
+    }
+
+    private String largeShotFile(int rows) {
+        StringBuilder csv = new StringBuilder("shotID,xCordAdjusted,yCordAdjusted,shooterName,xGoal\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(',').append(i % 180 - 90).append(',').append(i % 80 - 40).append(',')
+               .append(i % 3 == 0 ? "Connor McDavid" : "Leon Draisaitl").append(",0.125\n");
+        }
+        return csv.toString();
+    }
+
+    @Test
+    public void testStreamingScanDeliversBatchesWithoutBuildingIndex() throws IOException {
+        writeShots(largeShotFile(3000));
+        Collector collector = new Collector();
+        int count = ShotDataLoader.streamShotsForPlayer(tempCsv.getAbsolutePath(), "connor mcdavid", collector);
+
+        assertEquals(1000, count);
+        assertEquals(1000, collector.completed);
+        assertTrue(collector.batches.size() >= 4);
+        for (List<ShotData> batch : collector.batches) assertTrue(batch.size() <= 256);
+        assertFalse(Files.exists(ShotIndex.indexPathFor(tempCsv.toPath().toAbsolutePath())));
+
+        List<ShotData> streamed = collector.all();
+        List<ShotData> loaded = ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Connor McDavid");
+        assertEquals(loaded.size(), streamed.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(loaded.get(i).getX(), streamed.get(i).getX(), 0.0);
+            assertEquals(loaded.get(i).getY(), streamed.get(i).getY(), 0.0);
+        }
+    }
+
+    @Test
+    public void testStreamingUsesCurrentIndex() {
+        ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Nobody"); // builds the index
+        Collector collector = new Collector();
+        assertEquals(2, ShotDataLoader.streamShotsForPlayer(tempCsv.getAbsolutePath(), "Leon Draisaitl", collector));
+        assertEquals(1, collector.batches.size());
+        assertEquals(0.0, collector.all().get(1).getXGoal(), 0.0);
+    }
+
+    @Test
+    public void testGzipFile() throws IOException {
+        File gz = File.createTempFile("test_shots", ".csv.gz");
+        try {
+            try (Writer out = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(gz)), "UTF-8")) {
+                out.write(largeShotFile(3000).replace("\n", "\r\n"));
+            }
+            Collector collector = new Collector();
+            assertEquals(2000, ShotDataLoader.streamShotsForPlayer(gz.getAbsolutePath(), "Leon Draisaitl", collector));
+            assertEquals(2000, ShotDataLoader.loadShotsForPlayer(gz.getAbsolutePath(), "Leon Draisaitl").size());
+            assertEquals(-89.0, collector.all().get(0).getX(), 0.0);
+        } finally {
+            gz.delete();
+        }
+    }
+
+    @Test
+    public void testStreamingMissingFileCompletesEmpty() {
+        Collector collector = new Collector();
+        assertEquals(0, ShotDataLoader.streamShotsForPlayer("does/not/exist.csv", "Anyone", collector));
+        assertEquals(0, collector.completed);
+        assertTrue(collector.batches.isEmpty());
+    }
+
+    @Test
+    public void testMissingColumnsReturnsEmpty() throws IOException {
+        writeShots("a,b,c\n1,2,3\n");
+        assertTrue(ShotDataLoader.loadShotsForPlayer(tempCsv.getAbsolutePath(), "Anyone").isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package test.nhl;
+
+import nhl.Leaderboard;
+import nhl.Player;
+import nhl.SimilarityIndex;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class SimilarityIndexTest {
+
+    private static final String[] POSITIONS = {"C", "L", "R", "D"};
+
+    private static Player randomPlayer(Random random, int i) {
+        return new Player("P" + i, POSITIONS[random.nextInt(4)], random.nextDouble(), random.nextDouble() * 3,
+                random.nextInt(150), random.nextInt(60), random.nextInt(30), random.nextInt(70),
+                random.nextInt(120), random.nextInt(900), random.nextInt(300),
+                random.nextInt(60), random.nextInt(300), random.nextInt(200),
+                300 + random.nextInt(1500), 0, 0, 0, random.nextInt(40), random.nextDouble() * 8, 0,
+                20 + random.nextInt(63));
+    }
+
+    private List<Player> players;
+    private SimilarityIndex index;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(11);
+        players = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) players.add(randomPlayer(random, i));
+        index = SimilarityIndex.build(players);
+    }
+
+    /** Distances of the k closest accepted players, by scanning every player. */
+    private double[] bruteForce(Player target, int k, String position) {
+        List<Double> distances = new ArrayList<>();
+        for (Player p : players) {
+            if (p == target || (position != null && !position.equals(p.getPosition()))) continue;
+            distances.add(index.distance(target, p));
+        }
+        Collections.sort(distances);
+        double[] result = new double[Math.min(k, distances.size())];
+        for (int i = 0; i < result.length; i++) result[i] = distances.get(i);
+        return result;
+    }
+
+    private static double[] distances(List<SimilarityIndex.Match> matches) {
+        double[] result = new double[matches.size()];
+        for (int i = 0; i < result.length; i++) result[i] = matches.get(i).getDistance();
+        return result;
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        assertEquals(2000, index.size());
+        for (int q = 0; q < 50; q++) {
+            Player target = players.get(q * 37);
+            assertArrayEquals(bruteForce(target, 10, null), distances(index.nearest(target, 10)), 1e-12);
+            assertArrayEquals(bruteForce(target, 5, "D"),
+                    distances(index.nearest(target, 5, Leaderboard.Filter.ALL.position("D"))), 1e-12);
+        }
+    }
+
+    @Test
+    public void testNearestExcludesTargetAndFindsTwin() {
+        Player target = players.get(0);
+        Player twin = new Player("Twin", target.getPosition(), target.getExpectedGoalsAgainst(),
+                target.getOnIceExpectedGoalsAgainstPer60(), target.getHits(), target.getTakeaways(),
+                target.getGoals(), target.getPoints(), target.getBlockedShots(), target.getShotAttemptsAgainst(),
+                target.getDZoneStarts(), target.getGiveaways(), target.getOZoneStarts(), target.getNZoneStarts(),
+                target.getIceTime(), 0, 0, 0, target.getPenaltyMinutes(), target.getHighDangerxGoals(), 0, 82);
+        List<Player> withTwin = new ArrayList<>(players);
+        withTwin.add(twin);
+
+        List<SimilarityIndex.Match> matches = SimilarityIndex.build(withTwin).nearest(target, 3);
+        assertEquals(3, matches.size());
+        assertSame(twin, matches.get(0).getPlayer());
+        assertEquals(0.0, matches.get(0).getDistance(), 1e-12);
+        for (SimilarityIndex.Match m : matches) assertNotSame(target, m.getPlayer());
+    }
+
+    @Test
+    public void testWithinRadiusMatchesBruteForce() {
+        Player target = players.get(5);
+        double radius = bruteForce(target, 40, null)[39];
+        List<SimilarityIndex.Match> matches = index.withinRadius(target, radius, Leaderboard.Filter.ALL);
+        assertArrayEquals(bruteForce(target, 40, null), distances(matches), 1e-12);
+    }
+
+    @Test
+    public void testEmptyAndZeroIceTimePlayers() {
+        Player benched = new Player("Benched", "C", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0.0, 0, 0, 0, 0, 0, 0, 0);
+        SimilarityIndex empty = SimilarityIndex.build(Collections.singletonList(benched));
+        assertEquals(0, empty.size());
+        assertTrue(empty.nearest(players.get(0), 5).isEmpty());
+        assertTrue(index.nearest(null, 5).isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package test.nhl;
+
+import nhl.DataLoader;
+import nhl.SkaterSnapshot;
+import nhl.SkaterTable;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+
+public class SkaterSnapshotTest {
+
+    private File tempCsv;
+    private Path snapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        tempCsv = File.createTempFile("test_snapshot", ".csv");
+        snapshot = SkaterSnapshot.snapshotPathFor(tempCsv.getAbsolutePath());
+        writeCsv("Player One", "7");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        tempCsv.delete();
+        Files.deleteIfExists(snapshot);
+    }
+
+    private void writeCsv(String name, String hits) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempCsv))) {
+            bw.write("Header\n");
+            bw.write("0,0," + name + ",TeamA,C,5on5,82,3600," + "1,".repeat(38) + hits + "," + "4,".repeat(91) + "0\n");
+            bw.write("0,0,Player Two,TeamB,D,5on5,82,3000," + "2,".repeat(129) + "0\n");
+        }
+    }
+
+    @Test
+    public void testRoundTripKeepsStatsAndEfficiency() {
+        SkaterTable loaded = DataLoader.loadSkaterTableCached(tempCsv.getAbsolutePath());
+        assertTrue(Files.exists(snapshot));
+
+        SkaterTable cached = SkaterSnapshot.read(tempCsv.getAbsolutePath(), snapshot);
+        assertNotNull(cached);
+        assertEquals(loaded.size(), cached.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(loaded.getName(i), cached.getName(i));
+            assertEquals(loaded.getTeam(i), cached.getTeam(i));
+            assertEquals(loaded.getHits(i), cached.getHits(i));
+            assertEquals(loaded.getIceTime(i), cached.getIceTime(i), 0.0);
+            assertEquals(loaded.getTakeawayEfficiencyScore(i), cached.getTakeawayEfficiencyScore(i), 0.0);
+        }
+        assertArrayEquals(loaded.getTeamRows("TeamB"), cached.getTeamRows("TeamB"));
+    }
+
+    @Test
+    public void testSnapshotInvalidatedWhenCsvChanges() throws IOException {
+        DataLoader.loadSkaterTableCached(tempCsv.getAbsolutePath());
+        FileTime mtime = Files.getLastModifiedTime(tempCsv.toPath());
+
+        writeCsv("Player 0ne", "7"); // same size, different content
+        Files.setLastModifiedTime(tempCsv.toPath(), mtime);
+        assertNull(SkaterSnapshot.read(tempCsv.getAbsolutePath(), snapshot));
+
+        SkaterTable reloaded = DataLoader.loadSkaterTableCached(tempCsv.getAbsolutePath());
+        assertEquals("Player 0ne", reloaded.getName(0));
+        assertNotNull(SkaterSnapshot.read(tempCsv.getAbsolutePath(), snapshot));
+    }
+
+    @Test
+    public void testCorruptSnapshotIgnored() throws IOException {
+        Files.write(snapshot, new byte[]{1, 2, 3});
+        assertNull(SkaterSnapshot.read(tempCsv.getAbsolutePath(), snapshot));
+        assertEquals(2, DataLoader.loadSkaterTableCached(tempCsv.getAbsolutePath()).size());
+    }
+}
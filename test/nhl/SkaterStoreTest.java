@@ -0,0 +1,136 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+public class SkaterStoreTest {
+
+    private final List<File> files = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (File file : files) file.delete();
+    }
+
+    private String row(int id, int season, String name, String team, String situation, int takeaways, int giveaways) {
+        String[] fields = new String[140];
+        Arrays.fill(fields, "0");
+        fields[0] = String.valueOf(id);
+        fields[1] = String.valueOf(season);
+        fields[2] = name;
+        fields[3] = team;
+        fields[4] = "C";
+        fields[5] = situation;
+        fields[6] = "82";
+        fields[7] = "3600";
+        fields[47] = String.valueOf(takeaways);
+        fields[48] = String.valueOf(giveaways);
+        return String.join(",", fields) + "\n";
+    }
+
+    private static String standardHeader() {
+        String[] names = new String[140];
+        for (int i = 0; i < names.length; i++) names[i] = "unused" + i;
+        for (SkaterSchema.Column column : SkaterSchema.Column.values()) {
+            names[column.getStandardIndex()] = column.getHeader();
+        }
+        return String.join(",", names) + "\n";
+    }
+
+    private String createCsv(String... rows) throws IOException {
+        File file = File.createTempFile("test_store", ".csv");
+        files.add(file);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+            bw.write(standardHeader());
+            for (String row : rows) bw.write(row);
+        }
+        return file.getAbsolutePath();
+    }
+
+    @Test
+    public void testSeasonsAreKeptApart() throws IOException {
+        SkaterStore store = new SkaterStore();
+        store.ingest(createCsv(
+                row(1, 2023, "Player One", "CGY", "5on5", 10, 0),
+                row(2, 2023, "Player Two", "CGY", "5on5", 20, 0),
+                row(1, 2023, "Player One", "CGY", "4on5", 1, 0)));
+        SkaterStore.IngestResult second = store.ingest(createCsv(
+                row(1, 2024, "Player One", "EDM", "5on5", 30, 0),
+                row(1, 2024, "Player One", "EDM", "5on5", 99, 0))); // first row in a file wins
+
+        assertEquals(1, second.getRowsAdded());
+        assertEquals(new TreeSet<>(Arrays.asList(2023, 2024)), store.getSeasons());
+        assertEquals(4, store.size());
+        assertEquals(10, store.getPlayer(1, 2023, Situation.FIVE_ON_FIVE).getTakeaways());
+        assertEquals(1, store.getPlayer(1, 2023, Situation.PENALTY_KILL).getTakeaways());
+        assertEquals(30, store.getPlayer(1, 2024, Situation.FIVE_ON_FIVE).getTakeaways());
+        assertNull(store.getPlayer(2, 2024, Situation.FIVE_ON_FIVE));
+        assertEquals("EDM", store.toTeams(2024, Situation.FIVE_ON_FIVE).get(0).getName());
+        assertTrue(store.toTeams(2022, Situation.FIVE_ON_FIVE).isEmpty());
+    }
+
+    @Test
+    public void testDeltaUpdatesInPlaceAndRescoresOnlyWhatChanged() throws IOException {
+        SkaterStore store = new SkaterStore();
+        store.ingest(createCsv(
+                row(1, 2024, "Player One", "CGY", "5on5", 0, 0),
+                row(2, 2024, "Player Two", "CGY", "5on5", 5, 0),
+                row(3, 2024, "Player Three", "CGY", "5on5", 10, 0),
+                row(1, 2024, "Player One", "CGY", "5on4", 4, 0)));
+        Player two = store.getPlayer(2, 2024, Situation.FIVE_ON_FIVE);
+        assertEquals(1.0, two.getTakeawayEfficiencyScore(), 1e-9);
+
+        // Bounds unchanged: only the updated 5on5 row is rescored; the 5on4 table is untouched
+        SkaterStore.IngestResult delta = store.ingest(createCsv(row(2, 2024, "Player Two", "CGY", "5on5", 8, 0)));
+        assertEquals(0, delta.getRowsAdded());
+        assertEquals(1, delta.getRowsUpdated());
+        assertEquals(1, delta.getRowsRescored());
+        assertEquals(8, two.getTakeaways());
+        assertEquals(1.6, two.getTakeawayEfficiencyScore(), 1e-9);
+        assertEquals(3, store.getTable(2024, Situation.FIVE_ON_FIVE).size());
+
+        // A new maximum moves the bounds, so the whole table is rescored
+        delta = store.ingest(createCsv(row(4, 2024, "Player Four", "EDM", "5on5", 20, 0)));
+        assertEquals(1, delta.getRowsAdded());
+        assertEquals(4, delta.getRowsRescored());
+        assertEquals(0.8, two.getTakeawayEfficiencyScore(), 1e-9);
+        assertEquals(2.0, store.getPlayer(4, 2024, Situation.FIVE_ON_FIVE).getTakeawayEfficiencyScore(), 1e-9);
+    }
+
+    @Test
+    public void testUnchangedFileIsNotParsedAgain() throws IOException {
+        SkaterStore store = new SkaterStore();
+        String path = createCsv(row(1, 2024, "Player One", "CGY", "5on5", 3, 1));
+        assertEquals(1, store.ingest(path).getRowsAdded());
+
+        SkaterStore.IngestResult again = store.ingest(path);
+        assertEquals(0, again.getRowsAdded());
+        assertEquals(0, again.getRowsUpdated());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testTradedPlayerMovesTeams() throws IOException {
+        SkaterStore store = new SkaterStore();
+        store.ingest(createCsv(row(1, 2024, "Player One", "CGY", "5on5", 3, 1),
+                row(2, 2024, "Player Two", "CGY", "5on5", 3, 1)));
+        store.ingest(createCsv(row(1, 2024, "Player One", "EDM", "5on5", 4, 1)));
+
+        SkaterTable table = store.getTable(2024, Situation.FIVE_ON_FIVE);
+        assertEquals(2, table.size());
+        assertArrayEquals(new int[]{1}, table.getTeamRows("CGY"));
+        assertArrayEquals(new int[]{0}, table.getTeamRows("EDM"));
+    }
+
+    @Test
+    public void testMissingFileChangesNothing() {
+        SkaterStore store = new SkaterStore();
+        SkaterStore.IngestResult result = store.ingest("does/not/exist.csv");
+        assertEquals(0, result.getRowsAdded());
+        assertTrue(store.getSeasons().isEmpty());
+    }
+}
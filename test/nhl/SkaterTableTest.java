@@ -0,0 +1,78 @@
+package test.nhl;
+
+import nhl.Player;
+import nhl.SkaterTable;
+import nhl.Team;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+public class SkaterTableTest {
+
+    private SkaterTable table;
+
+    private int addPlayer(String team, String name, String pos, int hits, int takeaways) {
+        return table.addRow(team, name, pos, 1.0, 2.0, hits, takeaways, 0, 0, 0, 0, 0, 0, 0, 0,
+                60.0, 0, 0, 0, 0, 0.5, 0, 82);
+    }
+
+    @Before
+    public void setUp() {
+        table = new SkaterTable(1); // force growth
+    }
+
+    @Test
+    public void testRowsAreOrdinals() {
+        assertEquals(0, addPlayer("CGY", "A", "C", 10, 1));
+        assertEquals(1, addPlayer("EDM", "B", "D", 20, 2));
+        assertEquals(2, addPlayer("CGY", "C", "L", 30, 3));
+        assertEquals(3, table.size());
+        assertEquals(20, table.getHits(1));
+        assertEquals("C", table.getName(2));
+    }
+
+    @Test
+    public void testTeamRowsGroupedInInsertionOrder() {
+        addPlayer("CGY", "A", "C", 10, 1);
+        addPlayer("EDM", "B", "D", 20, 2);
+        addPlayer("CGY", "C", "L", 30, 3);
+        assertArrayEquals(new int[]{0, 2}, table.getTeamRows("CGY"));
+        assertEquals(Arrays.asList("CGY", "EDM"), new ArrayList<>(table.getTeamNames()));
+        assertEquals(0, table.getTeamRows("TOR").length);
+    }
+
+    @Test
+    public void testTeamViewsReadThroughToTable() {
+        addPlayer("CGY", "A", "C", 10, 1);
+        addPlayer("CGY", "B", "D", 20, 2);
+        List<Team> teams = table.toTeams();
+        assertEquals(1, teams.size());
+        Player b = teams.get(0).getRoster().get(1);
+        assertEquals("B", b.getName());
+        assertEquals(2, b.getTakeaways());
+
+        b.setTakeawayEfficiencyScore(1.5);
+        assertEquals(1.5, table.getTakeawayEfficiencyScore(1), 0.0001);
+    }
+
+    @Test
+    public void testViewsOfSameRowAreEqual() {
+        addPlayer("CGY", "A", "C", 10, 1);
+        assertEquals(table.getPlayer(0), table.getPlayer(0));
+        assertEquals(table.getPlayer(0).hashCode(), table.getPlayer(0).hashCode());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPlayerOutOfRange() {
+        table.getPlayer(0);
+    }
+
+    @Test
+    public void testStandalonePlayerHasOwnTable() {
+        Player p = new Player("Solo", "C", 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11.0, 12, 13, 14, 15, 16.0, 17, 18);
+        assertEquals(1, p.getTable().size());
+        assertEquals(0, p.getRow());
+        assertEquals(18, p.getGamesPlayed());
+    }
+}
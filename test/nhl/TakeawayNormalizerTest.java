@@ -0,0 +1,109 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class TakeawayNormalizerTest {
+
+    private SkaterTable table;
+
+    private int addPlayer(String name, int takeaways, int giveaways) {
+        return table.addRow("CGY", name, "C", 0, 0, 0, takeaways, 0, 0, 0, 0, 0, giveaways, 0, 0,
+                60.0, 0, 0, 0, 0, 0, 0, 82);
+    }
+
+    @Before
+    public void setUp() {
+        table = new SkaterTable();
+        addPlayer("A", 0, 0);
+        addPlayer("B", 5, 2);
+        addPlayer("C", 10, 4);
+    }
+
+    private void assertMatchesFullRecompute(TakeawayNormalizer normalizer) {
+        SkaterTable copy = new SkaterTable();
+        for (int row = 0; row < table.size(); row++) {
+            copy.addRow(table.getTeam(row), table.getName(row), "C", 0, 0, 0, table.getTakeaways(row), 0, 0,
+                    0, 0, 0, table.getGiveaways(row), 0, 0, 60.0, 0, 0, 0, 0, 0, 0, 82);
+        }
+        TakeawayNormalizer fresh = new TakeawayNormalizer(copy);
+        for (int row = 0; row < table.size(); row++) {
+            assertEquals(fresh.score(row), normalizer.score(row), 1e-12);
+        }
+    }
+
+    @Test
+    public void testInitialScoresMatchLoaderFormula() {
+        TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+        assertTrue(normalizer.isStale());
+        assertEquals(3, normalizer.flush());
+        assertFalse(normalizer.isStale());
+        assertEquals(0.0, table.getTakeawayEfficiencyScore(0), 1e-12);
+        assertEquals(2.0 * 0.5 - 0.5 * 0.5, table.getTakeawayEfficiencyScore(1), 1e-12);
+        assertEquals(1.5, table.getTakeawayEfficiencyScore(2), 1e-12);
+    }
+
+    @Test
+    public void testInteriorChangeRescoresOneRow() {
+        TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+        normalizer.flush();
+        long before = normalizer.getRescoreCount();
+
+        normalizer.setCounts(1, 8, 1);
+        assertEquals(1, normalizer.getRescoreCount() - before);
+        assertFalse(normalizer.isStale());
+        assertEquals(2.0 * 0.8 - 0.5 * 0.25, table.getTakeawayEfficiencyScore(1), 1e-12);
+        assertMatchesFullRecompute(normalizer);
+    }
+
+    @Test
+    public void testMovedExtremeRescalesLazilyOnce() {
+        TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+        normalizer.flush();
+        long before = normalizer.getRescoreCount();
+
+        normalizer.setCounts(2, 6, 4); // old maximum removed; the multiset knows the next largest
+        assertEquals(6, normalizer.getMaxTakeaways());
+        normalizer.setCounts(0, 1, 0);
+        assertEquals(1, normalizer.getMinTakeaways());
+        assertEquals(0, normalizer.getRescoreCount() - before);
+        assertTrue(normalizer.isStale());
+
+        assertEquals(2.0 * 4 / 5.0 - 0.5 * 0.5, normalizer.score(1), 1e-12);
+        assertEquals(2, normalizer.flush());
+        assertMatchesFullRecompute(normalizer);
+    }
+
+    @Test
+    public void testRowAdded() {
+        TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+        normalizer.flush();
+
+        normalizer.rowAdded(addPlayer("D", 3, 1));
+        assertFalse(normalizer.isStale());
+        normalizer.rowAdded(addPlayer("E", 20, 0));
+        assertTrue(normalizer.isStale());
+        assertEquals(5, normalizer.flush());
+        assertEquals(2.0, table.getTakeawayEfficiencyScore(4), 1e-12);
+        assertMatchesFullRecompute(normalizer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRowsMustBeAddedInOrder() {
+        new TakeawayNormalizer(table).rowAdded(5);
+    }
+
+    @Test
+    public void testRandomUpdatesMatchFullRecompute() {
+        Random random = new Random(17);
+        for (int i = 0; i < 200; i++) addPlayer("P" + i, random.nextInt(60), random.nextInt(60));
+        TakeawayNormalizer normalizer = new TakeawayNormalizer(table);
+        for (int i = 0; i < 2000; i++) {
+            normalizer.setCounts(random.nextInt(table.size()), random.nextInt(70), random.nextInt(70));
+        }
+        assertMatchesFullRecompute(normalizer);
+    }
+}
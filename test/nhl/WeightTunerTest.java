@@ -0,0 +1,118 @@
+package test.nhl;
+
+import nhl.*;
+import org.junit.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class WeightTunerTest {
+
+    private SkaterTable table;
+
+    /** Players whose on-ice xGA/60 falls with takeaways and, more weakly, rises with goals. */
+    @Before
+    public void setUp() {
+        table = new SkaterTable();
+        Random random = new Random(5);
+        for (int i = 0; i < 400; i++) {
+            int takeaways = random.nextInt(60);
+            int goals = random.nextInt(30);
+            int hits = random.nextInt(150);
+            double onIceXga60 = 3.0 - 0.03 * takeaways + 0.01 * goals + random.nextGaussian() * 0.2;
+            table.addRow("T" + (i % 8), "P" + i, i % 3 == 0 ? "D" : "C", random.nextDouble() * 10, onIceXga60,
+                    hits, takeaways, goals, goals + random.nextInt(20), random.nextInt(80), 0, 0,
+                    random.nextInt(40), 0, 0, 600 + random.nextInt(600), 0, 0, 0, 0,
+                    random.nextDouble() * 6, random.nextInt(4), 20 + random.nextInt(63));
+        }
+    }
+
+    /** Spearman correlation computed the slow way, from engine scores. */
+    private static double spearman(double[] a, double[] b) {
+        double[] ra = ranks(a);
+        double[] rb = ranks(b);
+        double mean = (a.length - 1) / 2.0;
+        double cov = 0, va = 0, vb = 0;
+        for (int i = 0; i < a.length; i++) {
+            cov += (ra[i] - mean) * (rb[i] - mean);
+            va += (ra[i] - mean) * (ra[i] - mean);
+            vb += (rb[i] - mean) * (rb[i] - mean);
+        }
+        return cov / Math.sqrt(va * vb);
+    }
+
+    private static double[] ranks(double[] values) {
+        double[] ranks = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int less = 0, equal = 0;
+            for (double v : values) {
+                if (v < values[i]) less++;
+                else if (v == values[i]) equal++;
+            }
+            ranks[i] = less + (equal - 1) / 2.0;
+        }
+        return ranks;
+    }
+
+    @Test
+    public void testEvaluateMatchesEngineScores() {
+        WeightTuner tuner = WeightTuner.forOnIceXga(table, 0);
+        assertEquals(400, tuner.size());
+
+        List<Player> players = new ArrayList<>();
+        double[] target = new double[table.size()];
+        for (int r = 0; r < table.size(); r++) {
+            players.add(table.getPlayer(r));
+            target[r] = -table.getOnIceExpectedGoalsAgainstPer60(r);
+        }
+        ScoringWeights weights = ScoringWeights.DEFAULT.with(ScoringWeights.Term.POINTS, -0.2);
+        double[] scores = new ScoringEngine(weights, 0.0).scoreAll(players);
+        assertEquals(spearman(scores, target), tuner.evaluate(weights), 1e-9);
+    }
+
+    @Test
+    public void testMinGamesFiltersPlayers() {
+        int eligible = 0;
+        for (int r = 0; r < table.size(); r++) if (table.getGamesPlayed(r) >= 60) eligible++;
+        assertEquals(eligible, WeightTuner.forOnIceXga(table, 60).size());
+    }
+
+    @Test
+    public void testTuneImprovesAndIsDeterministic() {
+        WeightTuner tuner = WeightTuner.forOnIceXga(table, 0);
+        double baseline = tuner.evaluate(ScoringWeights.DEFAULT);
+        ScoringWeights tuned = tuner.tune(ScoringWeights.DEFAULT, 500, 9);
+
+        assertTrue(tuner.evaluate(tuned) > baseline);
+        assertTrue(tuner.evaluate(tuned) > 0.8);
+        assertEquals(tuned, tuner.tune(ScoringWeights.DEFAULT, 500, 9));
+        assertEquals(1.0, tuned.get(ScoringWeights.Term.DEF_WEIGHT) + tuned.get(ScoringWeights.Term.OFF_WEIGHT), 1e-12);
+        assertEquals(ScoringWeights.DEFAULT.get(ScoringWeights.Term.MATCHUP_GAIN),
+                tuned.get(ScoringWeights.Term.MATCHUP_GAIN), 0.0);
+    }
+
+    @Test
+    public void testGridAndRandomSearchNeverWorse() {
+        WeightTuner tuner = WeightTuner.forOnIceXga(table, 0);
+        double baseline = tuner.evaluate(ScoringWeights.DEFAULT);
+        assertTrue(tuner.evaluate(tuner.gridSearch(ScoringWeights.DEFAULT, new double[]{0.5, 1.0, 2.0})) >= baseline);
+        assertTrue(tuner.evaluate(tuner.randomSearch(ScoringWeights.DEFAULT, 200, 4.0, 3)) >= baseline);
+    }
+
+    @Test
+    public void testHoldoutMatchesByPlayerId() {
+        SkaterTable training = new SkaterTable();
+        SkaterTable holdout = new SkaterTable();
+        for (int i = 1; i <= 50; i++) {
+            training.addRow(i, "T", "P" + i, "C", 1.0, 2.0, 0, i, 0, 0, 0, 0, 0, 0, 0, 0,
+                    1000, 0, 0, 0, 0, 0, 0, 82);
+            // Next season, more takeaways this season means fewer goals against
+            if (i % 5 != 0) {
+                holdout.addRow(i, "T", "P" + i, "C", 1.0, 5.0 - i * 0.05, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                        1000, 0, 0, 0, 0, 0, 0, 82);
+            }
+        }
+        WeightTuner tuner = WeightTuner.forHoldout(training, holdout, 0);
+        assertEquals(40, tuner.size());
+        assertEquals(1.0, tuner.evaluate(ScoringWeights.DEFAULT), 1e-12);
+    }
+}